@@ -6,11 +6,13 @@ import net.dv8tion.jda.api.entities.ISnowflake;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.interactions.Interaction;
 import net.neoforged.camelot.api.config.impl.ConfigManagerImpl;
 import net.neoforged.camelot.api.config.storage.ConfigStorage;
 import net.neoforged.camelot.api.config.type.OptionRegistrar;
 
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 /**
  * A manager for configuration values that can be configured through a Discord command and can
@@ -32,6 +34,12 @@ public interface ConfigManager<G> extends EventListener {
      */
     void handleCommand(SlashCommandInteractionEvent event, G target);
 
+    /**
+     * {@return the prefix of the custom IDs of the buttons and modals of the configuration menus of this manager}
+     * Component and modal interactions whose custom ID starts with this prefix must be passed to {@link #onEvent(net.dv8tion.jda.api.events.GenericEvent)}.
+     */
+    String componentIdPrefix();
+
     /**
      * {@return a registrar used to register config options to this manager}
      * <p>
@@ -53,6 +61,24 @@ public interface ConfigManager<G> extends EventListener {
      */
     OptionRegistrar<G> registrar();
 
+    /**
+     * Load the values of all options of the given {@code target} from storage in bulk, so that reading them later does not query the storage.
+     * <p>
+     * Targets are also loaded in bulk automatically the first time any of their options is read, so calling this method is
+     * only needed to move the loading earlier (e.g. to when a guild becomes ready).
+     *
+     * @param target the target whose values to load
+     */
+    void preload(G target);
+
+    /**
+     * {@return an immutable snapshot of the current configuration values of the given {@code target}}
+     * Snapshots are cached until a value of the target changes, so obtaining one is cheap.
+     *
+     * @param target the target whose values to snapshot
+     */
+    ConfigSnapshot<G> snapshot(G target);
+
     /**
      * Create a {@link ConfigManager} that stores the config values in the given {@code storage}.
      *
@@ -66,4 +92,40 @@ public interface ConfigManager<G> extends EventListener {
     static <G> ConfigManager<G> create(ConfigStorage<G> storage, Function<G, Object> cacheKey) {
         return new ConfigManagerImpl<>(storage, cacheKey);
     }
+
+    /**
+     * Create a {@link ConfigManager} that stores the config values in the given {@code storage}, and caches them
+     * under the {@code long} ID of each target.
+     * <p>
+     * Each option caches the values of at most {@code maximumCachedTargets} targets, evicting the least recently read ones
+     * once it is full. This should be bounded for targets that are numerous but rarely configured, like {@linkplain User users}.
+     *
+     * @param storage              the storage to store config values in
+     * @param id                   a function returning the unique ID of each target object (for instance {@link ISnowflake#getIdLong()})
+     * @param maximumCachedTargets the maximum amount of targets whose values each option caches, or {@link Integer#MAX_VALUE} to not bound the caches
+     * @param <G>                  the type of the objects that config values attach to
+     * @return a config manager instance
+     */
+    static <G> ConfigManager<G> create(ConfigStorage<G> storage, ToLongFunction<G> id, int maximumCachedTargets) {
+        return new ConfigManagerImpl<>(storage, id, maximumCachedTargets);
+    }
+
+    /**
+     * Create a {@link ConfigManager} like {@link #create(ConfigStorage, ToLongFunction, int)}, whose configuration menus survive restarts.
+     * <p>
+     * The buttons of the menus encode the page they lead to in their custom ID, prefixed by the {@code name} of the manager, so
+     * they do not need to be remembered and keep working after the bot restarts. When such a button is clicked, the target
+     * of the menu is resolved from the interaction using {@code target}.
+     *
+     * @param name                 the name of the manager, unique among the managers registered to the same JDA instance
+     * @param storage              the storage to store config values in
+     * @param id                   a function returning the unique ID of each target object (for instance {@link ISnowflake#getIdLong()})
+     * @param maximumCachedTargets the maximum amount of targets whose values each option caches, or {@link Integer#MAX_VALUE} to not bound the caches
+     * @param target               a function resolving the target whose configuration a menu interaction edits (for instance {@link Interaction#getGuild()})
+     * @param <G>                  the type of the objects that config values attach to
+     * @return a config manager instance
+     */
+    static <G> ConfigManager<G> create(String name, ConfigStorage<G> storage, ToLongFunction<G> id, int maximumCachedTargets, Function<? super Interaction, G> target) {
+        return new ConfigManagerImpl<>(name, storage, id, maximumCachedTargets, target);
+    }
 }
@@ -0,0 +1,38 @@
+package net.neoforged.camelot.api.config;
+
+/**
+ * An immutable view of the configuration values of a target, as they were when the snapshot was taken.
+ * <p>
+ * Snapshots are meant to be obtained once per event by listeners that read several options of the same target:
+ * {@snippet :
+ * import net.dv8tion.jda.api.entities.Guild;
+ * ConfigManager<Guild> manager;
+ * ConfigOption<Guild, Boolean> enabled;
+ * ConfigOption<Guild, String> prefix;
+ * Guild guild;
+ *
+ * ConfigSnapshot<Guild> config = manager.snapshot(guild);
+ * if (config.get(enabled)) {
+ *     String currentPrefix = config.get(prefix);
+ * }
+ *}
+ *
+ * @param <G> the type of the target
+ * @see ConfigManager#snapshot(Object)
+ */
+public interface ConfigSnapshot<G> {
+    /**
+     * {@return the target whose configuration values this snapshot holds}
+     */
+    G target();
+
+    /**
+     * Get the value of the given {@code option} at the time the snapshot was taken,
+     * or the option's default value if a value was not explicitly set.
+     *
+     * @param option the option whose value to get
+     * @return the configuration value
+     * @throws IllegalArgumentException if the option was not registered to the manager that created this snapshot
+     */
+    <T> T get(ConfigOption<G, T> option);
+}
@@ -16,8 +16,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 class ChannelFilterOption implements OptionType<ChannelFilter> {
     private static final ChannelFilterOption INSTANCE = new ChannelFilterOption();
@@ -36,10 +34,8 @@ class ChannelFilterOption implements OptionType<ChannelFilter> {
         var o = (JSONObject) value;
         return new ChannelFilter(
                 o.optBoolean("all"),
-                StreamSupport.stream(o.optJSONArray("whitelist").spliterator(), false)
-                        .map(ob -> (Long) ob).collect(Collectors.toSet()),
-                StreamSupport.stream(o.optJSONArray("blacklist").spliterator(), false)
-                        .map(ob -> (Long) ob).collect(Collectors.toSet())
+                EntityOption.toSet(o.optJSONArray("whitelist")),
+                EntityOption.toSet(o.optJSONArray("blacklist"))
         );
     }
 
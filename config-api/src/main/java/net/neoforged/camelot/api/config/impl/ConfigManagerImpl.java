@@ -10,32 +10,47 @@ import net.dv8tion.jda.api.components.section.Section;
 import net.dv8tion.jda.api.components.textdisplay.TextDisplay;
 import net.dv8tion.jda.api.entities.emoji.Emoji;
 import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.update.ChannelUpdateParentEvent;
 import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.hooks.EventListener;
 import net.dv8tion.jda.api.interactions.ICustomIdInteraction;
+import net.dv8tion.jda.api.interactions.Interaction;
 import net.dv8tion.jda.api.modals.Modal;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 import net.dv8tion.jda.api.utils.messages.MessageEditBuilder;
 import net.dv8tion.jda.api.utils.messages.MessageEditData;
 import net.neoforged.camelot.api.config.ConfigManager;
+import net.neoforged.camelot.api.config.ConfigOption;
+import net.neoforged.camelot.api.config.ConfigSnapshot;
 import net.neoforged.camelot.api.config.storage.ConfigStorage;
+import net.neoforged.camelot.api.config.type.ChannelFilter;
 import net.neoforged.camelot.api.config.type.OptionBuilder;
 import net.neoforged.camelot.api.config.type.OptionBuilderFactory;
 import net.neoforged.camelot.api.config.type.OptionRegistrar;
 import net.neoforged.camelot.api.config.type.OptionType;
 import org.apache.commons.collections4.map.ListOrderedMap;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 import java.util.stream.IntStream;
 
 @SuppressWarnings({"rawtypes", "unchecked"})
@@ -44,25 +59,105 @@ public class ConfigManagerImpl<G> implements ConfigManager<G>, EventListener, Op
     private static final Emoji PREV_EMOJI = Emoji.fromUnicode("◀");
     private static final Emoji NEXT_EMOJI = Emoji.fromUnicode("▶");
     private static final int OPTIONS_PER_PAGE = 10;
+    private static final AtomicInteger UNNAMED_MANAGERS = new AtomicInteger();
 
-    final ConfigStorage<G> storage;
-    final Function<G, Object> cacheKey;
-    final Group<G> root = new Group<>();
+    // The actions of the components that route to a menu page, encoded in their custom ID
+    private static final char OPEN_GROUP = 'g', VIEW_OPTION = 'v', EDIT_INLINE = 'i', EDIT_VIEWED = 'e', RESTORE_DEFAULT = 'r';
 
+    final ConfigStorage<G> storage;
+    final ToLongFunction<G> cacheKey;
+    final int maximumCachedTargets;
+    final Group<G> root = new Group<>(null, "", "");
+
+    private final String name;
+    @Nullable
+    private final Function<? super Interaction, G> targetResolver;
+    /**
+     * The targets whose menus were opened, for managers that cannot resolve the target of an interaction.
+     */
+    @Nullable
+    private final LongCache<G> menuTargets;
+
+    /**
+     * The groups and options of this manager, indexed by their {@linkplain #routeKey(String) route key}.
+     */
+    private final Map<String, Group<G>> groupRoutes = new ConcurrentHashMap<>();
+    private final Map<String, ConfigOptionImpl<G, ?>> optionRoutes = new ConcurrentHashMap<>();
+
+    /**
+     * Listeners of the components that cannot be routed, like the modals and sub-menus of option types. These only live for a few minutes.
+     */
     private final Cache<String, Consumer> componentListeners = Caffeine.newBuilder()
             .expireAfterWrite(10, TimeUnit.MINUTES)
             .build();
 
+    /**
+     * All options registered to this manager, in registration order.
+     */
+    private final List<ConfigOptionImpl<G, ?>> options = new CopyOnWriteArrayList<>();
+
+    /**
+     * The cache keys of the targets whose values were loaded in bulk.
+     */
+    private final LongCache<Boolean> preloaded;
+
+    private final LongCache<Snapshot<G>> snapshots;
+    /**
+     * Incremented whenever a value of any target changes (after it is stored, but before it is cached), so that values read from storage
+     * and snapshots taken concurrently with a change are not cached.
+     */
+    final AtomicLong writeVersion = new AtomicLong();
+    /**
+     * Locks held while a value is stored and the {@link #writeVersion} is incremented, striped by target, so that the versions of the
+     * changes of a target are in the same order as the changes reached the storage.
+     */
+    private final Object[] writeLocks = new Object[64];
+
     public ConfigManagerImpl(ConfigStorage<G> storage, Function<G, Object> cacheKey) {
+        this(storage, internedKeys(cacheKey), Integer.MAX_VALUE);
+    }
+
+    public ConfigManagerImpl(ConfigStorage<G> storage, ToLongFunction<G> cacheKey, int maximumCachedTargets) {
+        this("config" + UNNAMED_MANAGERS.getAndIncrement(), storage, cacheKey, maximumCachedTargets, null);
+    }
+
+    public ConfigManagerImpl(String name, ConfigStorage<G> storage, ToLongFunction<G> cacheKey, int maximumCachedTargets, @Nullable Function<? super Interaction, G> targetResolver) {
+        if (name.isEmpty() || name.length() > 32 || name.indexOf(':') >= 0) {
+            throw new IllegalArgumentException("Invalid config manager name '" + name + "'");
+        }
+
+        this.name = name;
         this.storage = storage;
         this.cacheKey = cacheKey;
+        this.maximumCachedTargets = maximumCachedTargets;
+        this.targetResolver = targetResolver;
+        this.menuTargets = targetResolver == null ? new LongCache<>(Math.min(maximumCachedTargets, 1_000)) : null;
+        this.preloaded = new LongCache<>(maximumCachedTargets);
+        this.snapshots = new LongCache<>(maximumCachedTargets);
+
+        for (int i = 0; i < writeLocks.length; i++) {
+            writeLocks[i] = new Object();
+        }
 
         root.description = "Bot configuration";
+        groupRoutes.put(root.routeKey, root);
+    }
+
+    /**
+     * {@return a function mapping targets to long keys, which assigns a new key to each distinct object key}
+     */
+    private static <G> ToLongFunction<G> internedKeys(Function<G, Object> cacheKey) {
+        var keys = new ConcurrentHashMap<Object, Long>();
+        var nextKey = new AtomicLong();
+        return target -> keys.computeIfAbsent(cacheKey.apply(target), _ -> nextKey.getAndIncrement());
     }
 
     @Override
     public void handleCommand(SlashCommandInteractionEvent event, G target) {
-        event.reply(MessageCreateData.fromEditData(createEditMessage(target, "", 0)))
+        if (menuTargets != null) {
+            menuTargets.put(cacheKey.applyAsLong(target), target);
+        }
+        event.reply(MessageCreateData.fromEditData(createEditMessage(target, root, 0)))
                 .setEphemeral(true)
                 .queue();
     }
@@ -72,33 +167,79 @@ public class ConfigManagerImpl<G> implements ConfigManager<G>, EventListener, Op
         return new Registrar(List.of());
     }
 
-    private String pathToDisplayName(String path) {
-        if (path.isBlank()) return "";
-        List<String> nameComponents = new ArrayList<>();
-        Group<G> group = root;
+    @Override
+    public void preload(G target) {
+        preload(target, cacheKey.applyAsLong(target));
+    }
+
+    /**
+     * Load the values of all options of the given {@code target} in bulk, if they have not been loaded in bulk yet.
+     *
+     * @return {@code true} if the values were loaded, or {@code false} if they were already loaded or the storage cannot load values in bulk
+     */
+    boolean preload(G target, long identified) {
+        if (preloaded.putIfAbsent(identified, Boolean.TRUE) != null) return false;
+
+        var version = writeVersion.get();
+        var values = storage.readAll(target);
+        if (values == null) return false;
 
-        var split = path.split("\\.");
-        for (int i = 0; i < split.length - 1; i++) {
-            var s = split[i];
-            group = group.childGroups.get(s);
-            nameComponents.add(group.name == null ? s : group.name);
+        for (var option : options) {
+            option.preload(target, identified, values.get(option.path), version);
         }
+        return true;
+    }
 
-        var lastGroup = group.childGroups.get(split[split.length - 1]);
-        if (lastGroup == null) {
-            nameComponents.add(group.options.stream().filter(o -> o.path.equals(path))
-                    .findFirst()
-                    .orElseThrow().name());
-        } else {
-            nameComponents.add(lastGroup.name == null ? split[split.length - 1] : lastGroup.name);
+    @Override
+    public ConfigSnapshot<G> snapshot(G target) {
+        var identified = cacheKey.applyAsLong(target);
+        var cached = snapshots.get(identified);
+        if (cached != null) return cached;
+
+        preload(target, identified);
+        var version = writeVersion.get();
+        var values = new HashMap<ConfigOption<G, ?>, Object>();
+        for (var option : options) {
+            values.put(option, option.get(target));
         }
+        var snapshot = new Snapshot<>(target, Collections.unmodifiableMap(values));
 
-        return String.join(" > ", nameComponents);
+        // Only cache the snapshot if no value changed while it was taken. As the check happens while the key is locked,
+        // a concurrent invalidation either fails the check or removes the snapshot after it was cached
+        snapshots.compute(identified, existing -> writeVersion.get() == version ? snapshot : existing);
+        return snapshot;
     }
 
-    private MessageEditData createEditMessage(G target, String path, int page) {
+    /**
+     * {@return the lock to hold while storing a value of the target with the given cache key}
+     */
+    Object writeLock(long identified) {
+        return writeLocks[LongCache.hash(identified) & (writeLocks.length - 1)];
+    }
+
+    /**
+     * Discard the cached snapshot of the target with the given cache key, as one of its values changed.
+     * The {@link #writeVersion} must have been incremented before the value changed.
+     */
+    void invalidateSnapshot(long identified) {
+        snapshots.remove(identified);
+    }
+
+    private String displayName(Group<G> group) {
+        if (group.parent == null) return "";
+        var parentName = displayName(group.parent);
+        var groupName = group.name == null ? group.id : group.name;
+        return parentName.isEmpty() ? groupName : parentName + " > " + groupName;
+    }
+
+    private String displayName(ConfigOptionImpl<G, ?> option) {
+        var groupName = displayName(option.group);
+        return groupName.isEmpty() ? option.name() : groupName + " > " + option.name();
+    }
+
+    private MessageEditData createEditMessage(G target, Group<G> group, int page) {
+        var targetKey = cacheKey.applyAsLong(target);
         var components = new ArrayList<MessageTopLevelComponent>();
-        var group = getGroup(path);
         var childGroupIdx = IntStream.range(0, group.childGroups.size())
                 .filter(i -> group.childGroups.getValue(i).condition.test(target))
                 .toArray();
@@ -106,7 +247,7 @@ public class ConfigManagerImpl<G> implements ConfigManager<G>, EventListener, Op
         int pageCount = maxElements / OPTIONS_PER_PAGE + (maxElements % OPTIONS_PER_PAGE == 0 ? 0 : 1);
 
         components.add(Container.of(list(list -> {
-            list.add(TextDisplay.of("## Configure " + pathToDisplayName(path)));
+            list.add(TextDisplay.of("## Configure " + displayName(group)));
             list.add(TextDisplay.of("-# " + group.description));
 
             for (int i = page * OPTIONS_PER_PAGE; i < Math.min(maxElements, (page + 1) * OPTIONS_PER_PAGE); i++) {
@@ -114,8 +255,7 @@ public class ConfigManagerImpl<G> implements ConfigManager<G>, EventListener, Op
                     var groupName = group.childGroups.get(childGroupIdx[i - group.options.size()]);
                     var gr = group.childGroups.getValue(childGroupIdx[i - group.options.size()]);
                     list.add(Section.of(
-                            Button.secondary(buttonId(ev ->
-                                    ev.editMessage(createEditMessage(target, path.isBlank() ? groupName : path + "." + groupName, page)).queue()), "Open"),
+                            Button.secondary(route(OPEN_GROUP, targetKey, 0, gr.routeKey), "Open"),
                             TextDisplay.of(
                                     "**\\⇾ " + Objects.requireNonNullElse(gr.name, groupName) + "**\n" +
                                             "-# " + gr.description
@@ -128,24 +268,20 @@ public class ConfigManagerImpl<G> implements ConfigManager<G>, EventListener, Op
 
                     Button editButton;
                     if (description.length <= 1 && !option.type().requiresIndividualPage()) {
-                        var rawOption = (ConfigOptionImpl) option;
-                        editButton = rawOption.type().createUpdateButton(currentValue, t -> {
-                            rawOption.set(target, t);
-                            return createEditMessage(target, path, page);
-                        }, this);
+                        editButton = ((OptionType) option.type()).createUpdateButton(currentValue, null,
+                                new RoutingCreator(route(EDIT_INLINE, targetKey, page, option.routeKey)));
                     } else {
-                        editButton = Button.primary(buttonId(ev ->
-                                ev.editMessage(createEditValue(path, page, target, option)).queue()), "View");
+                        editButton = Button.primary(route(VIEW_OPTION, targetKey, page, option.routeKey), "View");
                     }
 
                     StringBuilder sectionDesc = new StringBuilder("**" + option.name() + "**\n" +
                             "-# " + description[0] + "\n");
 
                     if (option.dependency != null && !option.dependency.test(target)) {
-                        var dep = ((ConfigOptionImpl) option.dependency.option());
+                        var dep = ((ConfigOptionImpl<G, ?>) option.dependency.option());
                         editButton = editButton.withDisabled(true);
                         sectionDesc.append("-# *To configure this, **")
-                                .append(pathToDisplayName(dep.path))
+                                .append(displayName(dep))
                                 .append("** must be set to ")
                                 .append(option.dependency.formatted())
                                 .append("*\n");
@@ -160,17 +296,15 @@ public class ConfigManagerImpl<G> implements ConfigManager<G>, EventListener, Op
 
         List<Button> buttons = new ArrayList<>(2);
 
-        if (!path.isBlank()) {
-            var spl = new ArrayList<>(Arrays.asList(path.split("\\.")));
-            spl.removeLast();
-            buttons.add(Button.secondary(buttonId(ev -> ev.editMessage(createEditMessage(target, String.join(".", spl), 0)).queue()), BACK_EMOJI));
+        if (group.parent != null) {
+            buttons.add(Button.secondary(route(OPEN_GROUP, targetKey, 0, group.parent.routeKey), BACK_EMOJI));
         }
 
         if (page > 0) {
-            buttons.add(Button.secondary(buttonId(ev -> ev.editMessage(createEditMessage(target, path, page - 1)).queue()), PREV_EMOJI));
+            buttons.add(Button.secondary(route(OPEN_GROUP, targetKey, page - 1, group.routeKey), PREV_EMOJI));
         }
         if (page < pageCount - 1) {
-            buttons.add(Button.primary(buttonId(ev -> ev.editMessage(createEditMessage(target, path, page + 1)).queue()), NEXT_EMOJI));
+            buttons.add(Button.primary(route(OPEN_GROUP, targetKey, page + 1, group.routeKey), NEXT_EMOJI));
         }
         if (!buttons.isEmpty()) {
             components.add(ActionRow.of(buttons));
@@ -182,7 +316,8 @@ public class ConfigManagerImpl<G> implements ConfigManager<G>, EventListener, Op
                 .build();
     }
 
-    private <T> MessageEditData createEditValue(String path, int page, G target, ConfigOptionImpl<G, T> option) {
+    private <T> MessageEditData createEditValue(int page, G target, ConfigOptionImpl<G, T> option) {
+        var targetKey = cacheKey.applyAsLong(target);
         var current = option.get(target);
         return new MessageEditBuilder()
                 .useComponentsV2(true)
@@ -195,50 +330,149 @@ public class ConfigManagerImpl<G> implements ConfigManager<G>, EventListener, Op
                                                 + "\n__Current value__: " + (current == null ? "*none*" : option.type().formatFullPageView(current))
                                 ),
                                 ActionRow.of(
-                                        Button.secondary(buttonId(ev -> ev.editMessage(createEditMessage(target, path, page)).queue()), PREV_EMOJI),
-                                        option.type().createUpdateButton(current, t -> {
-                                            option.set(target, t);
-                                            return createEditValue(path, page, target, option);
-                                        }, this),
-                                        Button.secondary(buttonId(ev -> {
-                                            option.restoreToDefault(target);
-                                            ev.editMessage(createEditValue(path, page, target, option)).queue();
-                                        }), "↻ Restore to default")
+                                        Button.secondary(route(OPEN_GROUP, targetKey, page, option.group.routeKey), PREV_EMOJI),
+                                        option.type().createUpdateButton(current, null,
+                                                new RoutingCreator(route(EDIT_VIEWED, targetKey, page, option.routeKey))),
+                                        Button.secondary(route(RESTORE_DEFAULT, targetKey, page, option.routeKey), "↻ Restore to default")
                                 )
                         )
                 )
                 .build();
     }
 
+    /**
+     * {@return the custom ID of a component routing to the given menu page}
+     * The route only contains the IDs of the target and of the group or option, so it remains valid across restarts.
+     */
+    private String route(char action, long target, int page, String routeKey) {
+        return name + ':' + action + ':' + target + ':' + page + ':' + routeKey;
+    }
+
+    /**
+     * Dispatch a click on a component created by {@link #route(char, long, int, String)}.
+     */
+    private void dispatchRoute(ButtonInteractionEvent event, String route) {
+        var parts = route.split(":", 4);
+        if (parts.length != 4 || parts[0].length() != 1) return;
+
+        long targetKey;
+        int page;
+        try {
+            targetKey = Long.parseLong(parts[1]);
+            page = Integer.parseInt(parts[2]);
+        } catch (NumberFormatException _) {
+            return;
+        }
+
+        var target = resolveTarget(event, targetKey);
+        if (target == null) {
+            event.reply("This configuration menu has expired. Please run the command again.").setEphemeral(true).queue();
+            return;
+        }
+
+        var action = parts[0].charAt(0);
+        if (action == OPEN_GROUP) {
+            var group = groupRoutes.get(parts[3]);
+            if (group != null) {
+                event.editMessage(createEditMessage(target, group, page)).queue();
+            }
+            return;
+        }
+
+        var option = (ConfigOptionImpl) optionRoutes.get(parts[3]);
+        if (option == null) return;
+
+        switch (action) {
+            case VIEW_OPTION -> event.editMessage(createEditValue(page, target, option)).queue();
+            case RESTORE_DEFAULT -> {
+                option.restoreToDefault(target);
+                event.editMessage(createEditValue(page, target, option)).queue();
+            }
+            case EDIT_INLINE, EDIT_VIEWED -> {
+                // Recreate the update button of the option with the current value, and run the action it was created with
+                var creator = new RoutingCreator(null);
+                option.type().createUpdateButton(option.get(target), t -> {
+                    option.set(target, t);
+                    return action == EDIT_INLINE ? createEditMessage(target, option.group, page) : createEditValue(page, target, option);
+                }, creator);
+                if (creator.action != null) {
+                    creator.action.accept(event);
+                }
+            }
+            default -> {}
+        }
+    }
+
+    @Nullable
+    private G resolveTarget(ButtonInteractionEvent event, long targetKey) {
+        if (targetResolver == null) {
+            return menuTargets.get(targetKey);
+        }
+        var target = targetResolver.apply(event);
+        return target != null && cacheKey.applyAsLong(target) == targetKey ? target : null;
+    }
+
     public void register(String path, ConfigOptionImpl<G, ?> opt) {
-        getGroup(path).options.add(opt);
+        var group = getGroup(path);
+        if (optionRoutes.putIfAbsent(opt.routeKey, opt) != null) {
+            throw new IllegalArgumentException("Option '" + opt.path + "' has the same route key as option '" + optionRoutes.get(opt.routeKey).path + "'");
+        }
+        opt.group = group;
+        group.options.add(opt);
+        options.add(opt);
+        // Existing snapshots do not contain the new option
+        writeVersion.incrementAndGet();
+        snapshots.clear();
     }
 
     private Group<G> getGroup(String path) {
         if (path.isBlank()) return root;
         Group<G> group = root;
         for (var s : path.split("\\.")) {
-            group = group.childGroups.computeIfAbsent(s, k -> new Group<>());
+            var parent = group;
+            group = group.childGroups.computeIfAbsent(s, k -> {
+                var child = new Group<>(parent, k, parent == root ? k : parent.path + "." + k);
+                if (groupRoutes.putIfAbsent(child.routeKey, child) != null) {
+                    throw new IllegalArgumentException("Group '" + child.path + "' has the same route key as group '" + groupRoutes.get(child.routeKey).path + "'");
+                }
+                return child;
+            });
         }
         return group;
     }
 
+    /**
+     * {@return the key of the group or option with the given {@code path}, used to route components to it}
+     * The key is a short hash of the path, so that routes fit in custom IDs regardless of how deep the option is.
+     */
+    static String routeKey(String path) {
+        return Integer.toUnsignedString(path.hashCode(), Character.MAX_RADIX);
+    }
+
     @Override
     public void onEvent(GenericEvent gevent) {
-        if (gevent instanceof ICustomIdInteraction inter) {
+        if (gevent instanceof ButtonInteractionEvent event && event.getComponentId().startsWith(name)
+                && event.getComponentId().length() > name.length() && event.getComponentId().charAt(name.length()) == ':') {
+            dispatchRoute(event, event.getComponentId().substring(name.length() + 1));
+        } else if (gevent instanceof ICustomIdInteraction inter) {
             var listener = componentListeners.getIfPresent(inter.getCustomId());
             if (listener != null) {
                 listener.accept(gevent);
             }
+        } else if (gevent instanceof ChannelUpdateParentEvent || gevent instanceof ChannelDeleteEvent) {
+            // The memoised decisions of channel filters depend on the category each channel is in
+            ChannelFilter.invalidateDecisions();
         }
     }
 
-    private String buttonId(Consumer<ButtonInteractionEvent> ev) {
-        return randomId(ev);
+    @Override
+    public String componentIdPrefix() {
+        return name;
     }
 
     private String randomId(Consumer<? extends ICustomIdInteraction> ev) {
-        var id = UUID.randomUUID().toString();
+        // Prefixed by the name of the manager so that interactions can be routed to it by their ID
+        var id = name + "/" + UUID.randomUUID();
         componentListeners.put(id, ev);
         return id;
     }
@@ -302,23 +536,65 @@ public class ConfigManagerImpl<G> implements ConfigManager<G>, EventListener, Op
         }
     }
 
-    private static final class Group<G> {
+    static final class Group<G> {
         private static final Predicate TRUE = t -> true;
 
-        private final ListOrderedMap<String, Group<G>> childGroups;
-        private final List<ConfigOptionImpl<G, ?>> options;
+        private final ListOrderedMap<String, Group<G>> childGroups = new ListOrderedMap<>();
+        private final List<ConfigOptionImpl<G, ?>> options = new ArrayList<>();
+
+        @Nullable
+        private final Group<G> parent;
+        private final String id, path, routeKey;
 
         private String name;
         private String description = "*No description available*";
         private Predicate<G> condition = TRUE;
 
-        private Group(ListOrderedMap<String, Group<G>> childGroups, List<ConfigOptionImpl<G, ?>> options) {
-            this.childGroups = childGroups;
-            this.options = options;
+        private Group(@Nullable Group<G> parent, String id, String path) {
+            this.parent = parent;
+            this.id = id;
+            this.path = path;
+            this.routeKey = routeKey(path);
         }
+    }
 
-        public Group() {
-            this(new ListOrderedMap<>(), new ArrayList<>());
+    /**
+     * A component creator used for the update buttons of options, which routes the button instead of registering its action.
+     * When dispatching a route, the action of the recreated button is captured instead, so that it can be run.
+     */
+    private final class RoutingCreator implements OptionType.ComponentCreator {
+        @Nullable
+        private final String route;
+        private Consumer<ButtonInteractionEvent> action;
+
+        private RoutingCreator(@Nullable String route) {
+            this.route = route;
+        }
+
+        @Override
+        public Button button(Consumer<ButtonInteractionEvent> action) {
+            if (this.action != null) {
+                // Buttons created after the update button (for instance by the action itself) cannot be routed
+                return ConfigManagerImpl.this.button(action);
+            }
+            this.action = action;
+            return Button.primary(route == null ? "unused" : route, ".");
+        }
+
+        @Override
+        public Modal.Builder modal(Consumer<ModalInteractionEvent> action) {
+            return ConfigManagerImpl.this.modal(action);
+        }
+    }
+
+    private record Snapshot<G>(G target, Map<ConfigOption<G, ?>, Object> values) implements ConfigSnapshot<G> {
+        @Override
+        public <T> T get(ConfigOption<G, T> option) {
+            var value = values.get(option);
+            if (value == null && !values.containsKey(option)) {
+                throw new IllegalArgumentException("Option " + option + " is not registered to the manager of this snapshot");
+            }
+            return (T) value;
         }
     }
 
@@ -10,81 +10,259 @@ import org.json.JSONWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 public class ConfigOptionImpl<G, T> implements ConfigOption<G, T> {
     private static final Logger LOGGER = LoggerFactory.getLogger(ConfigOptionImpl.class);
 
+    /**
+     * Cache markers for targets whose value is not set (and who therefore use the default value), and for targets whose value is explicitly set to {@code null}.
+     */
+    private static final Object UNSET = new Object(), NULL = new Object();
+
     private final ConfigManagerImpl<G> manager;
     private final String name, description;
-    final String path;
+    final String path, routeKey;
     private final OptionType<T> type;
 
     private final T defaultValue;
 
-    private final Map<Object, T> cache = new HashMap<>();
+    /**
+     * The values of the targets that have been read or written so far. Targets without a value are cached as {@link #UNSET}, so that
+     * reading an option never queries the storage more than once per target. Values are cached as {@link Interned} instances.
+     */
+    private final LongCache<Cached> cache;
+
+    /**
+     * The values currently cached for at least one target, keyed by their serialised form.
+     * Targets with the same serialised value share one deserialised instance, so values are only deserialised once.
+     */
+    private final ConcurrentHashMap<String, Interned> interned = new ConcurrentHashMap<>();
+
+    /**
+     * The targets whose value listeners have already been told about. This is kept outside the {@link #cache} and holds more targets,
+     * so that reloading the value of a recently evicted target does not announce it as a new value again. A target that was not read
+     * for long enough to be evicted from both may be announced again.
+     */
+    private final LongCache<Boolean> announced;
 
-    private final List<UpdateListener<G, T>> listeners = new ArrayList<>();
+    private final List<UpdateListener<G, T>> listeners = new CopyOnWriteArrayList<>();
 
     final Dependency<G, ?> dependency;
 
+    /**
+     * The group this option is displayed in, set when the option is registered.
+     */
+    ConfigManagerImpl.Group<G> group;
+
     public ConfigOptionImpl(ConfigManagerImpl<G> manager, String name, String description, String path, OptionType<T> type, T defaultValue, Dependency<G, ?> dependency) {
         this.manager = manager;
         this.name = name;
         this.description = description;
         this.path = path;
+        this.routeKey = ConfigManagerImpl.routeKey(path);
         this.type = type;
         this.defaultValue = defaultValue;
         this.dependency = dependency;
+        this.cache = new LongCache<>(manager.maximumCachedTargets, evicted -> release(evicted.value));
+        this.announced = new LongCache<>((int) Math.min(Integer.MAX_VALUE, manager.maximumCachedTargets * 16L));
     }
 
     @Override
     public T get(G target) {
-        var identified = manager.cacheKey.apply(target);
+        var identified = manager.cacheKey.applyAsLong(target);
+        var version = manager.writeVersion.get();
         var fromCache = cache.get(identified);
-        if (fromCache != null) return fromCache;
+        // The first read of any option of a target loads the values of all options of that target
+        if (fromCache == null && manager.preload(target, identified)) {
+            fromCache = cache.get(identified);
+        }
 
-        var fromStorage = manager.storage.read(path, target);
-        //noinspection OptionalAssignedToNull
-        if (fromStorage != null) {
-            var fs = fromStorage.orElse(null);
-            if (fs == null) return null;
-
-            try {
-                var newValue = type.deserialize(new JSONTokener(fs).nextValue());
-                cache.put(identified, newValue);
-                if (cache.containsKey(identified) && newValue != null) {
-                    valueChanged(target, null, newValue);
-                }
-                return newValue;
-            } catch (Exception ex) {
-                LOGGER.error("Failed to decode config option '{}' for {} given value '{}': ", path, target, fs, ex);
-            }
+        if (fromCache != null) return fromCached(fromCache.value);
+
+        return load(target, identified, manager.storage.read(path, target), version);
+    }
+
+    /**
+     * Cache the value of the given {@code target} read in bulk by the manager, unless a value is already cached.
+     *
+     * @param fromStorage the stored value, or {@code null} if no value is stored
+     * @param version     the {@linkplain ConfigManagerImpl#writeVersion write version} before the value was read
+     */
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    void preload(G target, long identified, @Nullable Optional<String> fromStorage, long version) {
+        if (cache.get(identified) == null) {
+            load(target, identified, fromStorage, version);
         }
+    }
 
-        return defaultValue;
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private T load(G target, long identified, @Nullable Optional<String> fromStorage, long version) {
+        var loaded = new Cached(decode(target, fromStorage), version);
+        var inserted = new boolean[1];
+        // If a value was written while we were reading the storage (even if it has been evicted since), what we read may be
+        // outdated and must not be cached. The value that was written wins if it is still cached
+        var existing = cache.compute(identified, old -> {
+            if (old != null || manager.writeVersion.get() != version) return old;
+            inserted[0] = true;
+            return loaded;
+        });
+        if (!inserted[0]) {
+            release(loaded.value);
+        }
+        if (existing != null) {
+            return fromCached(existing.value);
+        }
+
+        var value = fromCached(loaded.value);
+        if (inserted[0] && loaded.value != UNSET && value != null && announced.putIfAbsent(identified, Boolean.TRUE) == null) {
+            valueChanged(target, null, value);
+        }
+        return value;
+    }
+
+    /**
+     * {@return the cached form of the given stored value}
+     */
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private Object decode(G target, @Nullable Optional<String> fromStorage) {
+        //noinspection OptionalAssignedToNull
+        if (fromStorage == null) return UNSET;
+
+        var fs = fromStorage.orElse(null);
+        if (fs == null) return NULL;
+
+        try {
+            var value = acquire(fs, () -> type.deserialize(new JSONTokener(fs).nextValue()));
+            return value == null ? NULL : value;
+        } catch (Exception ex) {
+            // Cache the default so that the error is not logged on every read
+            LOGGER.error("Failed to decode config option '{}' for {} given value '{}': ", path, target, fs, ex);
+            return UNSET;
+        }
     }
 
     void restoreToDefault(G target) {
-        manager.storage.restoreToDefault(path, target);
-        var old = cache.remove(manager.cacheKey.apply(target));
-        valueChanged(target, old, defaultValue);
+        var identified = manager.cacheKey.applyAsLong(target);
+        long version;
+        synchronized (manager.writeLock(identified)) {
+            manager.storage.restoreToDefault(path, target);
+            version = manager.writeVersion.incrementAndGet();
+        }
+        cacheWritten(target, identified, UNSET, version, defaultValue);
     }
 
     @Override
     public void set(G target, @Nullable T value) {
-        var identified = manager.cacheKey.apply(target);
-        if (value == null) {
-            manager.storage.store(path, target, null);
-        } else {
-            manager.storage.store(path, target, JSONWriter.valueToString(type.serialise(value)));
+        var identified = manager.cacheKey.applyAsLong(target);
+        var serialised = value == null ? null : JSONWriter.valueToString(type.serialise(value));
+        var newValue = serialised == null ? NULL : acquire(serialised, () -> value);
+        long version;
+        try {
+            synchronized (manager.writeLock(identified)) {
+                manager.storage.store(path, target, serialised);
+                version = manager.writeVersion.incrementAndGet();
+            }
+        } catch (RuntimeException ex) {
+            release(newValue);
+            throw ex;
+        }
+        cacheWritten(target, identified, newValue, version, value);
+    }
+
+    /**
+     * Cache the value just stored for the given {@code target}, and notify the listeners of the change.
+     * If a later write of the target was cached first, the value is dropped and the listeners are not notified, as they were already told about the later value.
+     *
+     * @param version the {@linkplain ConfigManagerImpl#writeVersion write version} the value was stored with
+     */
+    private void cacheWritten(G target, long identified, Object newValue, long version, @Nullable T value) {
+        var written = new Cached(newValue, version);
+        var old = cache.compute(identified, current -> current == null || current.version < version ? written : current);
+        if (old != null && old.version >= version) {
+            release(newValue);
+            return;
+        }
+
+        var oldValue = old == null ? null : old.value;
+        release(oldValue);
+        manager.invalidateSnapshot(identified);
+        announced.put(identified, Boolean.TRUE);
+        valueChanged(target, explicitValue(oldValue), value);
+    }
+
+    /**
+     * {@return the shared instance of the value with the given serialised form, referenced once more}
+     * If the value is not cached for any target yet, the {@code value} supplier is used to create it.
+     * The returned instance must be {@linkplain #release(Object) released} once it is no longer cached.
+     */
+    @Nullable
+    private Interned acquire(String serialised, Supplier<T> value) {
+        return interned.compute(serialised, (_, existing) -> {
+            if (existing != null) {
+                existing.references++;
+                return existing;
+            }
+            var created = value.get();
+            return created == null ? null : new Interned(serialised, created);
+        });
+    }
+
+    /**
+     * Drop a reference to the given cached value, forgetting its shared instance once it is no longer cached for any target.
+     */
+    private void release(@Nullable Object cached) {
+        if (cached instanceof Interned value) {
+            interned.computeIfPresent(value.serialised, (_, current) -> {
+                // The instance may have been released and replaced already, in which case the new one is not ours to release
+                if (current != value) return current;
+                return --current.references == 0 ? null : current;
+            });
+        }
+    }
+
+    /**
+     * {@return the value of a target given its cached form}
+     */
+    @SuppressWarnings("unchecked")
+    private T fromCached(Object cached) {
+        if (cached == UNSET) return defaultValue;
+        if (cached == NULL) return null;
+        return (T) ((Interned) cached).value;
+    }
+
+    /**
+     * {@return the value explicitly set, given its cached form, or {@code null} if the value is not set or was not cached}
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private T explicitValue(@Nullable Object cached) {
+        return cached instanceof Interned value ? (T) value.value : null;
+    }
+
+    /**
+     * The cached form of the value of a target, with the {@linkplain ConfigManagerImpl#writeVersion write version} it was stored or read at.
+     */
+    private record Cached(Object value, long version) {}
+
+    /**
+     * A deserialised value shared by the targets with the same serialised value.
+     * The references are only updated while the {@link #interned} entry of the value is locked.
+     */
+    private static final class Interned {
+        private final String serialised;
+        private final Object value;
+        private int references = 1;
+
+        private Interned(String serialised, Object value) {
+            this.serialised = serialised;
+            this.value = value;
         }
-        var old = cache.put(identified, value);
-        valueChanged(target, old, value);
     }
 
     @Override
@@ -14,14 +14,13 @@ import net.neoforged.camelot.api.config.type.entity.RoleSet;
 import org.jetbrains.annotations.NotNull;
 import org.json.JSONArray;
 
-import java.util.Collection;
+import java.util.AbstractSet;
 import java.util.Iterator;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 final class EntityOption<S extends EntitySet> implements OptionType<S> {
     private final EntitySelectMenu.SelectTarget target;
@@ -42,9 +41,15 @@ final class EntityOption<S extends EntitySet> implements OptionType<S> {
 
     @Override
     public S deserialize(Object value) {
-        return collectionCreator.apply(StreamSupport.stream(((JSONArray) value).spliterator(), false)
-                .map(Long.class::cast)
-                .collect(Collectors.toUnmodifiableSet()));
+        return collectionCreator.apply(toSet((JSONArray) value));
+    }
+
+    static LongHashSet toSet(JSONArray array) {
+        final long[] ids = new long[array.length()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = array.getLong(i);
+        }
+        return LongHashSet.of(ids);
     }
 
     @Override
@@ -52,7 +57,7 @@ final class EntityOption<S extends EntitySet> implements OptionType<S> {
         return components.button(event -> {
             var modal = components.modal(modalEvent -> {
                 var newValue = Optional.ofNullable(modalEvent.getValue("values")).map(ModalMapping::getAsLongList)
-                        .map(m -> m.stream().collect(Collectors.toUnmodifiableSet()))
+                        .map(LongHashSet::copyOf)
                         .map(collectionCreator)
                         .orElse(null);
                 modalEvent.editMessage(updater.apply(newValue)).queue();
@@ -126,15 +131,16 @@ final class EntityOption<S extends EntitySet> implements OptionType<S> {
         }
     }
 
-    static sealed class BaseEntitySet implements EntitySet {
-        @Override
-        public int size() {
-            return wrapped.size();
+    static sealed class BaseEntitySet extends AbstractSet<Long> implements EntitySet {
+        private final LongHashSet wrapped;
+
+        public BaseEntitySet(Set<Long> wrapped) {
+            this.wrapped = LongHashSet.copyOf(wrapped);
         }
 
         @Override
-        public boolean isEmpty() {
-            return wrapped.isEmpty();
+        public boolean contains(long id) {
+            return wrapped.contains(id);
         }
 
         @Override
@@ -142,57 +148,20 @@ final class EntityOption<S extends EntitySet> implements OptionType<S> {
             return wrapped.contains(o);
         }
 
-        @NotNull
         @Override
-        public Iterator<Long> iterator() {
-            return wrapped.iterator();
+        public int size() {
+            return wrapped.size();
         }
 
-        @NotNull
         @Override
-        public Object[] toArray() {
-            return wrapped.toArray();
+        public boolean isEmpty() {
+            return wrapped.isEmpty();
         }
 
         @NotNull
         @Override
-        public <T> T[] toArray(@NotNull T[] a) {
-            return wrapped.toArray(a);
-        }
-
-        @Override
-        public boolean add(Long aLong) {
-            return wrapped.add(aLong);
-        }
-
-        @Override
-        public boolean remove(Object o) {
-            return wrapped.remove(o);
-        }
-
-        @Override
-        public boolean containsAll(@NotNull Collection<?> c) {
-            return wrapped.containsAll(c);
-        }
-
-        @Override
-        public boolean addAll(@NotNull Collection<? extends Long> c) {
-            return wrapped.addAll(c);
-        }
-
-        @Override
-        public boolean retainAll(@NotNull Collection<?> c) {
-            return wrapped.retainAll(c);
-        }
-
-        @Override
-        public boolean removeAll(@NotNull Collection<?> c) {
-            return wrapped.removeAll(c);
-        }
-
-        @Override
-        public void clear() {
-            wrapped.clear();
+        public Iterator<Long> iterator() {
+            return wrapped.iterator();
         }
 
         @Override
@@ -200,10 +169,9 @@ final class EntityOption<S extends EntitySet> implements OptionType<S> {
             return wrapped.equals(o);
         }
 
-        private final Set<Long> wrapped;
-
-        public BaseEntitySet(Set<Long> wrapped) {
-            this.wrapped = wrapped;
+        @Override
+        public int hashCode() {
+            return wrapped.hashCode();
         }
 
         @Override
@@ -0,0 +1,349 @@
+package net.neoforged.camelot.api.config.impl;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * A thread-safe cache mapping primitive {@code long} keys to values, with an optional size bound.
+ * <p>
+ * The cache is split in independently locked segments, each an open-addressing hash table with linear probing, so keys are never boxed.
+ * Reads are lock-free unless they race with a write to the same segment. Once a segment is full, inserting a new key evicts an entry that
+ * was not read recently (using the CLOCK approximation of LRU).
+ *
+ * @param <V> the type of the values
+ */
+public final class LongCache<V> {
+    private static final int SEGMENTS = 16;
+    private static final int SEGMENT_SHIFT = Integer.numberOfTrailingZeros(SEGMENTS);
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final Segment<V>[] segments;
+    private final LongAdder evictions = new LongAdder();
+    @Nullable
+    private final Consumer<? super V> evictionListener;
+
+    /**
+     * Create a new cache.
+     *
+     * @param maximumSize the maximum amount of entries in the cache, or {@link Integer#MAX_VALUE} if the cache should not be bounded.
+     *                    The bound is split evenly between the segments, so a segment may start evicting before the whole cache is full
+     */
+    public LongCache(int maximumSize) {
+        this(maximumSize, null);
+    }
+
+    /**
+     * Create a new cache.
+     *
+     * @param maximumSize      the maximum amount of entries in the cache, or {@link Integer#MAX_VALUE} if the cache should not be bounded.
+     *                         The bound is split evenly between the segments, so a segment may start evicting before the whole cache is full
+     * @param evictionListener a listener called with the values evicted to respect the size bound. It is called while the segment of the
+     *                         evicted key is locked, so it should be quick and must not access this cache
+     */
+    @SuppressWarnings("unchecked")
+    public LongCache(int maximumSize, @Nullable Consumer<? super V> evictionListener) {
+        if (maximumSize <= 0) throw new IllegalArgumentException("Maximum size must be positive, got " + maximumSize);
+        this.evictionListener = evictionListener;
+
+        final int segmentSize = maximumSize == Integer.MAX_VALUE ? Integer.MAX_VALUE : Math.max(1, maximumSize / SEGMENTS);
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(segmentSize);
+        }
+    }
+
+    /**
+     * {@return the value mapped to the given {@code key}, or {@code null} if there is none}
+     */
+    @Nullable
+    public V get(long key) {
+        final int hash = hash(key);
+        final Segment<V> segment = segment(hash);
+        final long stamp = segment.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            final V value = segment.find(key, hash);
+            if (segment.lock.validate(stamp)) {
+                return value;
+            }
+        }
+
+        final long readStamp = segment.lock.readLock();
+        try {
+            return segment.find(key, hash);
+        } finally {
+            segment.lock.unlockRead(readStamp);
+        }
+    }
+
+    /**
+     * Map the given {@code key} to the {@code value}.
+     *
+     * @return the value previously mapped to the key, or {@code null} if there was none
+     */
+    @Nullable
+    public V put(long key, V value) {
+        return compute(key, _ -> value);
+    }
+
+    /**
+     * Map the given {@code key} to the {@code value}, unless it is already mapped to a value.
+     *
+     * @return the value the key was already mapped to, or {@code null} if the given value was inserted
+     */
+    @Nullable
+    public V putIfAbsent(long key, V value) {
+        return compute(key, old -> old == null ? value : old);
+    }
+
+    /**
+     * Atomically update the value mapped to the given {@code key}.
+     * <p>
+     * The {@code remapping} function is called with the current value (or {@code null}) while the segment of the key is locked,
+     * so it should be quick and must not access this cache. If it returns {@code null} the mapping is removed.
+     *
+     * @return the value previously mapped to the key, or {@code null} if there was none
+     */
+    @Nullable
+    public V compute(long key, UnaryOperator<V> remapping) {
+        final int hash = hash(key);
+        final Segment<V> segment = segment(hash);
+        final long stamp = segment.lock.writeLock();
+        try {
+            return segment.compute(key, hash, remapping, this);
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove the mapping of the given {@code key}.
+     *
+     * @return the value that was mapped to the key, or {@code null} if there was none
+     */
+    @Nullable
+    public V remove(long key) {
+        return compute(key, _ -> null);
+    }
+
+    /**
+     * Remove all mappings from the cache.
+     */
+    public void clear() {
+        for (final Segment<V> segment : segments) {
+            final long stamp = segment.lock.writeLock();
+            try {
+                segment.clear();
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * {@return the amount of entries in the cache}
+     */
+    public int size() {
+        int size = 0;
+        for (final Segment<V> segment : segments) {
+            final long stamp = segment.lock.readLock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * {@return the amount of entries evicted to respect the size bound}
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private Segment<V> segment(int hash) {
+        return segments[hash >>> (Integer.SIZE - SEGMENT_SHIFT)];
+    }
+
+    static int hash(long key) {
+        // Snowflakes are not uniformly distributed in their low bits, so mix all bits of the key
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h *= 0xBF58476D1CE4E5B9L;
+        return (int) (h ^ (h >>> 29));
+    }
+
+    private static final class Segment<V> {
+        private final StampedLock lock = new StampedLock();
+        private final int maximumSize;
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private Object[] values = new Object[INITIAL_CAPACITY];
+        private byte[] referenced = new byte[INITIAL_CAPACITY];
+        private int size;
+        private int clockHand;
+
+        private Segment(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        /**
+         * Find the value of the given key. May be called without holding the lock, in which case the result must be validated.
+         */
+        @Nullable
+        @SuppressWarnings("unchecked")
+        V find(long key, int hash) {
+            final long[] keys = this.keys;
+            final Object[] values = this.values;
+            final byte[] referenced = this.referenced;
+            // The arrays may be from different generations if a resize is in progress, in which case the read will be retried
+            if (keys.length != values.length || keys.length != referenced.length) return null;
+
+            final int mask = keys.length - 1;
+            int index = hash & mask;
+            for (int probes = 0; probes < keys.length; probes++) {
+                final Object value = values[index];
+                if (value == null) return null;
+                if (keys[index] == key) {
+                    // A racy write of the reference bit is fine, as it is only a hint for eviction
+                    if (referenced[index] == 0) referenced[index] = 1;
+                    return (V) value;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        @Nullable
+        @SuppressWarnings("unchecked")
+        V compute(long key, int hash, UnaryOperator<V> remapping, LongCache<V> cache) {
+            int index = indexOf(key, hash);
+            final V old = index < 0 ? null : (V) values[index];
+            final V newValue = remapping.apply(old);
+
+            if (newValue == null) {
+                if (index >= 0) removeAt(index);
+            } else if (index >= 0) {
+                values[index] = newValue;
+                referenced[index] = 1;
+            } else {
+                if (size >= maximumSize) {
+                    final V evicted = evict();
+                    cache.evictions.increment();
+                    if (cache.evictionListener != null) {
+                        cache.evictionListener.accept(evicted);
+                    }
+                }
+                if ((size + 1) * 2 > keys.length) {
+                    resize(keys.length * 2);
+                }
+                insert(key, hash, newValue);
+            }
+            return old;
+        }
+
+        void clear() {
+            keys = new long[INITIAL_CAPACITY];
+            values = new Object[INITIAL_CAPACITY];
+            referenced = new byte[INITIAL_CAPACITY];
+            size = 0;
+            clockHand = 0;
+        }
+
+        private int indexOf(long key, int hash) {
+            final int mask = keys.length - 1;
+            int index = hash & mask;
+            while (values[index] != null) {
+                if (keys[index] == key) return index;
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int insert(long key, int hash, Object value) {
+            final int mask = keys.length - 1;
+            int index = hash & mask;
+            while (values[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = value;
+            // New entries start unreferenced, so that entries that are only read once are the first to be evicted
+            referenced[index] = 0;
+            size++;
+            return index;
+        }
+
+        /**
+         * Evict the first entry found by the clock hand that was not read since the hand last passed over it.
+         *
+         * @return the value of the evicted entry
+         */
+        @SuppressWarnings("unchecked")
+        private V evict() {
+            final int mask = keys.length - 1;
+            while (true) {
+                final int index = clockHand;
+                clockHand = (clockHand + 1) & mask;
+                if (values[index] == null) continue;
+                if (referenced[index] != 0) {
+                    referenced[index] = 0;
+                } else {
+                    final V evicted = (V) values[index];
+                    removeAt(index);
+                    return evicted;
+                }
+            }
+        }
+
+        /**
+         * Remove the entry at the given index, shifting back the entries that follow it in its probe sequence so that no tombstones are needed.
+         */
+        private void removeAt(int index) {
+            final int mask = keys.length - 1;
+            int hole = index;
+            int next = index;
+            while (true) {
+                next = (next + 1) & mask;
+                if (values[next] == null) break;
+
+                final int ideal = hash(keys[next]) & mask;
+                // The entry can fill the hole if its ideal slot is not cyclically within (hole, next]
+                final boolean stays = hole <= next ? (hole < ideal && ideal <= next) : (hole < ideal || ideal <= next);
+                if (!stays) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    referenced[hole] = referenced[next];
+                    hole = next;
+                }
+            }
+            keys[hole] = 0;
+            values[hole] = null;
+            referenced[hole] = 0;
+            size--;
+        }
+
+        private void resize(int capacity) {
+            final long[] oldKeys = keys;
+            final Object[] oldValues = values;
+            final byte[] oldReferenced = referenced;
+
+            keys = new long[capacity];
+            values = new Object[capacity];
+            referenced = new byte[capacity];
+            size = 0;
+            clockHand = 0;
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    referenced[insert(oldKeys[i], hash(oldKeys[i]), oldValues[i])] = oldReferenced[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package net.neoforged.camelot.api.config.impl;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * An immutable set of primitive {@code long}s, stored in an open-addressing hash table with linear probing.
+ * <p>
+ * This set is meant for snowflake sets that are looked up on hot paths (such as for every message): {@link #contains(long)}
+ * is a single array probe in the common case and never boxes the element.
+ */
+public final class LongHashSet extends AbstractSet<Long> {
+    public static final LongHashSet EMPTY = new LongHashSet(new long[0]);
+
+    // Slots holding 0 are empty, so whether 0 is an element is tracked separately
+    private final long[] table;
+    private final boolean containsZero;
+    private final int size;
+
+    private LongHashSet(long[] elements) {
+        int capacity = 2;
+        while (capacity < elements.length * 2) capacity <<= 1;
+
+        final long[] table = new long[capacity];
+        final int mask = capacity - 1;
+        boolean containsZero = false;
+        int size = 0;
+        for (final long element : elements) {
+            if (element == 0) {
+                if (!containsZero) size++;
+                containsZero = true;
+                continue;
+            }
+
+            int index = LongCache.hash(element) & mask;
+            while (table[index] != 0 && table[index] != element) {
+                index = (index + 1) & mask;
+            }
+            if (table[index] == 0) {
+                table[index] = element;
+                size++;
+            }
+        }
+
+        this.table = table;
+        this.containsZero = containsZero;
+        this.size = size;
+    }
+
+    /**
+     * {@return a set containing the given elements}
+     */
+    public static LongHashSet of(long... elements) {
+        return elements.length == 0 ? EMPTY : new LongHashSet(elements);
+    }
+
+    /**
+     * {@return a set containing the elements of the given {@code collection}}
+     * If the collection is already a {@link LongHashSet}, it is returned as is.
+     *
+     * @throws NullPointerException if the collection contains {@code null}
+     */
+    public static LongHashSet copyOf(Collection<Long> collection) {
+        if (collection instanceof LongHashSet set) return set;
+        if (collection.isEmpty()) return EMPTY;
+
+        final long[] elements = new long[collection.size()];
+        int i = 0;
+        for (final Long element : collection) {
+            elements[i++] = element;
+        }
+        return new LongHashSet(elements);
+    }
+
+    /**
+     * {@return whether this set contains the given {@code element}}
+     */
+    public boolean contains(long element) {
+        if (element == 0) return containsZero;
+
+        final long[] table = this.table;
+        final int mask = table.length - 1;
+        int index = LongCache.hash(element) & mask;
+        long candidate;
+        while ((candidate = table[index]) != 0) {
+            if (candidate == element) return true;
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Long l && contains(l.longValue());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @NotNull
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private boolean zeroPending = containsZero;
+            private int index = advance(0);
+
+            private int advance(int from) {
+                while (from < table.length && table[from] == 0) from++;
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return zeroPending || index < table.length;
+            }
+
+            @Override
+            public long nextLong() {
+                if (zeroPending) {
+                    zeroPending = false;
+                    return 0;
+                }
+                if (index >= table.length) throw new NoSuchElementException();
+                final long element = table[index];
+                index = advance(index + 1);
+                return element;
+            }
+        };
+    }
+
+    @Override
+    public int hashCode() {
+        // Matches the Set contract, which sums the hash codes of the boxed elements
+        int hash = 0;
+        for (final long element : table) {
+            hash += Long.hashCode(element);
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (o instanceof LongHashSet other) {
+            if (other.size != size || other.containsZero != containsZero) return false;
+            for (final long element : table) {
+                if (element != 0 && !other.contains(element)) return false;
+            }
+            return true;
+        }
+        return super.equals(o);
+    }
+}
@@ -1,9 +1,12 @@
 package net.neoforged.camelot.api.config.storage;
 
+import org.jdbi.v3.core.HandleConsumer;
 import org.jdbi.v3.core.Jdbi;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 
 public interface ConfigStorage<G> {
@@ -14,8 +17,37 @@ public interface ConfigStorage<G> {
     @Nullable
     Optional<String> read(String key, G target);
 
+    /**
+     * Read all values stored for the given {@code target} at once.
+     * <p>
+     * The returned map contains the keys that have a stored value, mapped to the value (which is empty if the value is explicitly {@code null}).
+     * Keys without a stored value are not present in the map.
+     *
+     * @param target the target whose values to read
+     * @return the values of the target, or {@code null} if this storage cannot read values in bulk
+     */
+    @Nullable
+    default Map<String, Optional<String>> readAll(G target) {
+        return null;
+    }
+
     static <G> ConfigStorage<G> sql(Jdbi database, String tableName, Function<G, Object> identifier) {
-        return new SQLStorage<>(database, tableName, identifier);
+        return new SQLStorage<>(database, tableName, identifier, null);
+    }
+
+    /**
+     * Create a storage backed by the given SQL table, whose writes are handed off to the given {@code writer} instead of
+     * being executed on the calling thread. Until a write completes, reads of the written key return the written value.
+     *
+     * @param database   the database to read from
+     * @param tableName  the table holding the values
+     * @param identifier a function providing the value of the {@code target} column of a target
+     * @param writer     a function that executes the given write asynchronously
+     * @param <G>        the type of the targets
+     * @return the storage
+     */
+    static <G> ConfigStorage<G> sql(Jdbi database, String tableName, Function<G, Object> identifier, Function<HandleConsumer<RuntimeException>, ? extends CompletionStage<?>> writer) {
+        return new SQLStorage<>(database, tableName, identifier, writer);
     }
 
     static <G> ConfigStorage<G> inMemory() {
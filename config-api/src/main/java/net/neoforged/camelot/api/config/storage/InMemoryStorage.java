@@ -5,9 +5,10 @@ import org.jetbrains.annotations.Nullable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 class InMemoryStorage<G> implements ConfigStorage<G> {
-    private final Map<Key, Optional<String>> values = new HashMap<>();
+    private final Map<Key, Optional<String>> values = new ConcurrentHashMap<>();
 
     @Override
     public void restoreToDefault(String key, G target) {
@@ -24,5 +25,16 @@ class InMemoryStorage<G> implements ConfigStorage<G> {
         return values.get(new Key(target, key));
     }
 
+    @Override
+    public Map<String, Optional<String>> readAll(G target) {
+        var all = new HashMap<String, Optional<String>>();
+        values.forEach((key, value) -> {
+            if (key.target().equals(target)) {
+                all.put(key.key(), value);
+            }
+        });
+        return all;
+    }
+
     private record Key(Object target, String key) {}
 }
@@ -1,25 +1,43 @@
 package net.neoforged.camelot.api.config.storage;
 
+import org.jdbi.v3.core.HandleConsumer;
 import org.jdbi.v3.core.Jdbi;
 import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 class SQLStorage<G> implements ConfigStorage<G> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SQLStorage.class);
+
     private final Jdbi jdbi;
     private final String tableName;
     private final Function<G, Object> identifier;
+    @Nullable
+    private final Function<HandleConsumer<RuntimeException>, ? extends CompletionStage<?>> writer;
+
+    /**
+     * Writes that have been handed to the {@link #writer} but have not been committed yet.
+     * Reads consult this map first so that they always observe the latest write.
+     */
+    private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
 
-    SQLStorage(Jdbi jdbi, String tableName, Function<G, Object> identifier) {
+    SQLStorage(Jdbi jdbi, String tableName, Function<G, Object> identifier, @Nullable Function<HandleConsumer<RuntimeException>, ? extends CompletionStage<?>> writer) {
         this.jdbi = jdbi;
         this.tableName = tableName;
         this.identifier = identifier;
+        this.writer = writer;
     }
 
     @Override
     public void restoreToDefault(String key, G target) {
-        jdbi.withHandle(handle -> handle.createUpdate("delete from " + tableName + " where target = ? and key = ?")
+        write(key, target, null, handle -> handle.createUpdate("delete from " + tableName + " where target = ? and key = ?")
                 .bind(0, identifier.apply(target))
                 .bind(1, key)
                 .execute());
@@ -27,7 +45,7 @@ class SQLStorage<G> implements ConfigStorage<G> {
 
     @Override
     public void store(String key, G target, String value) {
-        jdbi.withHandle(handle -> handle.createUpdate("insert or replace into " + tableName + "(target, key, value) values (?, ?, ?)")
+        write(key, target, Optional.ofNullable(value), handle -> handle.createUpdate("insert or replace into " + tableName + "(target, key, value) values (?, ?, ?)")
                 .bind(0, identifier.apply(target))
                 .bind(1, key)
                 .bind(2, value)
@@ -37,6 +55,11 @@ class SQLStorage<G> implements ConfigStorage<G> {
     @Override
     @Nullable
     public Optional<String> read(String key, G target) {
+        var pendingWrite = pending.get(new Key(identifier.apply(target), key));
+        if (pendingWrite != null) {
+            return pendingWrite.value;
+        }
+
         return jdbi.withHandle(handle -> handle.createQuery("select value from " + tableName + " where target = ? and key = ?")
                 .bind(0, identifier.apply(target))
                 .bind(1, key)
@@ -48,4 +71,65 @@ class SQLStorage<G> implements ConfigStorage<G> {
                     return null;
                 }));
     }
+
+    @Override
+    public Map<String, Optional<String>> readAll(G target) {
+        var id = identifier.apply(target);
+        var all = jdbi.withHandle(handle -> handle.createQuery("select key, value from " + tableName + " where target = ?")
+                .bind(0, id)
+                .execute((statementSupplier, ctx) -> {
+                    var values = new HashMap<String, Optional<String>>();
+                    var rs = statementSupplier.get().getResultSet();
+                    while (rs.next()) {
+                        values.put(rs.getString(1), Optional.ofNullable(rs.getString(2)));
+                    }
+                    return values;
+                }));
+
+        // Writes that have not been committed yet take precedence over what we just read
+        pending.forEach((pendingKey, pendingWrite) -> {
+            if (pendingKey.target().equals(id)) {
+                if (pendingWrite.value == null) {
+                    all.remove(pendingKey.key());
+                } else {
+                    all.put(pendingKey.key(), pendingWrite.value);
+                }
+            }
+        });
+        return all;
+    }
+
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private void write(String key, G target, @Nullable Optional<String> newValue, HandleConsumer<RuntimeException> statement) {
+        if (writer == null) {
+            jdbi.useHandle(statement);
+            return;
+        }
+
+        var pendingKey = new Key(identifier.apply(target), key);
+        var pendingWrite = new Pending(newValue);
+        pending.put(pendingKey, pendingWrite);
+        writer.apply(statement).whenComplete((_, exception) -> {
+            pending.remove(pendingKey, pendingWrite);
+            if (exception != null) {
+                LOGGER.error("Failed to write config value '{}' of {}: ", key, pendingKey.target(), exception);
+            }
+        });
+    }
+
+    private record Key(Object target, String key) {}
+
+    /**
+     * A pending write. The value is {@code null} if the write removes the stored value.
+     * This intentionally uses identity equality so that a completed write only removes itself from the pending map.
+     */
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private static final class Pending {
+        @Nullable
+        private final Optional<String> value;
+
+        private Pending(@Nullable Optional<String> value) {
+            this.value = value;
+        }
+    }
 }
@@ -3,40 +3,114 @@ package net.neoforged.camelot.api.config.type;
 import net.dv8tion.jda.api.entities.channel.Channel;
 import net.dv8tion.jda.api.entities.channel.attribute.ICategorizableChannel;
 import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
+import net.neoforged.camelot.api.config.impl.LongCache;
+import net.neoforged.camelot.api.config.impl.LongHashSet;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Predicate;
 
 /**
  * Represents a filter for {@link Channel}s.
- *
- * @param allByDefault whether this filter should match all channels by default (if they are neither blacklisted nor whitelisted).
- * @param whitelist    channels (or channel categories) to include
- * @param blacklist    channels (or channel categories) to exclude
+ * <p>
+ * The whitelist and blacklist are stored as primitive hash sets, and the decision for each channel is memoised, so testing
+ * a channel that was already seen costs a single probe. The memoised decisions are discarded whenever a channel
+ * is moved to another category or deleted (see {@link #invalidateDecisions()}).
  *
  * @see Options#channelFilter()
  */
-public record ChannelFilter(boolean allByDefault, Set<Long> whitelist,
-                            Set<Long> blacklist, boolean simple) implements Predicate<Channel> {
+public final class ChannelFilter implements Predicate<Channel> {
     public static final ChannelFilter ALL_BY_DEFAULT = new ChannelFilter(true, Set.of(), Set.of());
     public static final ChannelFilter NONE_BY_DEFAULT = new ChannelFilter(false, Set.of(), Set.of());
 
+    private static final int MAX_MEMOISED_CHANNELS = 4096;
+
+    /**
+     * The generation of the channel layout, replaced whenever a channel changes parent or is deleted.
+     * Decisions are memoised as one of the two {@link Decision} instances of their generation, so decisions made in a previous generation
+     * are simply ignored, and memoising a decision never allocates.
+     */
+    private static volatile Generation generation = new Generation();
+
+    private final boolean allByDefault;
+    private final LongHashSet whitelist, blacklist;
+    private final boolean simple;
+    @Nullable
+    private final LongCache<Decision> decisions;
+
+    /**
+     * @param allByDefault whether this filter should match all channels by default (if they are neither blacklisted nor whitelisted).
+     * @param whitelist    channels (or channel categories) to include
+     * @param blacklist    channels (or channel categories) to exclude
+     */
     public ChannelFilter(boolean allByDefault, Set<Long> whitelist, Set<Long> blacklist) {
-        this(allByDefault, whitelist, blacklist, false);
+        this.allByDefault = allByDefault;
+        this.whitelist = LongHashSet.copyOf(whitelist);
+        this.blacklist = LongHashSet.copyOf(blacklist);
+        this.simple = this.whitelist.isEmpty() && this.blacklist.isEmpty();
+        this.decisions = simple ? null : new LongCache<>(MAX_MEMOISED_CHANNELS);
     }
 
     @ApiStatus.Internal
-    public ChannelFilter {
-        whitelist = Set.copyOf(whitelist);
-        blacklist = Set.copyOf(blacklist);
-        simple = whitelist.isEmpty() && blacklist.isEmpty();
+    public ChannelFilter(boolean allByDefault, Set<Long> whitelist, Set<Long> blacklist, boolean simple) {
+        this(allByDefault, whitelist, blacklist);
+    }
+
+    /**
+     * Discard the memoised decisions of all filters. This must be called when the parent of a channel changes or when a channel is deleted.
+     */
+    @ApiStatus.Internal
+    public static void invalidateDecisions() {
+        generation = new Generation();
+    }
+
+    /**
+     * {@return whether this filter should match all channels by default (if they are neither blacklisted nor whitelisted)}
+     */
+    public boolean allByDefault() {
+        return allByDefault;
+    }
+
+    /**
+     * {@return channels (or channel categories) to include}
+     */
+    public Set<Long> whitelist() {
+        return whitelist;
+    }
+
+    /**
+     * {@return channels (or channel categories) to exclude}
+     */
+    public Set<Long> blacklist() {
+        return blacklist;
+    }
+
+    /**
+     * {@return whether this filter has neither a whitelist nor a blacklist, and as such matches either all or none of the channels}
+     */
+    public boolean simple() {
+        return simple;
     }
 
     @Override
     public boolean test(Channel channel) {
         if (simple) return allByDefault;
 
+        final long id = channel.getIdLong();
+        final Generation generation = ChannelFilter.generation;
+        final Decision memoised = decisions.get(id);
+        if (memoised == generation.matches || memoised == generation.rejects) {
+            return memoised.value;
+        }
+
+        final boolean decision = decide(channel);
+        decisions.put(id, decision ? generation.matches : generation.rejects);
+        return decision;
+    }
+
+    private boolean decide(Channel channel) {
         if (blacklist.contains(channel.getIdLong())) return false;
         if (whitelist.contains(channel.getIdLong())) return true;
 
@@ -77,6 +151,29 @@ public record ChannelFilter(boolean allByDefault, Set<Long> whitelist,
         return str.toString();
     }
 
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ChannelFilter other && allByDefault == other.allByDefault
+                && whitelist.equals(other.whitelist) && blacklist.equals(other.blacklist);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(allByDefault, whitelist, blacklist);
+    }
+
+    @Override
+    public String toString() {
+        return "ChannelFilter[allByDefault=" + allByDefault + ", whitelist=" + whitelist + ", blacklist=" + blacklist + "]";
+    }
+
+    private record Decision(boolean value) {
+    }
+
+    private static final class Generation {
+        final Decision matches = new Decision(true), rejects = new Decision(false);
+    }
+
     @ApiStatus.Internal
     public static String formatMentions(Set<Long> set, String mentionCharacter) {
         if (set.isEmpty()) return "";
@@ -5,7 +5,7 @@ import net.neoforged.camelot.api.config.type.OptionBuilder;
 import java.util.Set;
 
 /**
- * A common interface for sets of Discord entities, backed by a long (snowflake) set.
+ * A common interface for sets of Discord entities, backed by a primitive long (snowflake) set.
  */
 public interface EntitySet extends Set<Long> {
     /**
@@ -15,6 +15,12 @@ public interface EntitySet extends Set<Long> {
 
     }
 
+    /**
+     * {@return whether this set contains the entity with the given {@code id}}
+     * Unlike {@link #contains(Object)}, this does not box the ID.
+     */
+    boolean contains(long id);
+
     /**
      * {@return format this entity set as a list of mentions}
      */
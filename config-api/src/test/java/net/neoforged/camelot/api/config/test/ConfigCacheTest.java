@@ -0,0 +1,266 @@
+package net.neoforged.camelot.api.config.test;
+
+import net.neoforged.camelot.api.config.ConfigManager;
+import net.neoforged.camelot.api.config.ConfigOption;
+import net.neoforged.camelot.api.config.impl.LongCache;
+import net.neoforged.camelot.api.config.impl.LongHashSet;
+import net.neoforged.camelot.api.config.storage.ConfigStorage;
+import net.neoforged.camelot.api.config.type.Options;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public class ConfigCacheTest {
+    private static final int THREADS = 8;
+
+    @Test
+    void testMatchesMap() {
+        // Random operations on a small key space exercise collisions, removal shifts and resizes
+        final LongCache<Long> cache = new LongCache<>(Integer.MAX_VALUE);
+        final Map<Long, Long> expected = new HashMap<>();
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            final long key = random.nextInt(2_000) * 0x1_0000_0000L;
+            switch (random.nextInt(4)) {
+                case 0, 1 -> Assertions.assertThat(cache.put(key, (long) i)).isEqualTo(expected.put(key, (long) i));
+                case 2 -> Assertions.assertThat(cache.remove(key)).isEqualTo(expected.remove(key));
+                default -> Assertions.assertThat(cache.get(key)).isEqualTo(expected.get(key));
+            }
+        }
+
+        Assertions.assertThat(cache.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> Assertions.assertThat(cache.get(key)).isEqualTo(value));
+    }
+
+    @Test
+    void testLongHashSetMatchesSet() {
+        final Random random = new Random(42);
+        for (int round = 0; round < 1_000; round++) {
+            final Set<Long> expected = new HashSet<>();
+            final int size = random.nextInt(64);
+            for (int i = 0; i < size; i++) {
+                // Include 0 and duplicates, which are stored differently
+                expected.add(random.nextInt(8) == 0 ? 0L : random.nextLong(100) << 22);
+            }
+
+            final LongHashSet set = LongHashSet.copyOf(expected);
+            Assertions.assertThat(set).hasSameSizeAs(expected).containsExactlyInAnyOrderElementsOf(expected);
+            Assertions.assertThat(set).isEqualTo(expected).hasSameHashCodeAs(expected);
+            for (long candidate = 0; candidate < 100; candidate++) {
+                Assertions.assertThat(set.contains(candidate << 22)).isEqualTo(expected.contains(candidate << 22));
+            }
+        }
+    }
+
+    @Test
+    void testBounded() {
+        final LongCache<Long> cache = new LongCache<>(1_000);
+        for (long key = 0; key < 100_000; key++) {
+            cache.put(key, key);
+            Assertions.assertThat(cache.get(key)).isEqualTo(key);
+        }
+
+        Assertions.assertThat(cache.size()).isLessThanOrEqualTo(1_000);
+        Assertions.assertThat(cache.evictions()).isEqualTo(100_000 - cache.size());
+    }
+
+    @Test
+    void testEvictsUnreadEntries() {
+        final LongCache<Long> cache = new LongCache<>(16 * 64);
+        final List<Long> hot = new ArrayList<>();
+        for (long key = 0; key < 64; key++) {
+            cache.put(key, key);
+            hot.add(key);
+        }
+
+        for (long key = 1_000; key < 50_000; key++) {
+            // Keep reading the hot keys, so that only the keys that are inserted once are evicted
+            for (final long hotKey : hot) {
+                Assertions.assertThat(cache.get(hotKey)).isEqualTo(hotKey);
+            }
+            cache.put(key, key);
+        }
+    }
+
+    @Test
+    void testConcurrentAccess() throws Exception {
+        final LongCache<Long> cache = new LongCache<>(Integer.MAX_VALUE);
+        final int keysPerThread = 20_000;
+
+        runConcurrently(thread -> {
+            // Each thread owns a disjoint set of keys but shares the segments with the other threads
+            for (int round = 0; round < 3; round++) {
+                for (long i = 0; i < keysPerThread; i++) {
+                    final long key = i * THREADS + thread;
+                    cache.put(key, key * 31 + round);
+                    Assertions.assertThat(cache.get(key)).isEqualTo(key * 31 + round);
+                    if (i % 3 == 0) {
+                        Assertions.assertThat(cache.remove(key)).isEqualTo(key * 31 + round);
+                    }
+                }
+            }
+        });
+
+        for (long key = 0; key < (long) keysPerThread * THREADS; key++) {
+            final long index = key / THREADS;
+            Assertions.assertThat(cache.get(key)).isEqualTo(index % 3 == 0 ? null : key * 31 + 2);
+        }
+    }
+
+    @Test
+    void testNoLostUpdates() throws Exception {
+        final LongCache<Long> cache = new LongCache<>(Integer.MAX_VALUE);
+        final int increments = 50_000;
+
+        runConcurrently(_ -> {
+            for (int i = 0; i < increments; i++) {
+                cache.compute(ThreadLocalRandom.current().nextInt(4), old -> old == null ? 1 : old + 1);
+            }
+        });
+
+        long total = 0;
+        for (long key = 0; key < 4; key++) {
+            final Long count = cache.get(key);
+            if (count != null) total += count;
+        }
+        Assertions.assertThat(total).isEqualTo((long) increments * THREADS);
+    }
+
+    @Test
+    void testConcurrentOptionUpdates() throws Exception {
+        record Target(long id) {}
+
+        final ConfigStorage<Target> storage = ConfigStorage.inMemory();
+        final ConfigManager<Target> manager = ConfigManager.create(storage, Target::id, 64);
+        final ConfigOption<Target, Integer> option = manager.registrar()
+                .option("value", Options.integer())
+                .defaultValue(-1)
+                .register();
+
+        runConcurrently(thread -> {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 20_000; i++) {
+                final Target target = new Target(random.nextInt(256));
+                switch (random.nextInt(3)) {
+                    case 0 -> option.set(target, thread * 1_000_000 + i);
+                    case 1 -> Assertions.assertThat(option.get(target)).isNotNull();
+                    default -> Assertions.assertThat(manager.snapshot(target).get(option)).isNotNull();
+                }
+            }
+        });
+
+        // A new manager reads the values straight from the storage, which must agree with what the cache of the first one holds
+        final ConfigManager<Target> fresh = ConfigManager.create(storage, Target::id, Integer.MAX_VALUE);
+        final ConfigOption<Target, Integer> freshOption = fresh.registrar()
+                .option("value", Options.integer())
+                .defaultValue(-1)
+                .register();
+        for (long id = 0; id < 256; id++) {
+            final Target target = new Target(id);
+            Assertions.assertThat(option.get(target)).isEqualTo(freshOption.get(target));
+            Assertions.assertThat(manager.snapshot(target).get(option)).isEqualTo(freshOption.get(target));
+        }
+    }
+
+    @Test
+    void testSharesIdenticalValues() {
+        record Target(long id) {}
+
+        final ConfigStorage<Target> storage = ConfigStorage.inMemory();
+        final ConfigManager<Target> manager = ConfigManager.create(storage, Target::id, 2 * 16);
+        final ConfigOption<Target, List<String>> option = manager.registrar()
+                .option("values", Options.string())
+                .list()
+                .register();
+
+        for (long id = 0; id < 100; id++) {
+            storage.store("values", new Target(id), id % 2 == 0 ? "[\"a\",\"b\"]" : "[\"c\"]");
+        }
+
+        // Targets with the same stored value share one deserialised instance, even once it was evicted and loaded again
+        final List<String> even = option.get(new Target(0));
+        for (long id = 0; id < 100; id++) {
+            final List<String> value = option.get(new Target(id));
+            if (id % 2 == 0) {
+                Assertions.assertThat(value).isSameAs(option.get(new Target(0))).containsExactly("a", "b");
+            } else {
+                Assertions.assertThat(value).containsExactly("c");
+            }
+        }
+        Assertions.assertThat(option.get(new Target(0))).isEqualTo(even);
+
+        // Setting a value equal to a shared one reuses the shared instance
+        option.set(new Target(1), List.of("a", "b"));
+        Assertions.assertThat(option.get(new Target(1))).isSameAs(option.get(new Target(0)));
+    }
+
+    @Test
+    void testReloadsDoNotNotifyListeners() {
+        record Target(long id) {}
+
+        final ConfigStorage<Target> storage = ConfigStorage.inMemory();
+        final ConfigManager<Target> manager = ConfigManager.create(storage, Target::id, 16);
+        final ConfigOption<Target, Integer> option = manager.registrar()
+                .option("value", Options.integer())
+                .defaultValue(-1)
+                .register();
+        final List<Long> notified = new ArrayList<>();
+        option.subscribe((target, _, _) -> notified.add(target.id()));
+
+        for (long id = 0; id < 100; id++) {
+            storage.store("value", new Target(id), String.valueOf(id));
+        }
+
+        // Reading the targets again once they were evicted must not announce their values as new ones
+        for (int round = 0; round < 3; round++) {
+            for (long id = 0; id < 100; id++) {
+                Assertions.assertThat(option.get(new Target(id))).isEqualTo((int) id);
+            }
+        }
+        Assertions.assertThat(notified).hasSize(100).doesNotHaveDuplicates();
+
+        option.set(new Target(0), 42);
+        Assertions.assertThat(notified).hasSize(101);
+    }
+
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final int id = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(id);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+}
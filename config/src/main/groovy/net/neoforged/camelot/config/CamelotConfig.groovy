@@ -32,6 +32,42 @@ class CamelotConfig {
      */
     long owner
 
+    /**
+     * The time, in milliseconds, above which the execution of a database statement is considered slow and logged.
+     */
+    long slowQueryThreshold = 250
+
+    /**
+     * Whether the events of each guild should be handled on a separate lane backed by virtual threads.
+     * Events are still handled in order within a guild, but a listener blocking in one guild does not delay the events of the other guilds.
+     */
+    boolean guildEventLanes = true
+
+    /**
+     * The maximum amount of events queued on the lane of a guild. Once a lane is full, new events of its guild are dropped, and users
+     * are told to try their interactions again later. The queue depths and dropped events are logged every 5 minutes.
+     */
+    int maxQueuedGuildEvents = 10_000
+
+    /**
+     * The total amount of shards the guilds of the bot are split into. Set to {@code -1} to use the amount recommended by Discord.
+     */
+    int shardsTotal = 1
+
+    /**
+     * The IDs of the shards run by this instance of the bot, or {@code null} to run all of them.
+     * Ranges may be used to split the shards between several instances, e.g. {@code shards = 0..3}.
+     */
+    List<Integer> shards = null
+
+    /**
+     * The maximum amount of members kept in the cache, across all guilds, or {@code -1} to cache every member of every guild.
+     * Once the cache is full, the least recently active members are evicted. The owners and moderators of the guilds and the members
+     * in voice channels are always cached, as well as the members enabled modules need (e.g. members with roles that stick, for sticky roles),
+     * and do not count towards this limit. Evicted members are loaded again on demand.
+     */
+    int maxCachedMembers = -1
+
     /**
      * Configure a module.
      * @param type the type of the module
@@ -31,6 +31,38 @@ class Tricks extends ModuleConfiguration {
      */
     boolean moduleExportsEnabled = true
 
-    @Requires({ executionTimeout > 0 && privilegedExecutionTimeout > 0 })
+    /**
+     * The amount of script contexts built ahead of time, so that running a trick does not have to wait for its context to be built.
+     * Set to {@code 0} to build the context of each trick when it is run.
+     */
+    int contextPoolSize = 4
+
+    /**
+     * The amount of most used tricks that are compiled in the background on startup, so that their first run is not slower than the others.
+     * Usage is ranked using the trick statistics, so this has no effect if they are disabled.
+     */
+    int precompiledTricks = 25
+
+    /**
+     * The amount of tricks that may run at the same time. Other tricks wait in a queue, served fairly between servers and users.
+     */
+    int executionThreads = 4
+
+    /**
+     * The maximum amount of tricks of a single user that may wait to run. Tricks over this limit are rejected.
+     */
+    int maxQueuedPerUser = 3
+
+    /**
+     * The maximum amount of tricks of a single server that may wait to run. Tricks over this limit are rejected.
+     */
+    int maxQueuedPerGuild = 20
+
+    /**
+     * The maximum amount of tricks that may wait to run. Tricks over this limit are rejected.
+     */
+    int maxQueuedExecutions = 100
+
+    @Requires({ executionTimeout > 0 && privilegedExecutionTimeout > 0 && contextPoolSize >= 0 && executionThreads > 0 && maxQueuedPerUser > 0 && maxQueuedPerGuild > 0 && maxQueuedExecutions > 0 })
     void validate() {}
 }
@@ -28,6 +28,7 @@ import net.neoforged.camelot.api.config.ConfigOption;
 import net.neoforged.camelot.api.config.type.ChannelFilter;
 import net.neoforged.camelot.module.custompings.db.Ping;
 import net.neoforged.camelot.module.custompings.db.PingsDAO;
+import net.neoforged.camelot.util.MessageFacts;
 import net.neoforged.camelot.util.Utils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -59,15 +60,16 @@ public record CustomPingListener(ConfigOption<Guild, ChannelFilter> channelFilte
     @Override
     public void onEvent(@NotNull GenericEvent gevent) {
         if (!(gevent instanceof MessageReceivedEvent event)) return;
-        if (!event.isFromGuild() || event.getAuthor().isBot() || event.getAuthor().isSystem()) return;
+        if (!event.isFromGuild()) return;
 
-        if (!channelFilter.get(event.getGuild()).test(event.getChannel())) return;
+        final MessageFacts facts = MessageFacts.of(event.getMessage());
+        if (!facts.fromUser() || !channelFilter.get(event.getGuild()).test(event.getChannel())) return;
 
         synchronized (CACHE) {
             CACHE.getOrDefault(event.getGuild().getIdLong(), List.of()).forEach(ping -> {
                 if (ping.user() == event.getAuthor().getIdLong()) return;
 
-                if (ping.regex().matcher(event.getMessage().getContentRaw()).find()) {
+                if (ping.regex().matcher(facts.content()).find()) {
                     sendPing(event.getMessage(), ping);
                 }
             });
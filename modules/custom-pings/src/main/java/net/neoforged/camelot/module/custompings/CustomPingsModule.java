@@ -1,8 +1,8 @@
 package net.neoforged.camelot.module.custompings;
 
 import com.jagrosh.jdautilities.command.CommandClientBuilder;
-import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.neoforged.camelot.ModuleProvider;
 import net.neoforged.camelot.ap.RegisterCamelotModule;
 import net.neoforged.camelot.api.config.ConfigOption;
@@ -10,6 +10,7 @@ import net.neoforged.camelot.api.config.type.ChannelFilter;
 import net.neoforged.camelot.api.config.type.Options;
 import net.neoforged.camelot.config.module.CustomPings;
 import net.neoforged.camelot.module.api.CamelotModule;
+import net.neoforged.camelot.util.jda.EventRouter;
 
 @RegisterCamelotModule
 public class CustomPingsModule extends CamelotModule.WithDatabase<CustomPings> {
@@ -59,7 +60,7 @@ public class CustomPingsModule extends CamelotModule.WithDatabase<CustomPings> {
     }
 
     @Override
-    public void registerListeners(JDABuilder builder) {
-        builder.addEventListeners(new CustomPingListener(allowedChannels));
+    public void registerListeners(EventRouter router) {
+        router.listen("custom pings", new CustomPingListener(allowedChannels), MessageReceivedEvent.class);
     }
 }
@@ -0,0 +1,3 @@
+create index pings_user_guild on pings (user, guild);
+-- lookups of the ping thread of a user also match the guild-independent threads (guild 0) --
+create index ping_threads_guild on ping_threads (guild);
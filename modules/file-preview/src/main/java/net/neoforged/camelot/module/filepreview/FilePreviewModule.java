@@ -1,12 +1,10 @@
 package net.neoforged.camelot.module.filepreview;
 
-import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Guild;
-import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.emoji.Emoji;
-import net.dv8tion.jda.api.entities.messages.MessageSnapshot;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
+import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.neoforged.camelot.ModuleProvider;
 import net.neoforged.camelot.ap.RegisterCamelotModule;
 import net.neoforged.camelot.api.config.ConfigOption;
@@ -15,7 +13,9 @@ import net.neoforged.camelot.api.config.type.Options;
 import net.neoforged.camelot.config.module.FilePreview;
 import net.neoforged.camelot.module.api.CamelotModule;
 import net.neoforged.camelot.util.Emojis;
+import net.neoforged.camelot.util.MessageFacts;
 import net.neoforged.camelot.util.Utils;
+import net.neoforged.camelot.util.jda.EventRouter;
 import org.jetbrains.annotations.NotNull;
 import org.kohsuke.github.GHGistBuilder;
 import org.kohsuke.github.GitHub;
@@ -23,14 +23,11 @@ import org.kohsuke.github.GitHub;
 import java.net.URI;
 import java.util.List;
 import java.util.Random;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
+import java.util.Set;
 
 @RegisterCamelotModule
 public class FilePreviewModule extends CamelotModule.Base<FilePreview> {
     private static final Emoji EMOJI = Emojis.MANAGER.getLazyEmoji("gist");
-    private static final Pattern CODEBLOCK_PATTERN = Pattern.compile("`{3}(?<lang>\\w*)\\n(?<content>[\\s\\S]*?)\\n`{3}", Pattern.MULTILINE);
     private static final Random RANDOM = new Random();
 
     private final ConfigOption<Guild, Boolean> enabled;
@@ -60,21 +57,26 @@ public class FilePreviewModule extends CamelotModule.Base<FilePreview> {
         return "file-preview";
     }
 
+    @Override
+    public Set<GatewayIntent> getRequiredIntents() {
+        return Set.of(GatewayIntent.GUILD_MESSAGE_REACTIONS);
+    }
+
     @Override
     public boolean shouldLoad() {
         return config().getAuth() != null;
     }
 
     @Override
-    public void registerListeners(JDABuilder builder) {
-        builder.addEventListeners(Utils.listenerFor(MessageReceivedEvent.class, event -> {
+    public void registerListeners(EventRouter router) {
+        router.on("file preview messages", MessageReceivedEvent.class, event -> {
             if (event.isFromGuild() && (!enabled.get(event.getGuild()) || !allowedChannels.get(event.getGuild()).test(event.getChannel()))) return;
 
-            if (messageMatches(event.getMessage())) {
+            if (messageMatches(MessageFacts.of(event.getMessage()))) {
                 event.getMessage().addReaction(EMOJI).queue();
             }
-        }));
-        builder.addEventListeners(Utils.listenerFor(MessageReactionAddEvent.class, event -> {
+        });
+        router.on("file preview reactions", MessageReactionAddEvent.class, event -> {
             if (event.getEmoji().equals(EMOJI) && event.getUserIdLong() != event.getJDA().getSelfUser().getIdLong()) {
                 // Make sure that threads don't fight trying to create gists
                 synchronized (FilePreviewModule.class) {
@@ -85,9 +87,8 @@ public class FilePreviewModule extends CamelotModule.Base<FilePreview> {
                             // We could check if the message is valid for gisting, but it's not really needed since the only way we'd have reacted is if the message is gistable
                             final var gist = new GistBuilder(config().getAuth());
 
-                            final var itr = Stream.concat(it.getAttachments().stream(), it.getMessageSnapshots().stream().flatMap(s -> s.getAttachments().stream())).iterator();
-                            while (itr.hasNext()) {
-                                final var attach = itr.next();
+                            final MessageFacts facts = MessageFacts.of(it);
+                            for (final var attach : facts.attachments()) {
                                 if (config().getExtensions().contains(attach.getFileExtension())) {
                                     try (final var is = URI.create(attach.getProxy().getUrl()).toURL().openStream()) {
                                         gist.file(attach.getFileName(), new String(is.readAllBytes()));
@@ -95,26 +96,21 @@ public class FilePreviewModule extends CamelotModule.Base<FilePreview> {
                                 }
                             }
 
-                            final var codeblockMatcher = CODEBLOCK_PATTERN.matcher(it.getContentRaw());
-                            int matchFindingStart = 0;
-                            while (codeblockMatcher.find(matchFindingStart)) {
+                            for (final MessageFacts.CodeBlock codeBlock : facts.codeBlocks()) {
                                 // Create a random name for codeblocks, to prevent any conflicts
                                 String fileName = "codeblock-" + generateName(6);
-                                final String lang = codeblockMatcher.group("lang");
-                                if (lang != null && !lang.isBlank()) {
-                                    fileName += "." + lang;
+                                if (!codeBlock.language().isBlank()) {
+                                    fileName += "." + codeBlock.language();
                                 }
 
-                                final String content = codeblockMatcher.group("content");
-                                if (!content.isBlank()) {
-                                    gist.file(fileName, content);
+                                if (!codeBlock.content().isBlank()) {
+                                    gist.file(fileName, codeBlock.content());
                                 }
-                                matchFindingStart = codeblockMatcher.end();
                             }
 
                             // Only set the description to the contents if there's no codeblocks inside the message
-                            if (matchFindingStart == 0) {
-                                gist.description(Utils.truncate(it.getContentRaw(), 256));
+                            if (facts.codeBlocks().isEmpty()) {
+                                gist.description(Utils.truncate(facts.content(), 256));
                             }
 
                             // If we end up with no valid targets we shall quit and remove our reaction
@@ -134,39 +130,18 @@ public class FilePreviewModule extends CamelotModule.Base<FilePreview> {
                     });
                 }
             }
-        }));
+        });
     }
 
-    private boolean messageMatches(Message message) {
-        if (message.getAttachments().stream().anyMatch(it -> config().getExtensions().contains(it.getFileExtension())) || hasCodeBlock(message.getContentRaw())) {
-            return true;
-        }
-
-        if (!message.getMessageSnapshots().isEmpty()) {
-            for (MessageSnapshot messageSnapshot : message.getMessageSnapshots()) {
-                if (messageSnapshot.getAttachments().stream().anyMatch(it -> config().getExtensions().contains(it.getFileExtension()))) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    private boolean messageMatches(MessageFacts facts) {
+        return facts.attachments().stream().anyMatch(it -> config().getExtensions().contains(it.getFileExtension())) || hasCodeBlock(facts);
     }
 
-    // A message has a codeblock if it has at least two "counts" of ```, and if the codeblock is at least 10 lines long or 300 characters
-    private static boolean hasCodeBlock(String msg) {
-        final int idx = msg.indexOf("```");
-        final boolean hasBlock = idx != -1 && (idx < msg.lastIndexOf("```"));
-
-        if (hasBlock) {
-            final Matcher matcher = CODEBLOCK_PATTERN.matcher(msg);
-            int matchFindingStart = 0;
-            while (matcher.find(matchFindingStart)) {
-                final String content = matcher.group("content");
-                if (content.length() >= 300 || content.split("\n").length >= 10) {
-                    return true;
-                }
-
-                matchFindingStart = matcher.end();
+    // A message has a codeblock if the codeblock is at least 10 lines long or 300 characters
+    private static boolean hasCodeBlock(MessageFacts facts) {
+        for (final MessageFacts.CodeBlock codeBlock : facts.codeBlocks()) {
+            if (codeBlock.content().length() >= 300 || codeBlock.lineCount() >= 10) {
+                return true;
             }
         }
         return false;
@@ -2,7 +2,9 @@ package net.neoforged.camelot.module.infochannels;
 
 import com.jagrosh.jdautilities.command.CommandClientBuilder;
 import net.dv8tion.jda.api.JDA;
-import net.neoforged.camelot.BotMain;
+import net.dv8tion.jda.api.events.message.MessageDeleteEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.message.MessageUpdateEvent;
 import net.neoforged.camelot.ModuleProvider;
 import net.neoforged.camelot.ap.RegisterCamelotModule;
 import net.neoforged.camelot.config.module.InfoChannels;
@@ -41,9 +43,9 @@ public class InfoChannelsModule extends CamelotModule.WithDatabase<InfoChannels>
 
     @Override
     public void setup(JDA jda) {
-        jda.addEventListener(InfoChannelCommand.EVENT_LISTENER);
+        bot().events().listen("info channels", InfoChannelCommand.EVENT_LISTENER, MessageReceivedEvent.class, MessageUpdateEvent.class, MessageDeleteEvent.class);
 
         // Update info channels every couple of minutes
-        BotMain.EXECUTOR.scheduleAtFixedRate(InfoChannelCommand::run, 1, 2, TimeUnit.MINUTES);
+        bot().schedulePerShard(InfoChannelCommand::run, 1, 2, TimeUnit.MINUTES);
     }
 }
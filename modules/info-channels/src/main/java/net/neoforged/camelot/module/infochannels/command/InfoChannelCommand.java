@@ -21,6 +21,7 @@ import com.jagrosh.jdautilities.command.MessageContextMenuEvent;
 import com.jagrosh.jdautilities.command.SlashCommand;
 import com.jagrosh.jdautilities.command.SlashCommandEvent;
 import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDAInfo;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.EmbedType;
@@ -40,6 +41,7 @@ import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.sharding.ShardManager;
 import net.dv8tion.jda.api.utils.TimeFormat;
 import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
@@ -287,9 +289,9 @@ public class InfoChannelCommand extends SlashCommand {
     );
 
     /**
-     * Update the info channels to make sure they're not outdated.
+     * Update the info channels of the guilds of the given {@code shard} to make sure they're not outdated.
      */
-    public static void run() {
+    public static void run(JDA shard) {
         var app = BotMain.getModule(InfoChannelsModule.class).config().getAuth();
 
         var database = BotMain.getModule(InfoChannelsModule.class).db();
@@ -297,10 +299,16 @@ public class InfoChannelCommand extends SlashCommand {
         for (final InfoChannel ch : channels) {
             if (UPDATING_CHANNELS.contains(ch.channel())) return;
 
-            final MessageChannel messageChannel = BotMain.get().getChannelById(MessageChannel.class, ch.channel());
+            final MessageChannel messageChannel = shard.getChannelById(MessageChannel.class, ch.channel());
             if (messageChannel == null) {
-                database.useExtension(InfoChannelsDAO.class, db -> db.delete(ch.channel()));
-                return;
+                // The channel may belong to a guild of another shard, so only forget it once no shard knows it
+                final ShardManager shards = BotMain.shards();
+                if (shards.getShardsQueued() == 0 && shards.getStatuses().values().stream().allMatch(JDA.Status.CONNECTED::equals)
+                        && shards.getChannelById(MessageChannel.class, ch.channel()) == null) {
+                    database.useExtension(InfoChannelsDAO.class, db -> db.delete(ch.channel()));
+                    return;
+                }
+                continue;
             }
 
             try {
@@ -84,7 +84,7 @@ public record InfoChannel(long channel, GithubLocation location, boolean forceRe
                 final var data = super.read(content, mapper, channel);
                 final List<InfoChannelCommand.MessageData> newMessages = new ArrayList<>();
 
-                final long guildId = BotMain.get().getChannelById(GuildChannel.class, channel).getGuild().getIdLong();
+                final long guildId = BotMain.shards().getChannelById(GuildChannel.class, channel).getGuild().getIdLong();
 
                 final RuleUpdater updater = new RuleUpdater(guildId, channel);
 
@@ -103,7 +103,7 @@ public record InfoChannel(long channel, GithubLocation location, boolean forceRe
 
             @Override
             public String write(List<Message> messages, ObjectMapper mapper, long channel) throws IOException {
-                final long guildId = BotMain.get().getChannelById(GuildChannel.class, channel).getGuild().getIdLong();
+                final long guildId = BotMain.shards().getChannelById(GuildChannel.class, channel).getGuild().getIdLong();
                 final RuleUpdater updater = new RuleUpdater(guildId, channel);
                 messages.forEach(msg -> msg.getEmbeds().forEach(updater::apply));
                 updater.run();
@@ -1,5 +1,7 @@
 package net.neoforged.camelot.module.infochannels.db;
 
+import net.neoforged.camelot.db.api.Cached;
+import net.neoforged.camelot.db.api.InvalidatesCache;
 import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
 import org.jdbi.v3.sqlobject.customizer.Bind;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
@@ -17,6 +19,7 @@ public interface InfoChannelsDAO extends Transactional<InfoChannelsDAO> {
     /**
      * {@return all known info channels}
      */
+    @Cached
     @SqlQuery("select * from info_channels")
     List<InfoChannel> getChannels();
 
@@ -26,6 +29,7 @@ public interface InfoChannelsDAO extends Transactional<InfoChannelsDAO> {
      * @param id the ID of the channel to get
      */
     @Nullable
+    @Cached
     @SqlQuery("select * from info_channels where channel = :id")
     InfoChannel getChannel(@Bind("id") long id);
 
@@ -51,6 +55,7 @@ public interface InfoChannelsDAO extends Transactional<InfoChannelsDAO> {
      *
      * @param infoChannel the channel to insert
      */
+    @InvalidatesCache
     default void insert(InfoChannel infoChannel) {
         getHandle().createUpdate("insert or replace into info_channels (channel, location, force_recreate, hash, type) values (?, ?, ?, ?, ?)")
                 .bind(0, infoChannel.channel())
@@ -1,5 +1,6 @@
 package net.neoforged.camelot.module.infochannels.db;
 
+import net.neoforged.camelot.db.api.Cached;
 import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
 import org.jdbi.v3.sqlobject.customizer.Bind;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
@@ -23,6 +24,7 @@ public interface RulesDAO extends Transactional<RulesDAO> {
      * {@return the rule with the given number in the given guild}
      */
     @Nullable
+    @Cached
     @SqlQuery("select * from rules where guild = :id and number = :number")
     Rule getRule(@Bind("id") long guildId, @Bind("number") int ruleNumber);
 
@@ -0,0 +1,2 @@
+-- rules are cleared per channel when the rules channel is updated --
+create index rules_channel on rules (channel);
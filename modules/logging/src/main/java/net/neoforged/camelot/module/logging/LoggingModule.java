@@ -4,6 +4,14 @@ import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.IMentionable;
 import net.dv8tion.jda.api.entities.emoji.Emoji;
+import net.dv8tion.jda.api.events.guild.GuildAuditLogEntryCreateEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberJoinEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.events.message.MessageBulkDeleteEvent;
+import net.dv8tion.jda.api.events.message.MessageDeleteEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.message.MessageUpdateEvent;
+import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.neoforged.camelot.ModuleProvider;
 import net.neoforged.camelot.ap.RegisterCamelotModule;
 import net.neoforged.camelot.api.config.ConfigOption;
@@ -13,11 +21,13 @@ import net.neoforged.camelot.config.module.Logging;
 import net.neoforged.camelot.module.api.CamelotModule;
 import net.neoforged.camelot.services.ModerationRecorderService;
 import net.neoforged.camelot.services.ServiceRegistrar;
+import net.neoforged.camelot.util.jda.EventRouter;
 
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -43,7 +53,11 @@ public class LoggingModule extends CamelotModule.Base<Logging> {
 
     @Override
     public void setup(JDA jda) {
-        jda.addEventListener(new JoinsLogging(this), new MessageLogging(this), new RoleLogging(this));
+        final EventRouter events = bot().events();
+        events.listen("join logging", new JoinsLogging(this), GuildMemberJoinEvent.class, GuildMemberRemoveEvent.class);
+        // Message logging also feeds the message cache, so it needs every message event
+        events.listen("message logging", new MessageLogging(this), MessageReceivedEvent.class, MessageUpdateEvent.class, MessageDeleteEvent.class, MessageBulkDeleteEvent.class);
+        events.listen("role logging", new RoleLogging(this), GuildAuditLogEntryCreateEvent.class);
     }
 
     @Override
@@ -51,6 +65,12 @@ public class LoggingModule extends CamelotModule.Base<Logging> {
         registrar.register(ModerationRecorderService.class, new ModerationActionLogging(this));
     }
 
+    @Override
+    public Set<GatewayIntent> getRequiredIntents() {
+        // For the member join and leave events
+        return Set.of(GatewayIntent.GUILD_MEMBERS);
+    }
+
     @Override
     public String id() {
         return "logging";
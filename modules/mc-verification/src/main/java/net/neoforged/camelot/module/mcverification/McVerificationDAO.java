@@ -1,5 +1,6 @@
 package net.neoforged.camelot.module.mcverification;
 
+import net.neoforged.camelot.db.api.Cached;
 import org.intellij.lang.annotations.Language;
 import org.jdbi.v3.core.mapper.RowMapper;
 import org.jdbi.v3.core.statement.StatementContext;
@@ -31,6 +32,7 @@ public interface McVerificationDAO extends Transactional<McVerificationDAO> {
     void insert(long guild, long user, String message, Timestamp deadline);
 
     @Nullable
+    @Cached
     @SqlQuery("select message, server_join_token from mc_verification where guild = ? and user = ?")
     VerificationInformation getVerificationInformation(long guild, long user);
 
@@ -41,6 +43,7 @@ public interface McVerificationDAO extends Transactional<McVerificationDAO> {
     List<Long> getUsersToBan(@Bind("guild") long guild);
 
     @Nullable
+    @Cached
     @SqlQuery("select guild, user from mc_verification where server_join_token = ?")
     UserInGuild getByServerJoinToken(String token);
 
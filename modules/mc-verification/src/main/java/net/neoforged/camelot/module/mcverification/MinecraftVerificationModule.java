@@ -115,7 +115,7 @@ public class MinecraftVerificationModule extends CamelotModule.WithDatabase<Mine
         }
 
         final McVerificationDAO dao = db().onDemand(McVerificationDAO.class);
-        BotMain.EXECUTOR.scheduleAtFixedRate(() -> banNotVerified(jda, dao), 1, 1, TimeUnit.MINUTES);
+        bot().schedulePerShard(shard -> banNotVerified(shard, dao), 1, 1, TimeUnit.MINUTES);
 
         if (config().getMinecraftServerPort() != 0) {
             final ExecutorService mcExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
@@ -199,7 +199,7 @@ public class MinecraftVerificationModule extends CamelotModule.WithDatabase<Mine
             return "Unknown verification token (" + token + "). Verification may no longer be needed";
         }
 
-        var guild = BotMain.get().getGuildById(userInfo.guild());
+        var guild = BotMain.shards().getGuildById(userInfo.guild());
         if (guild == null) {
             return "Unknown guild " + userInfo.guild();
         }
@@ -268,7 +268,7 @@ public class MinecraftVerificationModule extends CamelotModule.WithDatabase<Mine
 
     private void onVerifyPost(Context context) throws Exception {
         final long serverId = Long.parseLong(context.pathParam("serverId"));
-        final Guild guild = BotMain.get().getGuildById(serverId);
+        final Guild guild = BotMain.shards().getGuildById(serverId);
         if (guild == null) {
             context.result(new JSONObject().put("error", "Unknown guild").toString())
                     .status(HttpStatus.NOT_FOUND);
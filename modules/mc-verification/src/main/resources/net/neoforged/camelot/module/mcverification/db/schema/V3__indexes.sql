@@ -0,0 +1,2 @@
+create index mc_verification_guild_user on mc_verification (guild, user);
+create index mc_verification_server_join_token on mc_verification (server_join_token);
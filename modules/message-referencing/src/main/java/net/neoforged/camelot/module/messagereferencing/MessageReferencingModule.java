@@ -2,6 +2,7 @@ package net.neoforged.camelot.module.messagereferencing;
 
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.neoforged.camelot.ModuleProvider;
 import net.neoforged.camelot.ap.RegisterCamelotModule;
 import net.neoforged.camelot.api.config.ConfigOption;
@@ -37,7 +38,7 @@ public class MessageReferencingModule extends CamelotModule.Base<MessageReferenc
 
     @Override
     public void setup(JDA jda) {
-        jda.addEventListener(new ReferencingListener(enabled));
+        bot().events().listen("message referencing", new ReferencingListener(enabled), MessageReceivedEvent.class);
     }
 
     @Override
@@ -17,6 +17,7 @@ import net.dv8tion.jda.api.utils.MarkdownUtil;
 import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 import net.neoforged.camelot.api.config.ConfigOption;
+import net.neoforged.camelot.util.MessageFacts;
 import net.neoforged.camelot.util.Utils;
 import org.jetbrains.annotations.NotNull;
 
@@ -44,7 +45,8 @@ public record ReferencingListener(ConfigOption<Guild, Boolean> enabled) implemen
         assert quoter != null;
 
         final Message originalMsg = event.getMessage();
-        if (originalMsg.getMessageReference() != null && isStringReference(originalMsg.getContentRaw())) {
+        final MessageFacts facts = MessageFacts.of(originalMsg);
+        if (originalMsg.getMessageReference() != null && isStringReference(facts.content())) {
             final Message referencedMessage = originalMsg.getMessageReference().getMessage();
             if (referencedMessage != null) {
                 event.getChannel().sendMessage(reference(referencedMessage, quoter))
@@ -54,17 +56,17 @@ public record ReferencingListener(ConfigOption<Guild, Boolean> enabled) implemen
             }
         }
 
-        final String[] msg = originalMsg.getContentRaw().split(" ");
-        if (msg.length < 1 || msg[0].startsWith("<")) { // Ignore `<link>` as Discord removes the embed for those links
+        final List<String> tokens = facts.tokens();
+        if (tokens.isEmpty() || tokens.getFirst().startsWith("<")) { // Ignore `<link>` as Discord removes the embed for those links
             return;
         }
 
-        Utils.decodeMessageLink(msg[0])
+        Utils.decodeMessageLink(tokens.getFirst())
                 .flatMap(info -> info.retrieve(event.getJDA()))
                 .ifPresent(action -> action.queue(message -> {
                     if (userCanAccess(quoter, message)) {
                         event.getChannel().sendMessage(reference(message, event.getMember()))
-                                .flatMap(_ -> msg.length == 1 && originalMsg.getMessageReference() == null, _ -> originalMsg.delete().reason("Reference successful"))
+                                .flatMap(_ -> tokens.size() == 1 && originalMsg.getMessageReference() == null, _ -> originalMsg.delete().reason("Reference successful"))
                                 .queue(null, ERROR_HANDLER);
                     }
                 }, ERROR_HANDLER));
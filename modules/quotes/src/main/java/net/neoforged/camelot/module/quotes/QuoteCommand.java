@@ -189,9 +189,9 @@ public class QuoteCommand extends SlashCommand {
             final Data data;
             if (!event.getArgs().isBlank()) {
                 final var filter = StringSearch.contains(event.getArgs().trim());
-                data = new Data(BotMain.getModule(QuotesModule.class).db().withExtension(QuotesDAO.class, q -> q.getQuoteAmount(event.getGuild().getIdLong(), filter, null)), filter, null, event.getGuild().getIdLong());
+                data = new Data(BotMain.getModule(QuotesModule.class).db().withExtension(QuotesDAO.class, q -> q.getQuoteAmount(event.getGuild().getIdLong(), filter, null)), filter, null, event.getGuild().getIdLong(), new Cursors());
             } else {
-                data = new Data(BotMain.getModule(QuotesModule.class).db().withExtension(QuotesDAO.class, q -> q.getQuoteAmount(event.getGuild().getIdLong())), null, null, event.getGuild().getIdLong());
+                data = new Data(BotMain.getModule(QuotesModule.class).db().withExtension(QuotesDAO.class, q -> q.getQuoteAmount(event.getGuild().getIdLong())), null, null, event.getGuild().getIdLong(), new Cursors());
             }
 
             if (data.itemAmount() < 1) {
@@ -201,12 +201,12 @@ public class QuoteCommand extends SlashCommand {
             }
 
             final String btnId = buttonManager.<ButtonInteractionEvent>handler(e -> onButton(e, data));
-            final var buttons = createButtons(btnId, 0, data.itemAmount());
 
             createMessage(0, data, null)
                     .thenApply(ed -> event.getMessage().reply(MessageCreateData.fromEditData(ed))
                             .mentionRepliedUser(false))
                     .thenAccept(action -> {
+                        final var buttons = createButtons(btnId, 0, data);
                         if (!buttons.isEmpty()) {
                             action.setComponents(ActionRow.of(buttons));
                         }
@@ -227,23 +227,27 @@ public class QuoteCommand extends SlashCommand {
             });
 
             if (filter != null || userFilter != null) {
-                return new Data(BotMain.getModule(QuotesModule.class).db().withExtension(QuotesDAO.class, q -> q.getQuoteAmount(event.getGuild().getIdLong(), filter, userFilter)), filter, userFilter, event.getGuild().getIdLong());
+                return new Data(BotMain.getModule(QuotesModule.class).db().withExtension(QuotesDAO.class, q -> q.getQuoteAmount(event.getGuild().getIdLong(), filter, userFilter)), filter, userFilter, event.getGuild().getIdLong(), new Cursors());
             }
 
-            return new Data(BotMain.getModule(QuotesModule.class).db().withExtension(QuotesDAO.class, q -> q.getQuoteAmount(event.getGuild().getIdLong())), null, null, event.getGuild().getIdLong());
+            return new Data(BotMain.getModule(QuotesModule.class).db().withExtension(QuotesDAO.class, q -> q.getQuoteAmount(event.getGuild().getIdLong())), null, null, event.getGuild().getIdLong(), new Cursors());
         }
 
         // Crime incoming: the interaction shouldn't be nullable, but because this command is special and allows
         // text commands, we don't have an interaction there, so resort to storing more data in the button data
         @Override
         public CompletableFuture<MessageEditData> createMessage(int page, Data data, @Nullable Interaction interaction) {
+            final PageQuery query = pageQuery(page, data);
             final var quotes = BotMain.getModule(QuotesModule.class).db().withExtension(QuotesDAO.class, db -> {
                 if (data.contentFilter == null && data.userSearch == null) {
-                    return db.getQuotes(data.guildId, page * this.itemsPerPage, this.itemsPerPage);
+                    return db.getQuotes(data.guildId, query.after(), query.offset(), query.limit());
                 } else {
-                    return db.findQuotes(data.guildId, data.contentFilter, data.userSearch, page * this.itemsPerPage, this.itemsPerPage);
+                    return db.findQuotes(data.guildId, data.contentFilter, data.userSearch, query.after(), query.offset(), query.limit());
                 }
             });
+            if (!quotes.isEmpty()) {
+                data.cursors().pageEnded(page, quotes.getLast().id());
+            }
             final EmbedBuilder embed = new EmbedBuilder();
             embed.setTitle("List of quotes")
                     .setFooter("Page " + (page + 1) + " of " + pageAmount(data.itemAmount()) + " • " + data.itemAmount() + " total");
@@ -257,7 +261,7 @@ public class QuoteCommand extends SlashCommand {
                     .build());
         }
 
-        public record Data(int itemAmount, @Nullable StringSearch contentFilter, @Nullable QuotesDAO.UserSearch userSearch, long guildId) implements PaginationData {
+        public record Data(int itemAmount, @Nullable StringSearch contentFilter, @Nullable QuotesDAO.UserSearch userSearch, long guildId, Cursors cursors) implements PaginationData {
         }
     }
 
@@ -47,8 +47,8 @@ public class QuotesModule extends CamelotModule.WithDatabase<Quotes> {
     public QuotesModule(ModuleProvider.Context context) {
         super(context, Quotes.class);
 
-        accept(TricksModule.COMPILING_SCRIPT, compilingScript -> compilingScript.object().putLazyGetter("guild.getQuotes", () -> db().withExtension(QuotesDAO.class, db ->
-                        db.getQuotes(compilingScript.context().guild().getIdLong(), 0, Integer.MAX_VALUE)).stream()
+        accept(TricksModule.SCRIPT_SHAPES, shapes -> shapes.guild().lazyGetter("getQuotes", (_, guild) -> db().withExtension(QuotesDAO.class, db ->
+                        db.getQuotes(guild.getIdLong(), 0, Integer.MAX_VALUE)).stream()
                 .map(q -> ScriptObject.of("Quote")
                         .put("id", q.id())
                         .put("quote", q.quote())
@@ -99,7 +99,7 @@ public class QuotesModule extends CamelotModule.WithDatabase<Quotes> {
     @Override
     public void setup(JDA jda) {
         final QuotesDAO db = BotMain.getModule(QuotesModule.class).db().onDemand(QuotesDAO.class);
-        BotMain.EXECUTOR.scheduleAtFixedRate(() -> updateAuthors(jda, db), 1, 5, TimeUnit.MINUTES);
+        bot().schedulePerShard(shard -> updateAuthors(shard, db), 1, 5, TimeUnit.MINUTES);
 
         try {
             final var graphicsEnv = GraphicsEnvironment.getLocalGraphicsEnvironment();
@@ -113,21 +113,37 @@ public class QuotesModule extends CamelotModule.WithDatabase<Quotes> {
     }
 
     private void updateAuthors(final JDA jda, final QuotesDAO db) {
-        jda.getGuilds().forEach(guild -> db.getAuthorsToUpdate(guild.getIdLong()).forEach(author -> {
-            guild.retrieveMemberById(author.userId())
-                    .map(mem -> mem.getNickname() == null ? mem.getEffectiveName() : mem.getNickname() + " (" + mem.getUser().getEffectiveName() + ")")
-                    .onErrorFlatMap(_ -> jda.retrieveUserById(author.userId())
-                            .map(User::getEffectiveName)
-                            .onErrorMap(ErrorResponse.UNKNOWN_USER::test, _ -> {
-                                db.dontRecheck(author.id());
-                                return null;
-                            }))
-                    .queue(authorName -> {
-                        if (authorName != null && !authorName.equals(author.name())) {
-                            db.updateAuthor(author.id(), authorName);
+        for (final Guild guild : jda.getGuilds()) {
+            final List<Quote.Author> authors = db.getAuthorsToUpdate(guild.getIdLong());
+            if (authors.isEmpty()) continue;
+
+            // Most authors are not active, and as such not cached, so resolve them all at once
+            bot().members().resolveAll(guild, authors.stream().map(Quote.Author::userId).toList())
+                    .thenAccept(members -> authors.forEach(author -> {
+                        final Member member = members.get(author.userId());
+                        if (member != null) {
+                            updateAuthor(db, author, member.getNickname() == null ? member.getEffectiveName() : member.getNickname() + " (" + member.getUser().getEffectiveName() + ")");
+                        } else {
+                            jda.retrieveUserById(author.userId())
+                                    .map(User::getEffectiveName)
+                                    .onErrorMap(ErrorResponse.UNKNOWN_USER::test, _ -> {
+                                        db.dontRecheck(author.id());
+                                        return null;
+                                    })
+                                    .queue(authorName -> updateAuthor(db, author, authorName));
                         }
+                    }))
+                    .exceptionally(ex -> {
+                        BotMain.LOGGER.error("Failed to resolve the quote authors of guild {}: ", guild.getId(), ex);
+                        return null;
                     });
-        }));
+        }
+    }
+
+    private static void updateAuthor(final QuotesDAO db, final Quote.Author author, @Nullable final String authorName) {
+        if (authorName != null && !authorName.equals(author.name())) {
+            db.updateAuthor(author.id(), authorName);
+        }
     }
 
     public record MemberLike(String name, String avatar, Color color) {
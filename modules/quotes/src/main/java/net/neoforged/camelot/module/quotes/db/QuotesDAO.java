@@ -1,5 +1,7 @@
 package net.neoforged.camelot.module.quotes.db;
 
+import net.neoforged.camelot.db.api.Cached;
+import net.neoforged.camelot.db.api.InvalidatesCache;
 import net.neoforged.camelot.db.api.StringSearch;
 import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
 import org.jdbi.v3.sqlobject.customizer.Bind;
@@ -25,12 +27,21 @@ public interface QuotesDAO extends Transactional<QuotesDAO> {
     @SqlQuery(SELECT_QUOTE + " where quotes.guild = ? order by random() limit 1")
     Quote getRandomQuote(long guild);
 
-    @SqlQuery(SELECT_QUOTE + " where quotes.guild = :guild limit :limit offset :from")
-    List<Quote> getQuotes(@Bind("guild") long guild, @Bind("from") int offset, @Bind("limit") int limit);
+    default List<Quote> getQuotes(long guild, int offset, int limit) {
+        return getQuotes(guild, Long.MIN_VALUE, offset, limit);
+    }
+
+    @SqlQuery(SELECT_QUOTE + " where quotes.guild = :guild and quotes.id > :after order by quotes.id limit :limit offset :from")
+    List<Quote> getQuotes(@Bind("guild") long guild, @Bind("after") long after, @Bind("from") int offset, @Bind("limit") int limit);
 
     default List<Quote> findQuotes(long guild, @Nullable StringSearch filter, @Nullable UserSearch userSearch, int offset, int limit) {
+        return findQuotes(guild, filter, userSearch, Long.MIN_VALUE, offset, limit);
+    }
+
+    default List<Quote> findQuotes(long guild, @Nullable StringSearch filter, @Nullable UserSearch userSearch, long after, int offset, int limit) {
         final Map<String, Object> arguments = new HashMap<>();
         arguments.put("guild", guild);
+        arguments.put("after", after);
         arguments.put("limit", limit);
         arguments.put("from", offset);
         final StringBuilder query = new StringBuilder(SELECT_QUOTE)
@@ -54,7 +65,7 @@ public interface QuotesDAO extends Transactional<QuotesDAO> {
             }
         }
 
-        query.append(" limit :limit offset :from");
+        query.append(" and quotes.id > :after order by quotes.id limit :limit offset :from");
         return withHandle(h -> {
             final var q = h.createQuery(query.toString());
             arguments.forEach(q::bind);
@@ -62,6 +73,7 @@ public interface QuotesDAO extends Transactional<QuotesDAO> {
         });
     }
 
+    @Cached
     @SqlQuery("select count(*) from quotes where guild = ?")
     int getQuoteAmount(long guild);
 
@@ -82,11 +94,13 @@ public interface QuotesDAO extends Transactional<QuotesDAO> {
                 query.append(" and quotes.quote like ?");
                 arguments.add(filter.asQuery());
             }
+            query.append(" where quote_authors.guild = ?");
+            arguments.add(guild);
             if (userSearch.isId()) {
-                query.append(" where uid = ?");
+                query.append(" and uid = ?");
                 arguments.add(Long.parseLong(userSearch.search()));
             } else {
-                query.append(" where name like ?");
+                query.append(" and name like ?");
                 arguments.add(StringSearch.contains(userSearch.search()));
             }
         }
@@ -102,6 +116,7 @@ public interface QuotesDAO extends Transactional<QuotesDAO> {
 
     record UserSearch(String search, boolean isId) {}
 
+    @InvalidatesCache
     default int insertQuote(long guild, int authorId, String quote, @Nullable String context, @Nullable Long quoter, @Nullable String message) {
         return withHandle(h -> h.createUpdate("insert into quotes(guild, author, quote, context, quoter, message) values (?, ?, ?, ?, ?, ?) returning id")
                 .bind(0, guild).bind(1, authorId)
@@ -110,6 +125,7 @@ public interface QuotesDAO extends Transactional<QuotesDAO> {
                 .execute((stmt, _) -> stmt.get().getResultSet().getInt("id")));
     }
 
+    @InvalidatesCache
     default int insertQuote(long guild, int authorId, String quote, @Nullable String context, @Nullable Long quoter, @Nullable String message, int id) {
         return withHandle(h -> h.createUpdate("insert into quotes(guild, author, quote, context, quoter, message, id) values (?, ?, ?, ?, ?, ?, ?) returning id")
                 .bind(0, guild).bind(1, authorId)
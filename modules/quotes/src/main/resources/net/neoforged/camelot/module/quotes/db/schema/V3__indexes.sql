@@ -0,0 +1,7 @@
+-- quotes are always listed per guild, and are cascade-deleted with their author --
+create index quotes_guild on quotes (guild);
+create index quotes_author on quotes (author);
+
+-- authors are looked up by name or by user in a guild --
+create index quote_authors_guild_name on quote_authors (guild, name);
+create index quote_authors_guild_uid on quote_authors (guild, uid);
@@ -61,12 +61,12 @@ public class RemindCommand extends SlashCommand {
             try {
                 final var time = DateUtils.getDurationFromInput(event.getOption("time", "", OptionMapping::getAsString));
                 final var remTime = Instant.now().plus(time);
-                BotMain.getModule(RemindersModule.class).db().useExtension(RemindersDAO.class, db -> db.insertReminder(
-                        userId, event.isFromType(ChannelType.PRIVATE) ? 0 : event.getChannel().getIdLong(), remTime.getEpochSecond(), event.getOption("content", OptionMapping::getAsString)
-                ));
-                event.deferReply().setContent("Successfully scheduled reminder on %s (%s)!".formatted(TimeFormat.DATE_TIME_LONG.format(remTime), TimeFormat.RELATIVE.format(remTime)))
-                        .addComponents(ActionRow.of(DismissListener.createDismissButton()))
-                        .queue();
+                BotMain.getModule(RemindersModule.class).insertReminder(event, false,
+                        userId, event.isFromType(ChannelType.PRIVATE) ? 0 : event.getChannel().getIdLong(), remTime, event.getOption("content", OptionMapping::getAsString),
+                        new MessageEditBuilder()
+                                .setContent("Successfully scheduled reminder on %s (%s)!".formatted(TimeFormat.DATE_TIME_LONG.format(remTime), TimeFormat.RELATIVE.format(remTime)))
+                                .setComponents(ActionRow.of(DismissListener.createDismissButton()))
+                                .build());
             } catch (NumberFormatException | IndexOutOfBoundsException e) {
                 event.deferReply(true).setContent("Invalid time provided!").queue();
             }
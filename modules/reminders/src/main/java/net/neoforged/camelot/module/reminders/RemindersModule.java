@@ -8,7 +8,6 @@ import com.jagrosh.jdautilities.command.MessageContextMenu;
 import com.jagrosh.jdautilities.command.MessageContextMenuEvent;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.components.actionrow.ActionRow;
 import net.dv8tion.jda.api.components.buttons.Button;
 import net.dv8tion.jda.api.components.buttons.ButtonStyle;
@@ -21,14 +20,16 @@ import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.entities.emoji.Emoji;
 import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
-import net.dv8tion.jda.api.hooks.EventListener;
 import net.dv8tion.jda.api.interactions.InteractionContextType;
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
 import net.dv8tion.jda.api.interactions.modals.ModalMapping;
 import net.dv8tion.jda.api.modals.Modal;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.utils.TimeFormat;
 import net.dv8tion.jda.api.utils.messages.MessageCreateBuilder;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
+import net.dv8tion.jda.api.utils.messages.MessageEditBuilder;
+import net.dv8tion.jda.api.utils.messages.MessageEditData;
 import net.neoforged.camelot.BotMain;
 import net.neoforged.camelot.ModuleProvider;
 import net.neoforged.camelot.ap.RegisterCamelotModule;
@@ -42,6 +43,7 @@ import net.neoforged.camelot.module.reminders.db.Reminder;
 import net.neoforged.camelot.module.reminders.db.RemindersDAO;
 import net.neoforged.camelot.util.Emojis;
 import net.neoforged.camelot.util.Utils;
+import net.neoforged.camelot.util.jda.EventRouter;
 
 import java.awt.Color;
 import java.time.Duration;
@@ -133,24 +135,19 @@ public class RemindersModule extends CamelotModule.WithDatabase<Reminders> {
 
     @Override
     public void setup(JDA jda) {
-        jda.addEventListener(((EventListener) (gevent) -> {
-            if (gevent instanceof ModalInteractionEvent event) {
-                var split = event.getModalId().split("/", 2);
-                if (split[0].equals(BASE_REMIND_MESSAGE)) {
-                    var msgId = split[1];
-                    var url = "https://discord.com/channels/" + event.getGuild().getId() + "/" + event.getChannel().getId() + "/" + msgId;
-                    final var time = DateUtils.getDurationFromInput(event.getValue("time").getAsString());
-                    final var remTime = Instant.now().plus(time);
-                    db().useExtension(RemindersDAO.class, db -> db.insertReminder(
-                            event.getUser().getIdLong(), event.getChannel().getIdLong(), remTime.getEpochSecond(),
-                            (url + " " + Optional.ofNullable(event.getValue("text")).map(ModalMapping::getAsString).orElse("")).trim()
-                    ));
-                    event.deferReply().setContent("> -# Reminder for " + url + "\nSuccessfully scheduled reminder on %s (%s)!".formatted(TimeFormat.DATE_TIME_LONG.format(remTime), TimeFormat.RELATIVE.format(remTime)))
-                            .addComponents(ActionRow.of(DismissListener.createDismissButton()))
-                            .queue();
-                }
-            }
-        }));
+        bot().interactions().claim(BASE_REMIND_MESSAGE + "/", ModalInteractionEvent.class, event -> {
+            var msgId = event.getModalId().substring(BASE_REMIND_MESSAGE.length() + 1);
+            var url = "https://discord.com/channels/" + event.getGuild().getId() + "/" + event.getChannel().getId() + "/" + msgId;
+            final var time = DateUtils.getDurationFromInput(event.getValue("time").getAsString());
+            final var remTime = Instant.now().plus(time);
+            insertReminder(event, false,
+                    event.getUser().getIdLong(), event.getChannel().getIdLong(), remTime,
+                    (url + " " + Optional.ofNullable(event.getValue("text")).map(ModalMapping::getAsString).orElse("")).trim(),
+                    new MessageEditBuilder()
+                            .setContent("> -# Reminder for " + url + "\nSuccessfully scheduled reminder on %s (%s)!".formatted(TimeFormat.DATE_TIME_LONG.format(remTime), TimeFormat.RELATIVE.format(remTime)))
+                            .setComponents(ActionRow.of(DismissListener.createDismissButton()))
+                            .build());
+        });
 
         db().useExtension(RemindersDAO.class, db -> db.getAllReminders()
                 .forEach(reminder -> {
@@ -164,12 +161,9 @@ public class RemindersModule extends CamelotModule.WithDatabase<Reminders> {
     }
 
     @Override
-    public void registerListeners(JDABuilder builder) {
-        builder.addEventListeners((EventListener) (gevent) -> {
-            if (!(gevent instanceof ButtonInteractionEvent event)) return;
-            if (event.getButton().getCustomId() == null || !event.getButton().getCustomId().startsWith(SNOOZE_BUTTON_ID)) return;
-
-            final int snoozeSecs = Integer.parseInt(event.getButton().getCustomId().substring(SNOOZE_BUTTON_ID.length() + 1));
+    public void registerListeners(EventRouter router) {
+        bot().interactions().claim(SNOOZE_BUTTON_ID + "-", ButtonInteractionEvent.class, event -> {
+            final int snoozeSecs = Integer.parseInt(event.getComponentId().substring(SNOOZE_BUTTON_ID.length() + 1));
             final Reminder reminder = snoozable.getIfPresent(event.getMessage().getIdLong());
             if (reminder == null) {
                 event.reply("This button has expired!").setEphemeral(true).queue();
@@ -183,19 +177,37 @@ public class RemindersModule extends CamelotModule.WithDatabase<Reminders> {
 
             final Instant offset = Instant.now().plusSeconds(snoozeSecs);
             snoozable.invalidate(event.getMessage().getIdLong());
-            db().useExtension(RemindersDAO.class, db -> db.insertReminder(
-                    reminder.user(), reminder.channel(), offset.getEpochSecond(), reminder.reminder()
-            ));
-            event.reply("Successfully snoozed reminder until %s (%s)!".formatted(TimeFormat.DATE_TIME_LONG.format(offset), TimeFormat.RELATIVE.format(offset)))
-                    .setEphemeral(true).queue();
+            insertReminder(event, true, reminder.user(), reminder.channel(), offset, reminder.reminder(),
+                    MessageEditData.fromContent("Successfully snoozed reminder until %s (%s)!".formatted(TimeFormat.DATE_TIME_LONG.format(offset), TimeFormat.RELATIVE.format(offset))));
         });
     }
 
+    /**
+     * Queue a new reminder, and reply to the given {@code interaction} once the reminder has been committed.
+     * The reply is deferred until then, and replaced with an error if the reminder could not be saved.
+     *
+     * @param interaction the interaction to reply to
+     * @param ephemeral   whether the reply should be ephemeral
+     * @param success     the reply to send once the reminder has been committed
+     */
+    public void insertReminder(IReplyCallback interaction, boolean ephemeral, long user, long channel, Instant time, String reminder, MessageEditData success) {
+        interaction.deferReply(ephemeral).queue();
+        writes().useExtension(RemindersDAO.class, db -> db.insertReminder(user, channel, time.getEpochSecond(), reminder))
+                .whenComplete((_, exception) -> {
+                    if (exception == null) {
+                        interaction.getHook().editOriginal(success).queue();
+                    } else {
+                        logger.error("Failed to save reminder of user {}: ", user, exception);
+                        interaction.getHook().editOriginal("Failed to schedule reminder!").queue();
+                    }
+                });
+    }
+
     public void run(int reminderId) {
         final var reminder = db().withExtension(RemindersDAO.class, db -> db.getReminderById(reminderId));
         if (reminder == null) return;
 
-        BotMain.get().retrieveUserById(reminder.user())
+        BotMain.shards().retrieveUserById(reminder.user())
             .onErrorMap(err -> null)
             .submit()
             .thenCompose(user -> {
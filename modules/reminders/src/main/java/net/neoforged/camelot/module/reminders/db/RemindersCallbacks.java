@@ -13,11 +13,13 @@ import java.util.concurrent.TimeUnit;
 public class RemindersCallbacks {
     /**
      * A callback that is called when a new reminder is added to the database.
-     * This callback will schedule the reminder to the {@link RemindersModule#EXECUTOR}.
+     * This callback will schedule the reminder once it has been committed.
      */
     @ExecutionCallback(methodName = "insertReminder", phase = ExecutionCallback.Phase.POST)
     public static void onReminderAdded(RemindersDAO dao, long user, long channel, long time, String reminder) {
         final int id = dao.getHandle().createQuery("select max(id) from reminders").execute((statement, ctx) -> statement.get().getResultSet().getInt(1));
-        BotMain.EXECUTOR.schedule(() -> BotMain.getModule(RemindersModule.class).run(id), time - Instant.now().getEpochSecond(), TimeUnit.SECONDS);
+        final RemindersModule module = BotMain.getModule(RemindersModule.class);
+        // The reminder is inserted through the write queue, so it is only visible to other connections once the batch is committed
+        module.writes().flush().thenRun(() -> BotMain.EXECUTOR.schedule(() -> module.run(id), time - Instant.now().getEpochSecond(), TimeUnit.SECONDS));
     }
 }
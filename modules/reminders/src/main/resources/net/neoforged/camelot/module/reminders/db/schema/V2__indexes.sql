@@ -0,0 +1 @@
+create index reminders_user on reminders (user);
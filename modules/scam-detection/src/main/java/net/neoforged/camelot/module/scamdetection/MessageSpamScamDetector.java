@@ -67,7 +67,7 @@ public final class MessageSpamScamDetector extends ScamDetector {
             var itr = recentMessages.entrySet().iterator();
             while (itr.hasNext()) {
                 var entry = itr.next();
-                var guild = jda.getGuildById(entry.getKey().guild());
+                var guild = jda.getShardManager().getGuildById(entry.getKey().guild());
                 if (guild == null) continue;
 
                 synchronized (entry.getValue()) {
@@ -2,7 +2,6 @@ package net.neoforged.camelot.module.scamdetection;
 
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.components.actionrow.ActionRow;
 import net.dv8tion.jda.api.entities.Guild;
@@ -12,7 +11,7 @@ import net.dv8tion.jda.api.entities.UserSnowflake;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import net.dv8tion.jda.api.events.guild.GuildBanEvent;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
-import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.utils.FileUpload;
 import net.dv8tion.jda.api.utils.messages.MessageEditBuilder;
@@ -24,6 +23,7 @@ import net.neoforged.camelot.api.config.type.Options;
 import net.neoforged.camelot.api.config.type.entity.ChannelSet;
 import net.neoforged.camelot.config.module.ScamDetection;
 import net.neoforged.camelot.module.api.CamelotModule;
+import net.neoforged.camelot.util.jda.EventRouter;
 
 import java.awt.Color;
 import java.net.URI;
@@ -78,18 +78,11 @@ public class ScamDetectionModule extends CamelotModule.Base<ScamDetection> {
     }
 
     @Override
-    public void registerListeners(JDABuilder jda) {
-        jda.addEventListeners((EventListener) gevent -> {
-            switch (gevent) {
-                case ButtonInteractionEvent event -> handleButton(event);
-
-                // Mark any scam alerts of the banned user as handled
-                case GuildBanEvent event -> handleBan(event);
-
-                default -> {
-                }
-            }
-        }, this.handler);
+    public void registerListeners(EventRouter router) {
+        bot().interactions().claim(BUTTON_PREFIX, ButtonInteractionEvent.class, this::handleButton);
+        // Mark any scam alerts of the banned user as handled
+        router.on("scam detection bans", GuildBanEvent.class, this::handleBan);
+        router.listen("scam detection", this.handler, MessageReceivedEvent.class);
     }
 
     @Override
@@ -100,7 +93,6 @@ public class ScamDetectionModule extends CamelotModule.Base<ScamDetection> {
     }
 
     private void handleButton(ButtonInteractionEvent event) {
-        if (!event.getComponentId().startsWith(BUTTON_PREFIX)) return;
         assert event.getMember() != null;
 
         var split = event.getComponentId().split("/", 3);
@@ -0,0 +1,27 @@
+package net.neoforged.camelot.module.stickyroles;
+
+import net.neoforged.camelot.BotMain;
+import net.neoforged.camelot.db.api.ExecutionCallback;
+
+import java.util.stream.LongStream;
+
+/**
+ * Callbacks for {@link StickyRolesDAO}, keeping the {@linkplain StickyRolesModule#getConfiguration(long) in-memory configurations} up to date.
+ */
+public class StickyRolesCallbacks {
+    @ExecutionCallback(methodName = "updateConfiguration")
+    public static void onConfigurationUpdated(StickyRolesDAO dao, long guild, boolean whitelist, LongStream roles) {
+        // The roles stream was consumed by the update, so read the stored configuration back
+        final var config = dao.getHandle().createQuery("select whitelist, roles from configured_roles where guild = ?")
+                .bind(0, guild)
+                .mapTo(StickyRolesDAO.Configuration.class)
+                .findOne()
+                .orElse(null);
+        BotMain.getModule(StickyRolesModule.class).configurationChanged(guild, config);
+    }
+
+    @ExecutionCallback(methodName = "clearConfiguration")
+    public static void onConfigurationCleared(StickyRolesDAO dao, long guild) {
+        BotMain.getModule(StickyRolesModule.class).configurationChanged(guild, null);
+    }
+}
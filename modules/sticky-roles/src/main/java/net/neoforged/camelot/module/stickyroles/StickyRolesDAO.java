@@ -1,6 +1,11 @@
 package net.neoforged.camelot.module.stickyroles;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.dv8tion.jda.api.entities.Role;
+import net.neoforged.camelot.db.api.Cached;
+import net.neoforged.camelot.db.api.InvalidatesCache;
+import net.neoforged.camelot.db.api.RegisterExecutionCallbacks;
 import org.jdbi.v3.core.mapper.RowMapper;
 import org.jdbi.v3.core.statement.StatementContext;
 import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
@@ -15,11 +20,13 @@ import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 @RegisterRowMapper(StickyRolesDAO.Configuration.Mapper.class)
+@RegisterExecutionCallbacks(StickyRolesCallbacks.class)
 public interface StickyRolesDAO extends Transactional<StickyRolesDAO> {
     /**
      * Inserts an entry for the given user and role into the table.
@@ -68,9 +75,23 @@ public interface StickyRolesDAO extends Transactional<StickyRolesDAO> {
     void clear(@Bind("user") long userId, @Bind("guild") long guildId);
 
     @Nullable
+    @Cached(invalidatedBy = {"updateConfiguration", "clearConfiguration"})
     @SqlQuery("select whitelist, roles from configured_roles where guild = ?")
     Configuration getConfiguration(long guild);
 
+    /**
+     * {@return the configurations of all guilds, by guild ID}
+     */
+    default Long2ObjectMap<Configuration> getAllConfigurations() {
+        final Configuration.Mapper mapper = new Configuration.Mapper();
+        final Long2ObjectMap<Configuration> configurations = new Long2ObjectOpenHashMap<>();
+        getHandle().createQuery("select whitelist, roles, guild from configured_roles")
+                .map((rs, ctx) -> Map.entry(rs.getLong(3), mapper.map(rs, ctx)))
+                .forEach(entry -> configurations.put((long) entry.getKey(), entry.getValue()));
+        return configurations;
+    }
+
+    @InvalidatesCache
     default void updateConfiguration(long guild, boolean whitelist, LongStream roles) {
         try (var stmt = getHandle().createUpdate("insert or replace into configured_roles values (?, ?, ?)")
                 .bind(0, guild).bind(1, whitelist).bind(2, roles.mapToObj(String::valueOf)
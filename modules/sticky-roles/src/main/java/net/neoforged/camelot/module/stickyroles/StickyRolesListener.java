@@ -20,6 +20,9 @@ public record StickyRolesListener(Jdbi database) implements EventListener {
     }
 
     private void onLeave(GuildMemberRemoveEvent event) {
+        // The roles of members that were not cached when they left are unknown
+        if (event.getMember() == null) return;
+
         database.useExtension(StickyRolesDAO.class, db -> {
             var config = db.getConfiguration(event.getGuild().getIdLong());
             if (config == null) return;
@@ -1,24 +1,79 @@
 
 package net.neoforged.camelot.module.stickyroles;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberJoinEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
 import net.neoforged.camelot.ModuleProvider;
 import net.neoforged.camelot.ap.RegisterCamelotModule;
 import net.neoforged.camelot.config.module.StickyRoles;
 import net.neoforged.camelot.module.BuiltInModule;
 import net.neoforged.camelot.module.api.CamelotModule;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
 
 @RegisterCamelotModule
 public class StickyRolesModule extends CamelotModule.WithDatabase<StickyRoles> {
+    /**
+     * The configuration of each guild with sticky roles enabled, so that the member cache policy never queries the database on the gateway thread.
+     */
+    private final Long2ObjectMap<StickyRolesDAO.Configuration> configurations = Long2ObjectMaps.synchronize(new Long2ObjectOpenHashMap<>());
+
     public StickyRolesModule(ModuleProvider.Context context) {
         super(context, StickyRoles.class);
         accept(BuiltInModule.CONFIGURATION_COMMANDS, builder ->
                 builder.accept(new StickyRolesConfigCommand(db().onDemand(StickyRolesDAO.class))));
     }
 
+    @Override
+    public void init() {
+        super.init();
+        configurations.putAll(db().withExtension(StickyRolesDAO.class, StickyRolesDAO::getAllConfigurations));
+    }
+
+    /**
+     * {@return the sticky roles configuration of the guild with the given ID, or {@code null} if sticky roles are not enabled in the guild}
+     */
+    @Nullable
+    public StickyRolesDAO.Configuration getConfiguration(long guild) {
+        return configurations.get(guild);
+    }
+
+    /**
+     * Update the in-memory configuration of the guild with the given ID, after it changed in the database.
+     */
+    void configurationChanged(long guild, @Nullable StickyRolesDAO.Configuration configuration) {
+        if (configuration == null) {
+            configurations.remove(guild);
+        } else {
+            configurations.put(guild, configuration);
+        }
+    }
+
     @Override
     public void setup(JDA jda) {
-        jda.addEventListener(new StickyRolesListener(db()));
+        bot().events().listen("sticky roles", new StickyRolesListener(db()), GuildMemberJoinEvent.class, GuildMemberRemoveEvent.class);
+    }
+
+    @Override
+    public Set<GatewayIntent> getRequiredIntents() {
+        return Set.of(GatewayIntent.GUILD_MEMBERS);
+    }
+
+    @Override
+    public MemberCachePolicy getMemberCachePolicy() {
+        // The roles of a member are only known when they leave if the member is cached, so keep the members with roles that stick
+        return member -> {
+            if (member.getRoles().isEmpty()) return false;
+            final var config = getConfiguration(member.getGuild().getIdLong());
+            return config != null && config.rolesToStick(member.getRoles().stream()).findAny().isPresent();
+        };
     }
 
     @Override
@@ -0,0 +1,2 @@
+-- the persisted roles are queried and cleared per user in a guild --
+create index persisted_roles_user_guild on persisted_roles (user, guild);
@@ -1,12 +1,13 @@
 package net.neoforged.camelot.module.threadpings;
 
-import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.channel.ChannelCreateEvent;
 import net.neoforged.camelot.ModuleProvider;
 import net.neoforged.camelot.ap.RegisterCamelotModule;
 import net.neoforged.camelot.api.config.ConfigOption;
 import net.neoforged.camelot.config.module.ThreadPings;
 import net.neoforged.camelot.module.api.CamelotModule;
+import net.neoforged.camelot.util.jda.EventRouter;
 
 import java.util.List;
 
@@ -39,8 +40,8 @@ public class ThreadPingsModule extends CamelotModule.Base<ThreadPings> {
     }
 
     @Override
-    public void registerListeners(JDABuilder builder) {
-        builder.addEventListeners(new ThreadPingsListener(pings));
+    public void registerListeners(EventRouter router) {
+        router.listen("thread pings", new ThreadPingsListener(pings), ChannelCreateEvent.class);
     }
 
 }
@@ -2,11 +2,24 @@ package net.neoforged.camelot;
 
 import groovy.lang.GroovyShell;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.update.ChannelUpdateParentEvent;
+import net.dv8tion.jda.api.events.guild.GuildAuditLogEntryCreateEvent;
+import net.dv8tion.jda.api.events.guild.GuildReadyEvent;
+import net.dv8tion.jda.api.events.guild.GuildUnbanEvent;
+import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.GenericComponentInteractionCreateEvent;
 import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.interactions.Interaction;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
 import net.dv8tion.jda.api.utils.MemberCachePolicy;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
 import net.neoforged.camelot.api.config.ConfigManager;
@@ -15,6 +28,7 @@ import net.neoforged.camelot.api.config.storage.ConfigStorage;
 import net.neoforged.camelot.api.config.type.OptionRegistrar;
 import net.neoforged.camelot.api.config.type.Options;
 import net.neoforged.camelot.commands.Commands;
+import net.neoforged.camelot.commands.InteractiveCommand;
 import net.neoforged.camelot.config.CamelotConfig;
 import net.neoforged.camelot.config.module.ModuleConfiguration;
 import net.neoforged.camelot.configuration.ConfigMigrator;
@@ -27,6 +41,10 @@ import net.neoforged.camelot.services.CamelotService;
 import net.neoforged.camelot.services.ServiceRegistrar;
 import net.neoforged.camelot.util.ModerationUtil;
 import net.neoforged.camelot.util.jda.ComponentManager;
+import net.neoforged.camelot.util.jda.EventLanes;
+import net.neoforged.camelot.util.jda.EventRouter;
+import net.neoforged.camelot.util.jda.InteractionRouter;
+import net.neoforged.camelot.util.jda.MemberResolver;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.customizers.ImportCustomizer;
 import org.slf4j.Logger;
@@ -35,42 +53,77 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class Bot {
     private static final Logger LOGGER = LoggerFactory.getLogger(Bot.class);
+    /**
+     * The maximum amount of users whose values each user config option caches.
+     */
+    private static final int MAX_CACHED_USER_CONFIGS = 10_000;
 
     /**
      * The loaded and enabled modules of the bot.
      */
     private final Map<Class<?>, CamelotModule<?>> modules;
+    /**
+     * The loaded modules, sorted so that each module comes after its dependencies.
+     */
+    private final List<CamelotModule<?>> moduleOrder;
     private final CamelotConfig config;
-    private final JDA jda;
+    private final ShardManager shards;
+    /**
+     * The IDs of the shards run by this bot, in ascending order.
+     */
+    private final List<Integer> shardIds;
+    /**
+     * The shard with the lowest ID, resolved again only if it was shut down (e.g. because it was restarted).
+     */
+    private volatile JDA lowestShard;
 
     public final ConfigOption<Guild, String> commandPrefix;
+    private final ConfigManager<Guild> guildConfigs;
 
     private final Map<Class<? extends CamelotService>, List<CamelotService>> services;
 
     private final ModerationUtil moderation;
     private final ComponentManager components;
+    private final EventRouter events;
+    private final InteractionRouter interactions;
+    private final MemberResolver members = new MemberResolver();
 
     public Bot(Consumer<Bot> immediate, Path configPath, ConfigStorage<Guild> configStorage, ConfigStorage<User> userConfigStorage, List<ModuleProvider> moduleProviders) {
         immediate.accept(this);
 
-        var guildConfigs = ConfigManager.create(configStorage, Guild::getIdLong);
-        var userConfigs = ConfigManager.create(userConfigStorage, User::getIdLong);
+        var guildConfigs = ConfigManager.create("guild-config", configStorage, Guild::getIdLong, Integer.MAX_VALUE, Interaction::getGuild);
+        this.guildConfigs = guildConfigs;
+        // Only a few users interact with the bot at a time, so their values do not need to stay cached forever
+        var userConfigs = ConfigManager.create("user-config", userConfigStorage, User::getIdLong, MAX_CACHED_USER_CONFIGS, Interaction::getUser);
 
         this.commandPrefix = guildConfigs
                 .registrar()
@@ -163,10 +216,11 @@ public class Bot {
                 throw new NullPointerException("Module " + module.id() + " requires module " + dep + " which is not enabled!");
             }
         }));
+        this.moduleOrder = sortModules(this.modules.values());
 
-        LOGGER.info("Loaded {} modules: {}", this.modules.size(), this.modules.values().stream().map(CamelotModule::id).toList());
+        LOGGER.info("Loaded {} modules: {}", this.modules.size(), this.moduleOrder.stream().map(CamelotModule::id).toList());
 
-        forEachModule(CamelotModule::init);
+        initModules();
 
         Map<Class<? extends CamelotService>, List<CamelotService>> services = new IdentityHashMap<>();
         ServiceRegistrar registrar = new ServiceRegistrar() {
@@ -186,39 +240,106 @@ public class Bot {
 
         this.moderation = new ModerationUtil(this, Database.main().onDemand(PendingUnbansDAO.class));
         this.components = new ComponentManager();
-
-        final JDABuilder botBuilder = JDABuilder
-                .create(CamelotConfig.getInstance().getToken(), BotMain.INTENTS)
-                .disableCache(CacheFlag.VOICE_STATE, CacheFlag.ACTIVITY, CacheFlag.CLIENT_STATUS, CacheFlag.ONLINE_STATUS, CacheFlag.SCHEDULED_EVENTS)
+        if (config.isGuildEventLanes()) {
+            final EventLanes lanes = new EventLanes(config.getMaxQueuedGuildEvents());
+            this.events = new EventRouter(lanes);
+            BotMain.EXECUTOR.scheduleAtFixedRate(lanes::logStats, 5, 5, TimeUnit.MINUTES);
+        } else {
+            this.events = new EventRouter();
+        }
+        BotMain.EXECUTOR.scheduleAtFixedRate(events::logStats, 5, 5, TimeUnit.MINUTES);
+        this.interactions = new InteractionRouter();
+        BotMain.EXECUTOR.scheduleAtFixedRate(interactions::logStats, 5, 5, TimeUnit.MINUTES);
+
+        // Only subscribe to the events and cache the entities the enabled modules need
+        final EnumSet<GatewayIntent> intents = EnumSet.copyOf(BotMain.INTENTS);
+        final EnumSet<CacheFlag> cacheFlags = EnumSet.copyOf(BotMain.CACHE_FLAGS);
+        forEachModule(module -> {
+            intents.addAll(module.getRequiredIntents());
+            cacheFlags.addAll(module.getRequiredCacheFlags());
+        });
+        // The voice states tell which members are in voice channels, who always stay in a bounded member cache
+        if (config.getMaxCachedMembers() >= 0) cacheFlags.add(CacheFlag.VOICE_STATE);
+        for (final CacheFlag flag : cacheFlags) {
+            if (flag.getRequiredIntent() != null) intents.add(flag.getRequiredIntent());
+        }
+        // Without member events, members would never be removed from an unbounded cache
+        if (config.getMaxCachedMembers() < 0) intents.add(GatewayIntent.GUILD_MEMBERS);
+        LOGGER.info("Using gateway intents {} and cache flags {}", intents, cacheFlags);
+
+        final DefaultShardManagerBuilder botBuilder = DefaultShardManagerBuilder
+                .create(CamelotConfig.getInstance().getToken(), intents)
+                .setShardsTotal(config.getShardsTotal())
+                .disableCache(EnumSet.complementOf(cacheFlags))
+                .enableCache(cacheFlags)
                 .setActivity(Activity.customStatus("Listening for your commands"))
-                .setMemberCachePolicy(MemberCachePolicy.ALL)
-                .addEventListeners(guildConfigs, userConfigs)
-                .addEventListeners(components);
+                .setMemberCachePolicy(memberCachePolicy(config))
+                // Only load all members on startup if they are all going to stay cached
+                .setChunkingFilter(config.getMaxCachedMembers() < 0 ? ChunkingFilter.ALL : ChunkingFilter.NONE)
+                // All shards share the same router, so handlers are registered once for the whole bot
+                .setEventManagerProvider(_ -> events);
+        if (config.getShards() != null) {
+            botBuilder.setShards(config.getShards());
+        }
+
+        // Component and modal interactions are routed by the prefix of their ID
+        events.listen("interactions", interactions, GenericComponentInteractionCreateEvent.class, ModalInteractionEvent.class);
+
+        for (var configs : List.of(guildConfigs, userConfigs)) {
+            interactions.claim(configs.componentIdPrefix(), configs);
+            events.listen("config channel filters", configs, ChannelUpdateParentEvent.class, ChannelDeleteEvent.class);
+        }
+        // Load the configuration of each guild in bulk before its first messages arrive
+        events.on("config preload", GuildReadyEvent.class, ready -> guildConfigs.preload(ready.getGuild()));
+        interactions.claim(ComponentManager.ID_PREFIX, components);
 
-        forEachModule(module -> module.registerListeners(botBuilder));
+        forEachModule(module -> module.registerListeners(events));
 
         var commandClient = Commands.init(this, commandPrefix, guildConfigs, userConfigs);
-        botBuilder.addEventListeners(commandClient);
+        // The command client handles many unrelated events (ready, messages, interactions, guild joins...) so it receives all of them
+        events.listen("commands", commandClient, GenericEvent.class);
 
-        // A command implementing EventListener shall be treated as a listener
-        botBuilder.addEventListeners(Stream.concat(commandClient.getContextMenus().stream(), Stream.concat(
+        // An interactive command handles the interactions with the components whose ID starts with its base ID,
+        // and any other command implementing EventListener shall be treated as a listener of component and modal interactions
+        Stream.concat(commandClient.getContextMenus().stream(), Stream.concat(
                 commandClient.getSlashCommands().stream()
                         .flatMap(slash -> Stream.concat(Stream.of(slash), Arrays.stream(slash.getChildren()))),
                 commandClient.getCommands().stream()
                         .flatMap(text -> Stream.concat(Stream.of(text), Arrays.stream(text.getChildren())))
-        )).filter(EventListener.class::isInstance).distinct().toArray());
+        )).filter(EventListener.class::isInstance).distinct().forEach(command -> {
+            if (command instanceof InteractiveCommand interactive) {
+                interactions.claim(interactive.getBaseComponentId(), interactive);
+            } else {
+                events.listen(command.getClass().getSimpleName(), (EventListener) command,
+                        GenericComponentInteractionCreateEvent.class, ModalInteractionEvent.class);
+            }
+        });
 
-        botBuilder.addEventListeners(new ModerationListener(this));
+        events.listen("moderation", new ModerationListener(this), GuildAuditLogEntryCreateEvent.class);
 
-        jda = botBuilder.build();
+        shards = botBuilder.build();
+        // The shards are started one after the other, so they cannot be listed from the manager yet
+        shardIds = config.getShards() == null
+                ? IntStream.range(0, shards.getShardsTotal()).boxed().toList()
+                : config.getShards().stream().sorted().toList();
+        LOGGER.info("Running {} of {} shards: {}", shardIds.size(), shards.getShardsTotal(), shardIds);
+        lowestShard = resolveLowestShard();
 
-        var pendingUnbans = new PendingUnbansHandler(jda, Database.main().onDemand(PendingUnbansDAO.class));
-        jda.addEventListener(pendingUnbans);
-        BotMain.EXECUTOR.scheduleAtFixedRate(pendingUnbans, 1, 1, TimeUnit.MINUTES);
+        var pendingUnbans = new PendingUnbansHandler(Database.main().onDemand(PendingUnbansDAO.class));
+        events.listen("pending unbans", pendingUnbans, GuildUnbanEvent.class);
+        schedulePerShard(pendingUnbans, 1, 1, TimeUnit.MINUTES);
 
+        final JDA jda = jda();
         forEachModule(module -> module.setup(jda));
     }
 
+    /**
+     * {@return the manager of the guild configuration options}
+     */
+    public ConfigManager<Guild> guildConfigs() {
+        return guildConfigs;
+    }
+
     /**
      * Gets the loaded module of the given {@code type}, or {@code null} if the module is not enabled.
      */
@@ -232,10 +353,8 @@ public class Bot {
      * Accepts the given {@code consumer} on all loaded modules.
      */
     public void forEachModule(Consumer<? super CamelotModule<?>> consumer) {
-        if (modules == null) throw new IllegalStateException("Bot is not yet set up!");
-        modules.values().stream().sorted((o1, o2) ->
-                        o1.getDependencies().contains(o2.id()) ? -1 : (o2.getDependencies().contains(o1.id()) ? 1 : 0))
-                .forEach(consumer);
+        if (moduleOrder == null) throw new IllegalStateException("Bot is not yet set up!");
+        moduleOrder.forEach(consumer);
     }
 
     /**
@@ -247,12 +366,57 @@ public class Bot {
     }
 
     /**
-     * {@return the jda instance of this bot}
+     * {@return the shard of this bot with the lowest ID}
+     * Guilds are spread across shards, so entities should be looked up through {@link #shards()} instead.
      */
     public JDA jda() {
+        JDA jda = lowestShard;
+        if (jda.getStatus() == JDA.Status.SHUTDOWN) {
+            jda = lowestShard = resolveLowestShard();
+        }
         return jda;
     }
 
+    private JDA resolveLowestShard() {
+        return shards.getShardCache().stream()
+                .min(Comparator.comparingInt(shard -> shard.getShardInfo().getShardId()))
+                .orElseThrow(() -> new IllegalStateException("Bot has no running shard"));
+    }
+
+    /**
+     * {@return the manager of the shards run by this bot}
+     * Use this to look up guilds, channels and users, as the guild they belong to may be handled by any shard.
+     */
+    public ShardManager shards() {
+        return shards;
+    }
+
+    /**
+     * Schedule the given {@code task} to run periodically, once for each shard run by this bot, with the shard.
+     * <p>
+     * The runs of the different shards are spread evenly over the {@code period}, so that tasks iterating over the guilds of each shard
+     * do not all hit the Discord API at the same time. A run is skipped if its shard is not connected.
+     *
+     * @param task         the task to run with each shard
+     * @param initialDelay the delay before the first run of the task
+     * @param period       the period between two runs of the task for the same shard
+     * @param unit         the unit of the delay and period
+     */
+    public void schedulePerShard(Consumer<? super JDA> task, long initialDelay, long period, TimeUnit unit) {
+        final long periodNanos = unit.toNanos(period);
+        for (int i = 0; i < shardIds.size(); i++) {
+            final int shardId = shardIds.get(i);
+            final long offset = periodNanos * i / shardIds.size();
+            BotMain.EXECUTOR.scheduleAtFixedRate(() -> {
+                // Resolve the shard on every run as restarting a shard replaces its JDA instance
+                final JDA shard = shards.getShardById(shardId);
+                if (shard != null && shard.getStatus() == JDA.Status.CONNECTED) {
+                    task.accept(shard);
+                }
+            }, unit.toNanos(initialDelay) + offset, periodNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
     /**
      * {@return a utility class used to take moderation actions, while taking into account moderation action listener for logging purposes}
      * Modules should use this utility to moderate users, instead of doing it normally.
@@ -261,6 +425,28 @@ public class Bot {
         return moderation;
     }
 
+    /**
+     * {@return the router dispatching the events of the bot to the handlers registered for them}
+     */
+    public EventRouter events() {
+        return events;
+    }
+
+    /**
+     * {@return the router dispatching component and modal interactions by the prefix of their ID}
+     */
+    public InteractionRouter interactions() {
+        return interactions;
+    }
+
+    /**
+     * {@return the resolver of guild members}
+     * The member cache may only hold the active members of each guild, so members should be resolved through it instead of being looked up in the cache.
+     */
+    public MemberResolver members() {
+        return members;
+    }
+
     /**
      * {@return a utility class for creating Discord message components with lambda-based handlers}
      */
@@ -290,6 +476,100 @@ public class Bot {
         getServices(serviceType).forEach(consumer);
     }
 
+    /**
+     * {@return the policy deciding which members are cached, according to the given {@code config} and the needs of the modules}
+     */
+    private MemberCachePolicy memberCachePolicy(CamelotConfig config) {
+        if (config.getMaxCachedMembers() < 0) return MemberCachePolicy.ALL;
+
+        // Owners, moderators, members in voice channels and the members modules need always stay cached,
+        // the other members only while they are among the most recently active
+        MemberCachePolicy resident = MemberCachePolicy.OWNER
+                .or(MemberCachePolicy.VOICE)
+                .or(member -> member.hasPermission(Permission.MODERATE_MEMBERS));
+        for (final CamelotModule<?> module : moduleOrder) {
+            final MemberCachePolicy policy = module.getMemberCachePolicy();
+            if (policy != MemberCachePolicy.NONE) {
+                LOGGER.info("Module {} keeps the members it needs cached, on top of the {} most recently active members", module.id(), config.getMaxCachedMembers());
+                resident = resident.or(policy);
+            }
+        }
+        return resident.or(MemberCachePolicy.lru(config.getMaxCachedMembers()).unloadUnless(resident));
+    }
+
+    /**
+     * Initialises all modules, running the {@link CamelotModule#init() init} of every module as soon as the modules it
+     * depends on have been initialised. Independent modules (and as such their database migrations) are initialised concurrently.
+     */
+    private void initModules() {
+        final long start = System.nanoTime();
+        final Map<String, CompletableFuture<Void>> inits = new HashMap<>();
+        final Map<String, Long> timings = new ConcurrentHashMap<>();
+
+        try (final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("module-init-", 0).factory())) {
+            for (final CamelotModule<?> module : moduleOrder) {
+                // Modules are sorted, so the futures of the dependencies have already been created
+                final CompletableFuture<?>[] dependencies = module.getDependencies().stream()
+                        .map(inits::get)
+                        .toArray(CompletableFuture[]::new);
+                inits.put(module.id(), CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+                    final long moduleStart = System.nanoTime();
+                    try {
+                        module.init();
+                    } finally {
+                        timings.put(module.id(), System.nanoTime() - moduleStart);
+                    }
+                }, executor));
+            }
+
+            CompletableFuture.allOf(inits.values().toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw exception;
+        }
+
+        LOGGER.info("Initialised {} modules in {} ms (sequential total {} ms): {}",
+                moduleOrder.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                TimeUnit.NANOSECONDS.toMillis(timings.values().stream().mapToLong(Long::longValue).sum()),
+                timings.entrySet().stream()
+                        .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                        .map(e -> e.getKey() + "=" + TimeUnit.NANOSECONDS.toMillis(e.getValue()) + "ms")
+                        .collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Sort the given {@code modules} topologically, so that each module comes after the modules it depends on.
+     *
+     * @throws IllegalStateException if the dependencies of the modules are cyclic
+     */
+    private static List<CamelotModule<?>> sortModules(Collection<CamelotModule<?>> modules) {
+        final Map<String, CamelotModule<?>> byId = new LinkedHashMap<>();
+        modules.stream()
+                .sorted(Comparator.comparing(CamelotModule::id))
+                .forEach(module -> byId.put(module.id(), module));
+
+        final List<CamelotModule<?>> sorted = new ArrayList<>(byId.size());
+        final Set<String> visited = new HashSet<>(), visiting = new HashSet<>();
+        for (final CamelotModule<?> module : byId.values()) {
+            visitModule(module, byId, visited, visiting, sorted);
+        }
+        return List.copyOf(sorted);
+    }
+
+    private static void visitModule(CamelotModule<?> module, Map<String, CamelotModule<?>> byId, Set<String> visited, Set<String> visiting, List<CamelotModule<?>> sorted) {
+        if (visited.contains(module.id())) return;
+        if (!visiting.add(module.id())) {
+            throw new IllegalStateException("Module " + module.id() + " has a cyclic dependency chain: " + visiting);
+        }
+        for (final String dependency : module.getDependencies()) {
+            visitModule(byId.get(dependency), byId, visited, visiting, sorted);
+        }
+        visiting.remove(module.id());
+        visited.add(module.id());
+        sorted.add(module);
+    }
+
     private void loadConfig(Path config) {
         if (!Files.isRegularFile(config)) {
             LOGGER.warn("No camelot configuration found at {}", config.toAbsolutePath());
@@ -340,6 +620,7 @@ public class Bot {
         try {
             shell.evaluate(config.toFile());
             this.config.validate();
+            Database.statementMetrics().setSlowQueryThreshold(Duration.ofMillis(this.config.getSlowQueryThreshold()));
         } catch (Exception exception) {
             LOGGER.error("Failed to load configuration: ", exception);
             throw new RuntimeException("Failed to load config: ", exception);
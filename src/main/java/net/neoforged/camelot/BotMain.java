@@ -4,10 +4,13 @@ import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
 import net.dv8tion.jda.api.utils.messages.MessageRequest;
 import net.neoforged.camelot.api.config.storage.ConfigStorage;
 import net.neoforged.camelot.config.module.GHAuth;
 import net.neoforged.camelot.configuration.Common;
+import net.neoforged.camelot.db.impl.WriteQueue;
 import net.neoforged.camelot.db.transactionals.StatsDAO;
 import net.neoforged.camelot.module.StatsModule;
 import net.neoforged.camelot.module.api.CamelotModule;
@@ -28,9 +31,10 @@ import java.io.File;
 import java.net.http.HttpClient;
 import java.nio.file.Path;
 import java.time.Instant;
-import java.util.Arrays;
-import java.util.List;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -50,18 +54,24 @@ import java.util.concurrent.ScheduledExecutorService;
  */
 public class BotMain {
     /**
-     * Discord Gateway Intents used by the bot.
-     * These will probably be changed often, so they're prominent.
+     * Discord Gateway Intents always used by the bot.
+     * Modules request the other intents they need with {@link CamelotModule#getRequiredIntents()}.
      */
-    static final List<GatewayIntent> INTENTS = Arrays.asList(
+    public static final Set<GatewayIntent> INTENTS = Collections.unmodifiableSet(EnumSet.of(
             GatewayIntent.GUILD_MESSAGES,               // For receiving messages.
             GatewayIntent.MESSAGE_CONTENT,              // For reading messages.
-            GatewayIntent.GUILD_EXPRESSIONS,            // For reading emojis and stickers
-            GatewayIntent.GUILD_MESSAGE_REACTIONS,      // For reading message reactions. This should be removed after Actions are implemented.
-            GatewayIntent.GUILD_MEMBERS,                // For reading online members, such as for resolving moderators by ID.
             GatewayIntent.DIRECT_MESSAGES,              // For receiving direct messages.
             GatewayIntent.GUILD_MODERATION              // For receiving moderation-related events, such as bans, unbans and audit log changes.
-    );
+    ));
+
+    /**
+     * Cache flags always used by the bot. Any other cache flag is disabled, unless a module requests it with {@link CamelotModule#getRequiredCacheFlags()}.
+     */
+    public static final Set<CacheFlag> CACHE_FLAGS = Collections.unmodifiableSet(EnumSet.of(
+            CacheFlag.MEMBER_OVERRIDES,                 // For computing the permissions of members in channels.
+            CacheFlag.ROLE_TAGS,                        // For knowing which roles are managed by bots and integrations.
+            CacheFlag.FORUM_TAGS                        // For reading the tags of forum posts.
+    ));
 
     /**
      * The static {@link ScheduledExecutorService} for scheduling tasks.
@@ -103,19 +113,37 @@ public class BotMain {
     }
 
     /**
-     * Fetch the static instance of the bot stored in this class.
+     * Fetch a shard of the static instance of the bot stored in this class.
+     * Guilds are spread across shards, so use {@link #shards()} to look up guilds, channels and users.
+     *
+     * @see Bot#jda()
      */
     public static JDA get() {
         return instance.jda();
     }
 
     /**
-     * Returns the {@link #get() bot instance} and calls {@link JDA#awaitReady()} on it.
+     * Fetch the manager of the shards of the static instance of the bot stored in this class.
+     */
+    public static ShardManager shards() {
+        return instance.shards();
+    }
+
+    /**
+     * Returns the {@link #shards() shard manager} of the bot, after waiting for all of its shards to be {@link JDA#awaitReady() ready}.
      */
     @NotNull
-    public static JDA awaitReady() {
+    public static ShardManager awaitReady() {
         try {
-            return get().awaitReady();
+            final ShardManager shards = shards();
+            // Shards are only added to the cache once they start logging in, so wait until all of them have started
+            while (shards.getShardsQueued() > 0) {
+                Thread.sleep(1000);
+            }
+            for (final JDA shard : shards.getShards()) {
+                shard.awaitReady();
+            }
+            return shards;
         } catch (InterruptedException e) {
             Utils.sneakyThrow(e);
             return null; // should never get here
@@ -161,12 +189,16 @@ public class BotMain {
         MessageRequest.setDefaultMentionRepliedUser(false);
 
         final var configDb = Database.initialiseConfigConnection(Path.of("data/configuration.db"));
+        // Closing the pools checkpoints the WAL files back into the databases
+        Runtime.getRuntime().addShutdownHook(new Thread(Database::close, "database-shutdown"));
+
+        final var configWrites = WriteQueue.of(configDb);
 
         new Bot(
                 b -> instance = b,
                 cliConfig.config.toPath(),
-                ConfigStorage.sql(configDb, "guild_configuration", Guild::getId),
-                ConfigStorage.sql(configDb, "user_configuration", User::getId),
+                ConfigStorage.sql(configDb, "guild_configuration", Guild::getId, configWrites::use),
+                ConfigStorage.sql(configDb, "user_configuration", User::getId, configWrites::use),
                 ServiceLoader.load(ModuleProvider.class)
                         .stream().map(ServiceLoader.Provider::get)
                         .toList()
@@ -184,6 +216,16 @@ public class BotMain {
         }
     }
 
+    /**
+     * Queue a write to the stats extension of the given {@code type}.
+     */
+    public static <T extends StatsDAO> void recordStats(Class<T> type, ExtensionConsumer<T, RuntimeException> dao) {
+        var module = getModule(StatsModule.class);
+        if (module != null) {
+            module.record(type, dao);
+        }
+    }
+
     /**
      * {@return the time at which the bot was started}
      */
@@ -4,9 +4,14 @@ import com.google.common.collect.ListMultimap;
 import com.google.common.collect.MultimapBuilder;
 import com.google.common.primitives.Doubles;
 import net.neoforged.camelot.configuration.Common;
+import net.neoforged.camelot.db.api.CacheConfig;
 import net.neoforged.camelot.db.api.CallbackConfig;
 import net.neoforged.camelot.db.api.StringSearch;
+import net.neoforged.camelot.db.impl.CachingDecorator;
+import net.neoforged.camelot.db.impl.PooledDataSource;
 import net.neoforged.camelot.db.impl.PostCallbackDecorator;
+import net.neoforged.camelot.db.impl.StatementMetrics;
+import net.neoforged.camelot.db.impl.WriteQueue;
 import net.neoforged.camelot.module.BuiltInModule;
 import org.flywaydb.core.Flyway;
 import org.flywaydb.core.api.callback.Callback;
@@ -18,6 +23,7 @@ import org.jdbi.v3.core.argument.AbstractArgumentFactory;
 import org.jdbi.v3.core.argument.Argument;
 import org.jdbi.v3.core.argument.Arguments;
 import org.jdbi.v3.core.config.ConfigRegistry;
+import org.jdbi.v3.core.statement.SqlStatements;
 import org.jdbi.v3.sqlobject.HandlerDecorators;
 import org.jdbi.v3.sqlobject.SqlObjectPlugin;
 import org.json.JSONArray;
@@ -27,14 +33,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sqlite.SQLiteDataSource;
 
+import javax.sql.DataSource;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.UnaryOperator;
 import java.util.stream.StreamSupport;
 
@@ -44,6 +55,42 @@ import java.util.stream.StreamSupport;
 public class Database {
     public static final Logger LOGGER = LoggerFactory.getLogger(Common.NAME + " database");
 
+    /**
+     * The maximum amount of connections each database pool may lease at once.
+     */
+    private static final int POOL_SIZE = 8;
+    /**
+     * The maximum amount of prepared statements cached by each pooled connection.
+     */
+    private static final int STATEMENT_CACHE_SIZE = 64;
+    private static final Duration ACQUIRE_TIMEOUT = Duration.ofSeconds(30);
+    /**
+     * The maximum amount of queued writes committed in a single transaction.
+     */
+    private static final int WRITE_BATCH_SIZE = 256;
+
+    /**
+     * The pragmas run on every pooled connection.
+     * WAL journaling lets readers proceed while a write is in progress, and with it {@code synchronous = NORMAL} is still durable
+     * against application crashes. The busy timeout makes concurrent writers wait for each other instead of failing immediately.
+     */
+    private static final List<String> PRAGMAS = List.of(
+            "journal_mode = WAL",
+            "synchronous = NORMAL",
+            "busy_timeout = 5000",
+            "temp_store = MEMORY",
+            "cache_size = -8000"
+    );
+
+    private static final Map<Path, PooledDataSource> POOLS = new ConcurrentHashMap<>();
+    private static final Map<Path, WriteQueue> WRITE_QUEUES = new ConcurrentHashMap<>();
+
+    /**
+     * The metrics of the statements executed against all databases. The slow query threshold is
+     * {@linkplain StatementMetrics#setSlowQueryThreshold(Duration) updated} once the configuration is loaded.
+     */
+    private static final StatementMetrics STATEMENT_METRICS = new StatementMetrics(LoggerFactory.getLogger(Common.NAME + " slow queries"), Duration.ofMillis(250));
+
     /**
      * Static JDBI main instance. Can be accessed via {@link #main()}.
      */
@@ -104,6 +151,10 @@ public class Database {
             }
         });
 
+        // The appeals and stats databases do not depend on anything else, so they can be migrated while the main database is
+        final CompletableFuture<Jdbi> appealsDb = CompletableFuture.supplyAsync(() -> createDatabaseConnection(dir.resolve("appeals.db"), "appeals"), Database::startMigrationThread);
+        final CompletableFuture<Jdbi> statsDb = CompletableFuture.supplyAsync(() -> createDatabaseConnection(dir.resolve("stats.db"), "stats"), Database::startMigrationThread);
+
         main = createDatabaseConnection(mainDb, "Camelot DB main", flyway -> flyway
                 .locations("classpath:db/main")
                 .callbacks(callbacks.get(BuiltInModule.DatabaseSource.MAIN).toArray(Callback[]::new)));
@@ -115,15 +166,19 @@ public class Database {
             }
             else {
                 // Run migrations and then delete it
-                createDatabaseConnection(dir.resolve("pings.db"), "Camelot DB pings", flyway -> flyway
+                migrate(createDataSource(pings.toAbsolutePath(), "Camelot DB pings"), flyway -> flyway
                         .locations("classpath:db/pings")
                         .callbacks(callbacks.get(BuiltInModule.DatabaseSource.PINGS).toArray(Callback[]::new)));
                 Files.delete(pings);
             }
         }
 
-        appeals = createDatabaseConnection(dir.resolve("appeals.db"), "appeals");
-        stats = createDatabaseConnection(dir.resolve("stats.db"), "stats");
+        appeals = appealsDb.join();
+        stats = statsDb.join();
+    }
+
+    private static void startMigrationThread(Runnable runnable) {
+        Thread.ofVirtual().name("database-migration").start(runnable);
     }
 
     public static Jdbi initialiseConfigConnection(Path path) {
@@ -172,21 +227,29 @@ public class Database {
                 throw new RuntimeException("Exception creating database!", e);
             }
         }
-        final String url = "jdbc:sqlite:" + dbPath;
-        final SQLiteDataSource dataSource = new SQLiteDataSource();
-        dataSource.setUrl(url);
-        dataSource.setEncoding("UTF-8");
-        dataSource.setDatabaseName(name);
-        dataSource.setEnforceForeignKeys(true);
-        dataSource.setCaseSensitiveLike(false);
-        LOGGER.info("Initiating SQLite database connection at {}.", url);
+        final SQLiteDataSource dataSource = createDataSource(dbPath, name);
+        LOGGER.info("Initiating SQLite database connection at {}.", dataSource.getUrl());
 
-        final var flyway = flywayConfig.apply(Flyway.configure().dataSource(dataSource)).load();
-        flyway.migrate();
+        // Migrations run on a dedicated connection, before the pool opens any
+        migrate(dataSource, flywayConfig);
 
-        final Jdbi jdbi = Jdbi.create(dataSource)
+        final PooledDataSource pool = new PooledDataSource(name, dataSource, PRAGMAS, POOL_SIZE, STATEMENT_CACHE_SIZE, ACQUIRE_TIMEOUT);
+        final PooledDataSource old = POOLS.put(dbPath, pool);
+        if (old != null) {
+            WRITE_QUEUES.remove(dbPath).close();
+            old.close();
+        }
+
+        final Jdbi jdbi = Jdbi.create(pool)
                 .installPlugin(new SqlObjectPlugin());
+        jdbi.getConfig(SqlStatements.class).setSqlLogger(STATEMENT_METRICS);
+        final WriteQueue writes = new WriteQueue(name, jdbi, WRITE_BATCH_SIZE);
+        jdbi.getConfig(WriteQueue.Config.class).setQueue(writes);
+        WRITE_QUEUES.put(dbPath, writes);
+        // Registered first so that only the rows of statements that actually ran are counted, and not those served from caches
+        jdbi.getConfig(HandlerDecorators.class).register(STATEMENT_METRICS.decorator());
         jdbi.getConfig(HandlerDecorators.class).register(new PostCallbackDecorator(jdbi.getConfig(CallbackConfig.class)));
+        jdbi.getConfig(HandlerDecorators.class).register(new CachingDecorator(jdbi.getConfig(CacheConfig.class)));
         jdbi.getConfig(Arguments.class).register(new AbstractArgumentFactory<StringSearch>(Types.VARCHAR) {
             @Override
             protected Argument build(StringSearch value, ConfigRegistry config) {
@@ -196,6 +259,51 @@ public class Database {
         return jdbi;
     }
 
+    /**
+     * {@return the metrics of the connection pools of all open databases}
+     */
+    public static List<PooledDataSource.Stats> poolStats() {
+        return POOLS.values().stream().map(PooledDataSource::stats).toList();
+    }
+
+    /**
+     * {@return the metrics of the write queues of all open databases}
+     */
+    public static List<WriteQueue.Stats> writeQueueStats() {
+        return WRITE_QUEUES.values().stream().map(WriteQueue::stats).toList();
+    }
+
+    /**
+     * {@return the metrics of the statements executed against all databases, grouped by the DAO method that executed them}
+     */
+    public static StatementMetrics statementMetrics() {
+        return STATEMENT_METRICS;
+    }
+
+    /**
+     * Commit the pending writes and close the connection pools of all open databases.
+     */
+    public static void close() {
+        WRITE_QUEUES.values().forEach(WriteQueue::close);
+        WRITE_QUEUES.clear();
+        POOLS.values().forEach(PooledDataSource::close);
+        POOLS.clear();
+    }
+
+    private static SQLiteDataSource createDataSource(Path dbPath, String name) {
+        final SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + dbPath);
+        dataSource.setEncoding("UTF-8");
+        dataSource.setDatabaseName(name);
+        dataSource.setEnforceForeignKeys(true);
+        dataSource.setCaseSensitiveLike(false);
+        return dataSource;
+    }
+
+    private static void migrate(DataSource dataSource, UnaryOperator<FluentConfiguration> flywayConfig) {
+        flywayConfig.apply(Flyway.configure().dataSource(dataSource)).load().migrate();
+    }
+
     private static Callback schemaMigrationCallback(int version, BeforeMigrationHandler consumer) {
         return new Callback() {
             @Override
@@ -31,6 +31,13 @@ public abstract class InteractiveCommand extends SlashCommand implements EventLi
      */
     protected String baseComponentId;
 
+    /**
+     * {@return the prefix of the IDs of the components and modals of this command}
+     */
+    public String getBaseComponentId() {
+        return baseComponentId;
+    }
+
     /**
      * Called when a modal associated with this command is submitted.
      *
@@ -20,7 +20,9 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -84,11 +86,12 @@ public abstract class PaginatableCommand<T extends PaginatableCommand.Pagination
             event.reply("Invalid page").setEphemeral(true).queue();
             return;
         }
-        final var buttons = createButtons(btnId, page - 1, data.itemAmount());
 
         createMessage(page - 1, data, event)
                 .thenApply(ed -> event.getHook().sendMessage(MessageCreateData.fromEditData(ed)))
                 .thenAccept(action -> {
+                    // The buttons are created after the message, so that they can carry the cursor of the next page
+                    final var buttons = createButtons(btnId, page - 1, data);
                     if (!buttons.isEmpty()) {
                         action.addComponents(ActionRow.of(buttons));
                     }
@@ -122,6 +125,23 @@ public abstract class PaginatableCommand<T extends PaginatableCommand.Pagination
         return ((itemAmount % this.itemsPerPage) == 0) ? div : (div + 1);
     }
 
+    /**
+     * Determine how to query the items of the given {@code page}.
+     * If the key of the last item of the previous page is known, the page is queried by keyset, otherwise
+     * (i.e. when the user jumps directly to a page) it falls back to an offset.
+     *
+     * @param page the 0-starting index of the page to query
+     * @param data the pagination data
+     * @return the query of the page
+     */
+    protected final PageQuery pageQuery(int page, T data) {
+        final Cursors cursors = data.cursors();
+        if (page == 0) return new PageQuery(Long.MIN_VALUE, 0, itemsPerPage);
+        final Long after = cursors == null ? null : cursors.pageEnds.get(page - 1);
+        if (after == null) return new PageQuery(Long.MIN_VALUE, page * itemsPerPage, itemsPerPage);
+        return new PageQuery(after, 0, itemsPerPage);
+    }
+
     /**
      * Handle the button interaction.
      *
@@ -137,13 +157,17 @@ public abstract class PaginatableCommand<T extends PaginatableCommand.Pagination
         if (split[2].equals("prev")) {
             currentPage -= 1;
         } else {
+            if (split.length > 3 && data.cursors() != null) {
+                data.cursors().pageEnded(currentPage, Long.parseLong(split[3]));
+            }
             currentPage += 1;
         }
 
-        final var buttons = createButtons(split[0], currentPage, data.itemAmount());
-        createMessage(currentPage, data, event)
+        final int page = currentPage;
+        createMessage(page, data, event)
                 .thenApply(event.getMessage()::editMessage)
                 .thenAccept(msg -> {
+                    final var buttons = createButtons(split[0], page, data);
                     if (!buttons.isEmpty()) {
                         msg.setComponents(ActionRow.of(buttons));
                     }
@@ -151,13 +175,14 @@ public abstract class PaginatableCommand<T extends PaginatableCommand.Pagination
                 });
     }
 
-    protected List<ActionRowChildComponent> createButtons(String id, int currentPage, int itemAmount) {
+    protected List<ActionRowChildComponent> createButtons(String id, int currentPage, T data) {
         final List<ActionRowChildComponent> components = new ArrayList<>();
         if (currentPage != 0) {
             components.add(Button.secondary(id + "/" + currentPage + "/prev", PREV_EMOJI));
         }
-        if ((currentPage + 1) * itemsPerPage < itemAmount) {
-            components.add(Button.primary(id + "/" + currentPage + "/next", NEXT_EMOJI));
+        if ((currentPage + 1) * itemsPerPage < data.itemAmount()) {
+            final Long lastKey = data.cursors() == null ? null : data.cursors().pageEnds.get(currentPage);
+            components.add(Button.primary(id + "/" + currentPage + "/next" + (lastKey == null ? "" : "/" + lastKey), NEXT_EMOJI));
         }
         if (!ephemeral && dismissible) {
             components.add(DismissListener.createDismissButton());
@@ -173,8 +198,53 @@ public abstract class PaginatableCommand<T extends PaginatableCommand.Pagination
          * {@return the amount of items this data contains}
          */
         int itemAmount();
+
+        /**
+         * {@return the keyset cursors of the pages, or {@code null} if this data is paginated by offset only}
+         */
+        @Nullable
+        default Cursors cursors() {
+            return null;
+        }
     }
 
     public record SimpleData(int itemAmount) implements PaginationData {
     }
+
+    /**
+     * Pagination data for commands whose items are paginated by keyset.
+     */
+    public record KeysetData(int itemAmount, Cursors cursors) implements PaginationData {
+        public KeysetData(int itemAmount) {
+            this(itemAmount, new Cursors());
+        }
+    }
+
+    /**
+     * The keys of the last item of each page that was displayed, used to query the next page by keyset instead of by offset.
+     * <p>Commands using keyset pagination should {@link #pageEnded(int, long) record} the key of the last item they displayed,
+     * and query pages using {@link PaginatableCommand#pageQuery(int, PaginationData)}.</p>
+     */
+    public static final class Cursors {
+        private final Map<Integer, Long> pageEnds = new ConcurrentHashMap<>();
+
+        /**
+         * Record the key of the last item of the given {@code page}.
+         */
+        public void pageEnded(int page, long lastKey) {
+            pageEnds.put(page, lastKey);
+        }
+    }
+
+    /**
+     * The query of the items of a page.
+     * Items should be queried in ascending key order, as the {@code limit} items with a key greater than {@code after}, skipping
+     * the first {@code offset}.
+     *
+     * @param after  the key after which the page starts
+     * @param offset the amount of items to skip. Only non-zero when the key the page starts after is not known
+     * @param limit  the amount of items in the page
+     */
+    public record PageQuery(long after, int offset, int limit) {
+    }
 }
@@ -70,7 +70,8 @@ public class ModLogsCommand extends PaginatableCommand<ModLogsCommand.Data> {
                         target.getIdLong(), null, null,
                         Database.main().withExtension(ModLogsDAO.class, db -> db.getLogCount(
                                 target.getIdLong(), event.getGuild().getIdLong(), null, null
-                        ))
+                        )),
+                        new Cursors()
                 ), true);
             }
         };
@@ -111,16 +112,21 @@ public class ModLogsCommand extends PaginatableCommand<ModLogsCommand.Data> {
                 user.getIdLong(), in, excluded,
                 Database.main().withExtension(ModLogsDAO.class, db -> db.getLogCount(
                         user.getIdLong(), event.getGuild().getIdLong(), in, excluded
-                ))
+                )),
+                new Cursors()
         );
     }
 
     @Override
     public CompletableFuture<MessageEditData> createMessage(int page, Data data, Interaction interaction) {
+        final PageQuery query = pageQuery(page, data);
         final List<ModLogEntry> logs = Database.main().withExtension(ModLogsDAO.class, db -> db.getLogs(
-                data.target(), interaction.getGuild().getIdLong(), page * itemsPerPage,
-                this.itemsPerPage, data.include(), data.exclude()
+                data.target(), interaction.getGuild().getIdLong(), query.after(), query.offset(),
+                query.limit(), data.include(), data.exclude()
         ));
+        if (!logs.isEmpty()) {
+            data.cursors().pageEnded(page, logs.getLast().id());
+        }
 
         record UserAndFields(User user, List<MessageEmbed.Field> fields) {}
         return interaction.getJDA().retrieveUserById(data.target())
@@ -138,7 +144,7 @@ public class ModLogsCommand extends PaginatableCommand<ModLogsCommand.Data> {
                 .exceptionally(this.exceptionally);
     }
 
-    public record Data(long target, @Nullable ModLogEntry.Type include, @Nullable ModLogEntry.Type exclude, int itemAmount) implements PaginatableCommand.PaginationData {
+    public record Data(long target, @Nullable ModLogEntry.Type include, @Nullable ModLogEntry.Type exclude, int itemAmount, Cursors cursors) implements PaginatableCommand.PaginationData {
 
     }
 }
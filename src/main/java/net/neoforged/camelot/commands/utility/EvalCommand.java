@@ -19,6 +19,7 @@ import net.dv8tion.jda.api.utils.messages.MessageEditData;
 import net.neoforged.camelot.commands.Commands;
 import net.neoforged.camelot.script.ScriptContext;
 import net.neoforged.camelot.script.ScriptReplier;
+import net.neoforged.camelot.script.ScriptSources;
 import net.neoforged.camelot.script.ScriptUtils;
 import net.neoforged.camelot.util.Emojis;
 import net.neoforged.camelot.util.jda.ComponentManager;
@@ -96,7 +97,7 @@ public class EvalCommand extends Command {
                             }
                         }, false);
 
-                        ScriptUtils.submitExecution(context, script, Optional.ofNullable(event.getValue("args")).map(ModalMapping::getAsString).orElse(""));
+                        ScriptUtils.submitExecution(context, ScriptSources.build(script), Optional.ofNullable(event.getValue("args")).map(ModalMapping::getAsString).orElse(""));
                     });
         } else if (event.getModalId().startsWith(ADD_TRICK_ID)) {
             final List<String> names = List.of(event.getValue("names").getAsString().split(" "));
@@ -35,6 +35,8 @@ import net.neoforged.camelot.db.transactionals.StatsDAO;
 import net.neoforged.camelot.db.transactionals.TricksDAO;
 import net.neoforged.camelot.module.TricksModule;
 import net.neoforged.camelot.script.CannotRetrieveInformationException;
+import net.neoforged.camelot.script.ScriptInformationCache;
+import net.neoforged.camelot.script.ScriptScheduler;
 import net.neoforged.camelot.script.ScriptUtils;
 import net.neoforged.camelot.script.ScriptWriter;
 import net.neoforged.camelot.util.Utils;
@@ -439,13 +441,18 @@ public class ManageTrickCommand extends SlashCommand {
                     .addField("Names", names.isBlank() ? "*This trick has no names*" : names, false);
 
             try {
-                embed.addField("Description", ScriptUtils.getInformation(trick.script()).description(), false);
+                embed.addField("Description", ScriptInformationCache.describe(trick.script()).description(), false);
             } catch (CannotRetrieveInformationException _) {
 
             }
 
             embed.addField("Owner", "<@" + trick.owner() + "> (" + trick.owner() + ")", false);
 
+            final ScriptScheduler.Usage usage = BotMain.getModule(TricksModule.class).scheduler().usage(trick.id());
+            if (usage.runs() > 0) {
+                embed.addField("CPU time", "Average: **" + usage.averageCpuTime().toMillis() + "ms** over " + usage.runs() + " runs since startup", false);
+            }
+
             BotMain.stats(StatsDAO.Tricks.class, extension -> {
                 final int prefix = extension.getPrefixUses(trick.id());
                 final int slash = extension.getSlashUses(trick.id());
@@ -785,7 +792,7 @@ public class ManageTrickCommand extends SlashCommand {
     /**
      * The command used to list all promoted tricks in the guild it was run in.
      */
-    public static final class ListPromoted extends PaginatableCommand<PaginatableCommand.SimpleData> {
+    public static final class ListPromoted extends PaginatableCommand<PaginatableCommand.KeysetData> {
 
         public ListPromoted(ComponentManager buttonManager) {
             super(buttonManager);
@@ -796,29 +803,32 @@ public class ManageTrickCommand extends SlashCommand {
         }
 
         @Override
-        public SimpleData collectData(SlashCommandEvent event) {
-            return new SimpleData(Database.main().withExtension(SlashTricksDAO.class, db -> db.getPromotedCount(event.getGuild().getIdLong())));
+        public KeysetData collectData(SlashCommandEvent event) {
+            return new KeysetData(Database.main().withExtension(SlashTricksDAO.class, db -> db.getPromotedCount(event.getGuild().getIdLong())));
         }
 
         @Override
-        public CompletableFuture<MessageEditData> createMessage(int page, SimpleData data, Interaction interaction) {
+        public CompletableFuture<MessageEditData> createMessage(int page, KeysetData data, Interaction interaction) {
             final EmbedBuilder embed = new EmbedBuilder();
             embed.setTitle("List of promoted tricks")
                     .setFooter("Page " + (page + 1) + " of " + pageAmount(data.itemAmount()));
-            Database.main().useExtension(TricksDAO.class, tricksDao -> Database.main().useExtension(SlashTricksDAO.class, db -> embed.appendDescription(String.join("\n",
-                    db.getPromotedTricksIn(interaction.getGuild().getIdLong(), page * itemsPerPage, itemsPerPage)
-                            .stream().map(trick -> {
-                                String msg = "- ";
-                                final List<String> names = tricksDao.getTrickNames(trick.id());
-                                if (names.isEmpty()) {
-                                    msg += "*Trick has no names*";
-                                } else {
-                                    msg += String.join(" / ", names);
-                                }
-                                msg += ": `/" + trick.getFullName() + "`";
-
-                                return msg;
-                            }).toList()))));
+            final PageQuery query = pageQuery(page, data);
+            final List<SlashTrick> tricks = Database.main().withExtension(SlashTricksDAO.class, db -> db.getPromotedTricksIn(interaction.getGuild().getIdLong(), query.after(), query.offset(), query.limit()));
+            if (!tricks.isEmpty()) {
+                data.cursors().pageEnded(page, tricks.getLast().id());
+            }
+            Database.main().useExtension(TricksDAO.class, tricksDao -> embed.appendDescription(String.join("\n", tricks.stream().map(trick -> {
+                String msg = "- ";
+                final List<String> names = tricksDao.getTrickNames(trick.id());
+                if (names.isEmpty()) {
+                    msg += "*Trick has no names*";
+                } else {
+                    msg += String.join(" / ", names);
+                }
+                msg += ": `/" + trick.getFullName() + "`";
+
+                return msg;
+            }).toList())));
             return CompletableFuture.completedFuture(new MessageEditBuilder()
                     .setEmbeds(embed.build())
                     .build());
@@ -918,7 +928,7 @@ public class ManageTrickCommand extends SlashCommand {
     /**
      * The command used to list all tricks.
      */
-    public static final class ListCmd extends PaginatableCommand<PaginatableCommand.SimpleData> {
+    public static final class ListCmd extends PaginatableCommand<PaginatableCommand.KeysetData> {
 
         public ListCmd(ComponentManager buttonManager) {
             super(buttonManager);
@@ -928,28 +938,33 @@ public class ManageTrickCommand extends SlashCommand {
         }
 
         @Override
-        public SimpleData collectData(SlashCommandEvent event) {
-            return new SimpleData(Database.main().withExtension(TricksDAO.class, TricksDAO::getTrickAmount));
+        public KeysetData collectData(SlashCommandEvent event) {
+            return new KeysetData(Database.main().withExtension(TricksDAO.class, TricksDAO::getTrickAmount));
         }
 
         @Override
-        public CompletableFuture<MessageEditData> createMessage(int page, SimpleData data, Interaction interaction) {
+        public CompletableFuture<MessageEditData> createMessage(int page, KeysetData data, Interaction interaction) {
             final EmbedBuilder embed = new EmbedBuilder();
             embed.setTitle("List of tricks")
                     .setFooter("Page " + (page + 1) + " of " + pageAmount(data.itemAmount()));
-            Database.main().useExtension(TricksDAO.class, db -> embed.appendDescription(String.join("\n",
-                    db.getTricks(page * itemsPerPage, itemsPerPage)
-                            .stream().map(trick -> {
-                                String msg = trick.id() + ". ";
-                                final List<String> names = db.getTrickNames(trick.id());
-                                if (names.isEmpty()) {
-                                    msg += "*Trick has no names*";
-                                } else {
-                                    msg += String.join(" / ", names);
-                                }
-
-                                return msg;
-                            }).toList())));
+            final PageQuery query = pageQuery(page, data);
+            Database.main().useExtension(TricksDAO.class, db -> {
+                final List<Trick> tricks = db.getTricks(query.after(), query.offset(), query.limit());
+                if (!tricks.isEmpty()) {
+                    data.cursors().pageEnded(page, tricks.getLast().id());
+                }
+                embed.appendDescription(String.join("\n", tricks.stream().map(trick -> {
+                    String msg = trick.id() + ". ";
+                    final List<String> names = db.getTrickNames(trick.id());
+                    if (names.isEmpty()) {
+                        msg += "*Trick has no names*";
+                    } else {
+                        msg += String.join(" / ", names);
+                    }
+
+                    return msg;
+                }).toList()));
+            });
             return CompletableFuture.completedFuture(new MessageEditBuilder()
                     .setEmbeds(embed.build())
                     .build());
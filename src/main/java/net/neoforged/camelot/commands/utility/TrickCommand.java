@@ -50,9 +50,9 @@ public class TrickCommand extends SlashCommand {
             }
         }, trick.privileged());
 
-        ScriptUtils.submitExecution(context, trick.script(), args);
+        ScriptUtils.submitExecution(context, trick, args);
 
-        BotMain.stats(StatsDAO.Tricks.class, extension -> extension.incrementSlashUses(trick.id()));
+        BotMain.recordStats(StatsDAO.Tricks.class, extension -> extension.incrementSlashUses(trick.id()));
     }
 
     @Override
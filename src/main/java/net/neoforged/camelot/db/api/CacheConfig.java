@@ -0,0 +1,75 @@
+package net.neoforged.camelot.db.api;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import net.neoforged.camelot.db.impl.QueryCache;
+import org.jdbi.v3.core.config.JdbiConfig;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The JDBI configuration holding the caches of the {@link Cached cached queries} of a database.
+ * <p>The caches are shared between all copies of the configuration, so they can be invalidated from any handle, for instance
+ * from an {@link ExecutionCallback} using {@code dao.getHandle().getConfig(CacheConfig.class)}.</p>
+ */
+public class CacheConfig implements JdbiConfig<CacheConfig> {
+    private final Map<Class<?>, List<QueryCache>> caches;
+
+    private CacheConfig(Map<Class<?>, List<QueryCache>> caches) {
+        this.caches = caches;
+    }
+
+    public CacheConfig() {
+        this(new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Register the cache of a query of the given transactional {@code type}.
+     */
+    public void register(Class<?> type, QueryCache cache) {
+        caches.computeIfAbsent(type, _ -> new CopyOnWriteArrayList<>()).add(cache);
+    }
+
+    /**
+     * {@return the caches of the queries of the given transactional {@code type}}
+     */
+    public List<QueryCache> getCaches(Class<?> type) {
+        return caches.getOrDefault(type, List.of());
+    }
+
+    /**
+     * Invalidate the caches of all queries of the given transactional {@code type}.
+     */
+    public void invalidate(Class<?> type) {
+        getCaches(type).forEach(QueryCache::invalidate);
+    }
+
+    /**
+     * Invalidate the cache of the query with the given {@code methodName} of the given transactional {@code type}.
+     */
+    public void invalidate(Class<?> type, String methodName) {
+        for (final QueryCache cache : getCaches(type)) {
+            if (cache.method().getName().equals(methodName)) {
+                cache.invalidate();
+            }
+        }
+    }
+
+    /**
+     * {@return the statistics of all query caches, keyed by {@code Transactional#method}}
+     */
+    public Map<String, CacheStats> stats() {
+        final Map<String, CacheStats> stats = new TreeMap<>();
+        caches.forEach((type, queries) -> queries.forEach(query ->
+                stats.merge(type.getSimpleName() + "#" + query.method().getName(), query.stats(), CacheStats::plus)));
+        return stats;
+    }
+
+    @Override
+    public CacheConfig createCopy() {
+        return new CacheConfig(caches);
+    }
+}
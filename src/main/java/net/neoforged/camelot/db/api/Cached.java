@@ -0,0 +1,39 @@
+package net.neoforged.camelot.db.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotate a {@link org.jdbi.v3.sqlobject.statement.SqlQuery} method of a transactional with this annotation in order to
+ * cache its results, keyed on the arguments of the method.
+ * <p>The cache of a query is invalidated whenever an updating method of the same transactional is invoked. Updating methods are
+ * all {@link org.jdbi.v3.sqlobject.statement.SqlUpdate} and {@link org.jdbi.v3.sqlobject.statement.SqlBatch} methods, and the
+ * methods annotated with {@link InvalidatesCache}. If the update happens inside a transaction, the cache is invalidated again
+ * once the transaction ends.</p>
+ * <p>Other code writing to the tables of a cached query (i.e. through a different transactional or through
+ * {@linkplain ExecutionCallback execution callbacks}) must invalidate the cache manually using {@link CacheConfig}.</p>
+ * <p>Since the results are shared between callers, they must not be mutated. Returned lists are made unmodifiable.</p>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cached {
+    /**
+     * {@return the maximum amount of results to cache}
+     */
+    long maximumSize() default 1000;
+
+    /**
+     * {@return the amount of seconds after which a cached result expires, or {@code 0} if results should not expire}
+     */
+    long expireAfterSeconds() default 0;
+
+    /**
+     * {@return the names of the updating methods that invalidate this cache}
+     * If empty, all updating methods of the transactional invalidate this cache.
+     */
+    String[] invalidatedBy() default {};
+}
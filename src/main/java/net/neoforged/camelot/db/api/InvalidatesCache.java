@@ -0,0 +1,18 @@
+package net.neoforged.camelot.db.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotate a method of a transactional that writes to the database without using a {@link org.jdbi.v3.sqlobject.statement.SqlUpdate}
+ * (i.e. a default method using the handle directly) with this annotation in order to mark it as an updating method,
+ * which invalidates the {@link Cached cached queries} of the transactional.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface InvalidatesCache {
+}
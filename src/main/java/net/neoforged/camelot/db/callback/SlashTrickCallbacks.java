@@ -16,7 +16,7 @@ public class SlashTrickCallbacks {
      */
     @ExecutionCallback(methodName = "promote", phase = ExecutionCallback.Phase.POST)
     public static void onTrickPromoted(SlashTricksDAO dao, long guildId, int trickId, String category, @Nullable String subgroup, String name) {
-        ScriptUtils.SERVICE.submit(() -> BotMain.getModule(TricksModule.class).slashTrickManagers.get(guildId).updateCommands(BotMain.get().getGuildById(guildId)));
+        ScriptUtils.SERVICE.submit(() -> BotMain.getModule(TricksModule.class).slashTrickManagers.get(guildId).updateCommands(BotMain.shards().getGuildById(guildId)));
     }
 
     /**
@@ -24,6 +24,6 @@ public class SlashTrickCallbacks {
      */
     @ExecutionCallback(methodName = "demote", phase = ExecutionCallback.Phase.POST)
     public static void onTrickDemoted(SlashTricksDAO dao, long guildId, int trickId) {
-        ScriptUtils.SERVICE.submit(() -> BotMain.getModule(TricksModule.class).slashTrickManagers.get(guildId).updateCommands(BotMain.get().getGuildById(guildId)));
+        ScriptUtils.SERVICE.submit(() -> BotMain.getModule(TricksModule.class).slashTrickManagers.get(guildId).updateCommands(BotMain.shards().getGuildById(guildId)));
     }
 }
@@ -2,12 +2,19 @@ package net.neoforged.camelot.db.callback;
 
 import net.neoforged.camelot.BotMain;
 import net.neoforged.camelot.Database;
+import net.neoforged.camelot.db.api.CacheConfig;
 import net.neoforged.camelot.db.api.ExecutionCallback;
+import net.neoforged.camelot.db.schemas.Trick;
 import net.neoforged.camelot.db.transactionals.SlashTricksDAO;
 import net.neoforged.camelot.db.transactionals.TricksDAO;
 import net.neoforged.camelot.module.TricksModule;
+import net.neoforged.camelot.script.CannotRetrieveInformationException;
+import net.neoforged.camelot.script.ScriptInformationCache;
+import net.neoforged.camelot.script.ScriptSources;
 import net.neoforged.camelot.script.ScriptUtils;
 
+import java.util.List;
+
 /**
  * Callbacks for {@link TricksDAO}.
  */
@@ -18,6 +25,23 @@ public class TrickCallbacks {
      */
     @ExecutionCallback(methodName = "updateScript", phase = ExecutionCallback.Phase.POST)
     public static void onScriptUpdated(TricksDAO dao, int trickId, String script) {
+        ScriptSources.invalidate(trickId);
+        // Compile the new script right away, as the trick is likely to be run soon after being edited
+        final Trick current = dao.getTrick(trickId);
+        if (current != null) {
+            // The cached trick may still have the old script until the update returns
+            final Trick edited = new Trick(trickId, script, current.owner(), current.privileged());
+            ScriptUtils.SERVICE.submit(() -> {
+                ScriptSources.precompile(List.of(edited));
+                try {
+                    // The script is only described if no other trick has the same script
+                    ScriptInformationCache.describe(script);
+                } catch (CannotRetrieveInformationException _) {
+                    // The error will be reported when the trick is promoted or its information is queried
+                }
+            });
+        }
+
         Database.main().withExtension(SlashTricksDAO.class, db -> db.getPromotionsOfTrick(trickId))
                 .forEach(trick -> BotMain.getModule(TricksModule.class).slashTrickManagers.get(trick.guildId()).markNeedsUpdate(trick));
     }
@@ -27,8 +51,11 @@ public class TrickCallbacks {
      */
     @ExecutionCallback(methodName = "delete", phase = ExecutionCallback.Phase.POST)
     public static void onTrickDeleted(TricksDAO dao, int trickId) {
+        ScriptSources.invalidate(trickId);
+        // The promotions of the trick are cascade-deleted with it
+        dao.getHandle().getConfig(CacheConfig.class).invalidate(SlashTricksDAO.class);
         Database.main().withExtension(SlashTricksDAO.class, db -> db.getPromotionsOfTrick(trickId))
                 .forEach(trick -> ScriptUtils.SERVICE.submit(() -> BotMain.getModule(TricksModule.class).slashTrickManagers
-                        .get(trick.guildId()).updateCommands(BotMain.get().getGuildById(trick.guildId()))));
+                        .get(trick.guildId()).updateCommands(BotMain.shards().getGuildById(trick.guildId()))));
     }
 }
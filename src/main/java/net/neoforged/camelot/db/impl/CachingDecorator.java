@@ -0,0 +1,73 @@
+package net.neoforged.camelot.db.impl;
+
+import net.neoforged.camelot.db.api.CacheConfig;
+import net.neoforged.camelot.db.api.Cached;
+import net.neoforged.camelot.db.api.InvalidatesCache;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.sqlobject.Handler;
+import org.jdbi.v3.sqlobject.HandlerDecorator;
+import org.jdbi.v3.sqlobject.statement.SqlBatch;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A decorator that serves {@link Cached} queries from their cache, and invalidates the caches when an updating method is invoked.
+ */
+public class CachingDecorator implements HandlerDecorator {
+    private final CacheConfig config;
+    private final Map<Method, QueryCache> caches = new ConcurrentHashMap<>();
+
+    public CachingDecorator(CacheConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public Handler decorateHandler(Handler base, Class<?> sqlObjectType, Method method) {
+        final Cached cached = method.getAnnotation(Cached.class);
+        if (cached != null) {
+            final QueryCache cache = caches.computeIfAbsent(method, _ -> {
+                final QueryCache newCache = new QueryCache(method, cached);
+                config.register(sqlObjectType, newCache);
+                return newCache;
+            });
+            return (target, args, handle) -> {
+                // Inside a transaction the query may observe uncommitted writes, which must not leak into the shared cache
+                if (handle.getHandle().isInTransaction()) {
+                    return base.invoke(target, args, handle);
+                }
+                return cache.get(args, () -> base.invoke(target, args, handle));
+            };
+        }
+
+        if (!method.isAnnotationPresent(SqlUpdate.class) && !method.isAnnotationPresent(SqlBatch.class) && !method.isAnnotationPresent(InvalidatesCache.class)) {
+            return base;
+        }
+
+        final String name = method.getName();
+        return (target, args, handleSupplier) -> {
+            try {
+                return base.invoke(target, args, handleSupplier);
+            } finally {
+                invalidate(sqlObjectType, name);
+
+                // Loads that happen before the transaction is committed may still see the old data, or may see data that is later rolled back
+                final Handle handle = handleSupplier.getHandle();
+                if (handle.isInTransaction()) {
+                    handle.afterCommit(() -> invalidate(sqlObjectType, name));
+                    handle.afterRollback(() -> invalidate(sqlObjectType, name));
+                }
+            }
+        };
+    }
+
+    private void invalidate(Class<?> sqlObjectType, String updateMethod) {
+        for (final QueryCache cache : config.getCaches(sqlObjectType)) {
+            if (cache.isInvalidatedBy(updateMethod)) {
+                cache.invalidate();
+            }
+        }
+    }
+}
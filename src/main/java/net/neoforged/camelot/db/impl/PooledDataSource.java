@@ -0,0 +1,426 @@
+package net.neoforged.camelot.db.impl;
+
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * A {@link DataSource} that pools the physical connections to a single SQLite database file.
+ * <p>
+ * Each physical connection is configured with the given {@code pragmas} when it is opened, and keeps a
+ * bounded LRU cache of prepared statements, so that the statements of hot DAO methods are compiled by SQLite only once
+ * per connection. Connections handed out by this pool return to it once {@linkplain Connection#close() closed}.
+ */
+public final class PooledDataSource implements DataSource, Closeable {
+    private final String name;
+    private final SQLiteDataSource source;
+    private final List<String> pragmas;
+    private final int maximumSize, statementCacheSize;
+    private final long acquireTimeoutNanos;
+
+    private final BlockingDeque<PhysicalConnection> idle = new LinkedBlockingDeque<>();
+    private final List<PhysicalConnection> all = new ArrayList<>();
+    private final Semaphore permits;
+
+    private final AtomicInteger active = new AtomicInteger(), waiting = new AtomicInteger();
+    private final LongAdder acquisitions = new LongAdder(), timeouts = new LongAdder(), waitNanos = new LongAdder();
+    private final LongAdder statementHits = new LongAdder(), statementMisses = new LongAdder();
+
+    private volatile boolean closed;
+
+    /**
+     * Create a new pool.
+     *
+     * @param name               the name of the pool, used in metrics and error messages
+     * @param source             the data source used to open physical connections
+     * @param pragmas            the pragmas to run on every physical connection after it is opened, e.g. {@code journal_mode = WAL}
+     * @param maximumSize        the maximum amount of connections that can be leased at once
+     * @param statementCacheSize the maximum amount of prepared statements cached by each physical connection
+     * @param acquireTimeout     how long to wait for a connection to become available before failing
+     */
+    public PooledDataSource(String name, SQLiteDataSource source, List<String> pragmas, int maximumSize, int statementCacheSize, Duration acquireTimeout) {
+        this.name = name;
+        this.source = source;
+        this.pragmas = List.copyOf(pragmas);
+        this.maximumSize = maximumSize;
+        this.statementCacheSize = statementCacheSize;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.permits = new Semaphore(maximumSize, true);
+    }
+
+    /**
+     * {@return the name of this pool}
+     */
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool " + name + " is closed");
+
+        final long start = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                timeouts.increment();
+                throw new SQLTimeoutException("Timed out waiting for a connection to " + name + " (" + active.get() + " of " + maximumSize + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection to " + name, e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        PhysicalConnection connection = idle.pollFirst();
+        if (connection == null) {
+            try {
+                connection = open();
+            } catch (SQLException | RuntimeException exception) {
+                permits.release();
+                throw exception;
+            }
+        }
+
+        final long waited = System.nanoTime() - start;
+        acquisitions.increment();
+        waitNanos.add(waited);
+        active.incrementAndGet();
+        return connection.lease(waited);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * {@return how long the given pooled {@code connection} waited to be leased, or {@code 0} if it is not leased from a pool}
+     * The wait is only reported once per lease, so that it is attributed to the first statement executed on the connection.
+     */
+    public static long takeWaitNanos(Connection connection) {
+        if (connection != null && Proxy.isProxyClass(connection.getClass()) && Proxy.getInvocationHandler(connection) instanceof PhysicalConnection.Lease lease) {
+            return lease.takeWait();
+        }
+        return 0;
+    }
+
+    /**
+     * {@return a snapshot of the metrics of this pool}
+     */
+    public Stats stats() {
+        final long acquired = acquisitions.sum();
+        final int open;
+        synchronized (all) {
+            open = all.size();
+        }
+        return new Stats(
+                name, maximumSize, open, idle.size(), active.get(), waiting.get(),
+                acquired, timeouts.sum(), Duration.ofNanos(acquired == 0 ? 0 : waitNanos.sum() / acquired),
+                statementHits.sum(), statementMisses.sum()
+        );
+    }
+
+    /**
+     * Close this pool and all of its physical connections. Leased connections are closed once they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PhysicalConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            connection.closePhysical();
+        }
+    }
+
+    private PhysicalConnection open() throws SQLException {
+        final Connection connection = source.getConnection();
+        try (final Statement statement = connection.createStatement()) {
+            for (final String pragma : pragmas) {
+                statement.execute("pragma " + pragma);
+            }
+        } catch (SQLException exception) {
+            connection.close();
+            throw exception;
+        }
+
+        final PhysicalConnection physical = new PhysicalConnection(connection);
+        synchronized (all) {
+            all.add(physical);
+        }
+        return physical;
+    }
+
+    private void release(PhysicalConnection connection, boolean broken) {
+        active.decrementAndGet();
+        if (broken || closed) {
+            connection.closePhysical();
+        } else {
+            idle.offerFirst(connection);
+        }
+        permits.release();
+    }
+
+    /**
+     * A snapshot of the metrics of a {@link PooledDataSource}.
+     *
+     * @param name                 the name of the pool
+     * @param maximumSize          the maximum amount of connections that can be leased at once
+     * @param open                 the amount of physical connections currently open
+     * @param idle                 the amount of open connections that are not leased
+     * @param active               the amount of connections currently leased
+     * @param waiting              the amount of threads currently waiting for a connection
+     * @param acquisitions         the total amount of connections leased
+     * @param timeouts             the total amount of times a thread gave up waiting for a connection
+     * @param averageWait          the average time a thread had to wait for a connection
+     * @param statementCacheHits   the amount of prepared statements served from a connection's cache
+     * @param statementCacheMisses the amount of prepared statements that had to be compiled
+     */
+    public record Stats(
+            String name, int maximumSize, int open, int idle, int active, int waiting,
+            long acquisitions, long timeouts, Duration averageWait,
+            long statementCacheHits, long statementCacheMisses
+    ) {
+    }
+
+    private final class PhysicalConnection {
+        private final Connection connection;
+        private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > statementCacheSize) {
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        private PhysicalConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        Connection lease(long waitNanos) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, new Lease(waitNanos));
+        }
+
+        private PreparedStatement prepare(String sql) throws SQLException {
+            final CachedStatement cached = statements.get(sql);
+            if (cached != null && !cached.inUse) {
+                statementHits.increment();
+                cached.inUse = true;
+                return cached.proxy;
+            }
+
+            statementMisses.increment();
+            final PreparedStatement statement = connection.prepareStatement(sql);
+            // If the cached statement is already in use (e.g. nested iteration of the same query) we simply hand out an uncached statement
+            if (cached != null) return statement;
+
+            final CachedStatement newEntry = new CachedStatement(sql, statement);
+            newEntry.inUse = true;
+            statements.put(sql, newEntry);
+            return newEntry.proxy;
+        }
+
+        void closePhysical() {
+            synchronized (all) {
+                all.remove(this);
+            }
+            statements.values().forEach(CachedStatement::evict);
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException _) {
+                // We're discarding the connection anyway
+            }
+        }
+
+        private final class Lease implements InvocationHandler {
+            private boolean closed;
+            private long waitNanos;
+
+            private Lease(long waitNanos) {
+                this.waitNanos = waitNanos;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "Pooled connection to " + name;
+                    case "close" -> {
+                        close();
+                        yield null;
+                    }
+                    case "isClosed" -> closed;
+                    case "unwrap", "isWrapperFor" -> PooledDataSource.invoke(connection, method, args);
+                    case "prepareStatement" -> {
+                        checkOpen();
+                        if (args.length == 1) yield prepare((String) args[0]);
+                        yield PooledDataSource.invoke(connection, method, args);
+                    }
+                    default -> {
+                        checkOpen();
+                        yield PooledDataSource.invoke(connection, method, args);
+                    }
+                };
+            }
+
+            long takeWait() {
+                final long wait = waitNanos;
+                waitNanos = 0;
+                return wait;
+            }
+
+            void checkOpen() throws SQLException {
+                if (closed) throw new SQLException("Connection is closed");
+            }
+
+            void close() {
+                if (closed) return;
+                closed = true;
+
+                boolean broken;
+                try {
+                    broken = connection.isClosed();
+                    if (!broken && !connection.getAutoCommit()) {
+                        // Do not leak an unfinished transaction into the next lease
+                        connection.rollback();
+                        connection.setAutoCommit(true);
+                    }
+                } catch (SQLException _) {
+                    broken = true;
+                }
+
+                for (final CachedStatement statement : List.copyOf(statements.values())) {
+                    if (statement.inUse) statement.release();
+                }
+
+                release(PhysicalConnection.this, broken);
+            }
+        }
+
+        private final class CachedStatement {
+            private final String sql;
+            private final PreparedStatement statement;
+            private final PreparedStatement proxy;
+            private boolean inUse, evicted;
+
+            private CachedStatement(String sql, PreparedStatement statement) {
+                this.sql = sql;
+                this.statement = statement;
+                this.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        release();
+                        yield null;
+                    }
+                    case "isClosed" -> !inUse || statement.isClosed();
+                    default -> invoke(statement, method, args);
+                });
+            }
+
+            void release() {
+                inUse = false;
+                if (evicted) {
+                    closeQuietly();
+                    return;
+                }
+
+                try {
+                    // Only clears the bindings: the statement is reset, and its read lock released, when its result set is closed,
+                    // which JDBI always does before closing the statement
+                    statement.clearParameters();
+                } catch (SQLException _) {
+                    statements.remove(sql, this);
+                    closeQuietly();
+                }
+            }
+
+            void evict() {
+                evicted = true;
+                if (!inUse) closeQuietly();
+            }
+
+            private void closeQuietly() {
+                try {
+                    statement.close();
+                } catch (SQLException _) {
+                    // Nothing we can do
+                }
+            }
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return source.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        source.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        source.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return source.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) return iface.cast(this);
+        return source.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || source.isWrapperFor(iface);
+    }
+}
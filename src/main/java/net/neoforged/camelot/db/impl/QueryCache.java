@@ -0,0 +1,97 @@
+package net.neoforged.camelot.db.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import net.neoforged.camelot.db.api.Cached;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The cache of the results of a {@link Cached} query.
+ */
+public final class QueryCache {
+    private final Method method;
+    private final Set<String> invalidatedBy;
+    private final Cache<List<Object>, Optional<Object>> cache;
+
+    /**
+     * A counter incremented on each invalidation, used to prevent loads that raced with an invalidation from caching stale results.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    QueryCache(Method method, Cached cached) {
+        this.method = method;
+        this.invalidatedBy = Set.of(cached.invalidatedBy());
+        final var builder = Caffeine.newBuilder()
+                .maximumSize(cached.maximumSize())
+                .recordStats();
+        if (cached.expireAfterSeconds() > 0) {
+            builder.expireAfterWrite(Duration.ofSeconds(cached.expireAfterSeconds()));
+        }
+        this.cache = builder.build();
+    }
+
+    /**
+     * {@return the cached query method}
+     */
+    public Method method() {
+        return method;
+    }
+
+    /**
+     * {@return whether this cache is invalidated by the updating method with the given {@code name}}
+     */
+    public boolean isInvalidatedBy(String name) {
+        return invalidatedBy.isEmpty() || invalidatedBy.contains(name);
+    }
+
+    /**
+     * Get the result of the query for the given {@code args}, loading it if it is not cached.
+     */
+    Object get(Object[] args, Loader loader) throws Exception {
+        final List<Object> key = Arrays.asList(args.clone());
+        final Optional<Object> cached = cache.getIfPresent(key);
+        if (cached != null) return cached.orElse(null);
+
+        final long gen = generation.get();
+        Object result = loader.load();
+        if (result instanceof List<?> list) {
+            result = Collections.unmodifiableList(list);
+        }
+
+        if (generation.get() == gen) {
+            cache.put(key, Optional.ofNullable(result));
+            // An invalidation may have happened between the check and the insertion
+            if (generation.get() != gen) cache.invalidate(key);
+        }
+        return result;
+    }
+
+    /**
+     * Invalidate all cached results of the query.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * {@return the hit and miss statistics of this cache}
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @FunctionalInterface
+    interface Loader {
+        Object load() throws Exception;
+    }
+}
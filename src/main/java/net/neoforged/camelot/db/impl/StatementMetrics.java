@@ -0,0 +1,303 @@
+package net.neoforged.camelot.db.impl;
+
+import org.jdbi.v3.core.extension.ExtensionMethod;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jdbi.v3.sqlobject.HandlerDecorator;
+import org.jdbi.v3.sqlobject.statement.GetGeneratedKeys;
+import org.jdbi.v3.sqlobject.statement.SqlBatch;
+import org.jdbi.v3.sqlobject.statement.SqlQuery;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.BaseStream;
+
+/**
+ * Collects the execution metrics of the statements run against the databases, grouped by the DAO method that ran them.
+ * <p>
+ * For each DAO method (or, for statements not run through a DAO, for each SQL statement) this records a latency histogram of
+ * the statement executions, the amount of rows they returned or affected, and the time spent waiting for a pooled connection before they could run.
+ * Statements that take longer than the {@linkplain #setSlowQueryThreshold(Duration) slow query threshold} are logged.
+ * <p>
+ * The metrics are installed as the {@link SqlLogger} of a database, while the rows are counted by the {@link #decorator() handler decorator}
+ * from the results of the DAO methods.
+ */
+public final class StatementMetrics implements SqlLogger {
+    /**
+     * The upper bounds of the buckets of the latency histograms. Executions slower than the last bound fall in an unbounded bucket.
+     */
+    private static final long[] BUCKET_BOUNDS = {
+            TimeUnit.MICROSECONDS.toNanos(100),
+            TimeUnit.MICROSECONDS.toNanos(250),
+            TimeUnit.MICROSECONDS.toNanos(500),
+            TimeUnit.MILLISECONDS.toNanos(1),
+            TimeUnit.MILLISECONDS.toNanos(2) + TimeUnit.MICROSECONDS.toNanos(500),
+            TimeUnit.MILLISECONDS.toNanos(5),
+            TimeUnit.MILLISECONDS.toNanos(10),
+            TimeUnit.MILLISECONDS.toNanos(25),
+            TimeUnit.MILLISECONDS.toNanos(50),
+            TimeUnit.MILLISECONDS.toNanos(100),
+            TimeUnit.MILLISECONDS.toNanos(250),
+            TimeUnit.MILLISECONDS.toNanos(500),
+            TimeUnit.SECONDS.toNanos(1),
+            TimeUnit.SECONDS.toNanos(5),
+    };
+
+    /**
+     * The maximum amount of distinct statements not run through a DAO that are tracked separately.
+     * Any further statement is grouped under {@link #OTHER_STATEMENTS}, so that dynamically built SQL cannot grow the metrics indefinitely.
+     */
+    private static final int MAX_RAW_STATEMENTS = 256;
+    private static final int MAX_SQL_LENGTH = 120;
+    private static final String OTHER_STATEMENTS = "sql: <other>";
+
+    private final Logger slowQueryLogger;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong rawStatements = new AtomicLong();
+    private volatile long slowQueryThresholdNanos;
+
+    /**
+     * Create a new metrics collector.
+     *
+     * @param slowQueryLogger    the logger slow statements are logged to
+     * @param slowQueryThreshold the execution time above which a statement is considered slow
+     */
+    public StatementMetrics(Logger slowQueryLogger, Duration slowQueryThreshold) {
+        this.slowQueryLogger = slowQueryLogger;
+        setSlowQueryThreshold(slowQueryThreshold);
+    }
+
+    /**
+     * Set the execution time above which a statement is considered slow, and logged.
+     */
+    public void setSlowQueryThreshold(Duration threshold) {
+        this.slowQueryThresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public void logAfterExecution(StatementContext context) {
+        record(context, null);
+    }
+
+    @Override
+    public void logException(StatementContext context, SQLException ex) {
+        record(context, ex);
+    }
+
+    private void record(StatementContext context, @Nullable SQLException exception) {
+        final long elapsed = context.getElapsedTime(ChronoUnit.NANOS);
+        final long wait = PooledDataSource.takeWaitNanos(context.getConnection());
+        final Entry entry = entry(statementName(context));
+        entry.record(elapsed, wait, exception != null);
+
+        if (elapsed >= slowQueryThresholdNanos) {
+            entry.slowExecutions.increment();
+            slowQueryLogger.warn("{} took {} ms to execute (waited {} ms for a connection){}: {}",
+                    entry.name, TimeUnit.NANOSECONDS.toMillis(elapsed), TimeUnit.NANOSECONDS.toMillis(wait),
+                    exception == null ? "" : " and failed", abbreviate(context.getRenderedSql(), Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * {@return a handler decorator that counts the rows returned or affected by the DAO methods}
+     * <p>The decorator should be registered before any decorator that may skip executing the statement (e.g. the {@link CachingDecorator}),
+     * so that it only counts the rows that were actually read from the database.</p>
+     */
+    public HandlerDecorator decorator() {
+        return (base, sqlObjectType, method) -> {
+            final boolean query = method.isAnnotationPresent(SqlQuery.class);
+            // Generated keys are returned instead of the affected rows
+            if ((!query && !method.isAnnotationPresent(SqlUpdate.class) && !method.isAnnotationPresent(SqlBatch.class)) || method.isAnnotationPresent(GetGeneratedKeys.class)) {
+                return base;
+            }
+
+            final String name = methodName(sqlObjectType, method.getName());
+            return (target, args, handle) -> {
+                final Object result = base.invoke(target, args, handle);
+                final long rows = query ? returnedRows(result) : affectedRows(result);
+                if (rows >= 0) {
+                    entry(name).rows.add(rows);
+                }
+                return result;
+            };
+        };
+    }
+
+    /**
+     * {@return the metrics of all statements, the ones that took the most time in total first}
+     */
+    public List<Stats> stats() {
+        return entries.values().stream()
+                .map(Entry::stats)
+                .sorted(Comparator.comparing(Stats::totalTime).reversed())
+                .toList();
+    }
+
+    private Entry entry(String name) {
+        return entries.computeIfAbsent(name, Entry::new);
+    }
+
+    private String statementName(StatementContext context) {
+        final ExtensionMethod method = context.getExtensionMethod();
+        if (method != null) {
+            return methodName(method.getType(), method.getMethod().getName());
+        }
+
+        final String name = "sql: " + abbreviate(context.getRawSql(), MAX_SQL_LENGTH);
+        if (entries.containsKey(name)) return name;
+        return rawStatements.incrementAndGet() > MAX_RAW_STATEMENTS ? OTHER_STATEMENTS : name;
+    }
+
+    private static String methodName(Class<?> type, String method) {
+        return type.getSimpleName() + "#" + method;
+    }
+
+    private static String abbreviate(String sql, int maxLength) {
+        final String normalised = sql.strip().replaceAll("\\s+", " ");
+        return normalised.length() > maxLength ? normalised.substring(0, maxLength) + "..." : normalised;
+    }
+
+    private static long returnedRows(Object result) {
+        return switch (result) {
+            case null -> 0;
+            case Collection<?> collection -> collection.size();
+            case Map<?, ?> map -> map.size();
+            case Optional<?> optional -> optional.isPresent() ? 1 : 0;
+            // Lazily consumed results cannot be counted without consuming them
+            case Iterable<?> _, Iterator<?> _, BaseStream<?, ?> _ -> -1;
+            default -> 1;
+        };
+    }
+
+    private static long affectedRows(Object result) {
+        return switch (result) {
+            case Number number -> number.longValue();
+            case int[] counts -> {
+                long sum = 0;
+                for (final int count : counts) sum += count;
+                yield sum;
+            }
+            case long[] counts -> {
+                long sum = 0;
+                for (final long count : counts) sum += count;
+                yield sum;
+            }
+            case null, default -> -1;
+        };
+    }
+
+    /**
+     * A snapshot of the metrics of a statement.
+     *
+     * @param statement          the DAO method that executed the statement ({@code DAO#method}), or {@code sql: <statement>} for statements not run by a DAO
+     * @param executions         the amount of times the statement was executed
+     * @param failures           the amount of executions that failed
+     * @param slowExecutions     the amount of executions that were slower than the slow query threshold
+     * @param rows               the total amount of rows returned or affected by the statement
+     * @param totalTime          the total time spent executing the statement
+     * @param averageTime        the average execution time
+     * @param p50                the estimated median execution time
+     * @param p99                the estimated 99th percentile of the execution time
+     * @param maxTime            the longest execution time
+     * @param connectionWait     the total time spent waiting for a pooled connection before executing the statement
+     * @param maxConnectionWait  the longest time spent waiting for a pooled connection before executing the statement
+     * @param histogram          the amount of executions in each bucket of the latency histogram
+     */
+    public record Stats(
+            String statement, long executions, long failures, long slowExecutions, long rows,
+            Duration totalTime, Duration averageTime, Duration p50, Duration p99, Duration maxTime,
+            Duration connectionWait, Duration maxConnectionWait, List<Bucket> histogram
+    ) {
+    }
+
+    /**
+     * A bucket of a latency histogram.
+     *
+     * @param upperBound the execution time up to which executions fall in this bucket, or {@code null} if the bucket is unbounded
+     * @param count      the amount of executions in the bucket
+     */
+    public record Bucket(@Nullable Duration upperBound, long count) {
+    }
+
+    private static final class Entry {
+        private final String name;
+        private final LongAdder executions = new LongAdder(), failures = new LongAdder(), slowExecutions = new LongAdder(), rows = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder(), waitNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong(), maxWaitNanos = new AtomicLong();
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+
+        private Entry(String name) {
+            this.name = name;
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long elapsed, long wait, boolean failed) {
+            executions.increment();
+            if (failed) failures.increment();
+            totalNanos.add(elapsed);
+            maxNanos.accumulateAndGet(elapsed, Math::max);
+            buckets[bucket(elapsed)].increment();
+            if (wait > 0) {
+                waitNanos.add(wait);
+                maxWaitNanos.accumulateAndGet(wait, Math::max);
+            }
+        }
+
+        Stats stats() {
+            final long[] counts = new long[buckets.length];
+            final List<Bucket> histogram = new ArrayList<>(buckets.length);
+            long count = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+                count += counts[i];
+                histogram.add(new Bucket(i < BUCKET_BOUNDS.length ? Duration.ofNanos(BUCKET_BOUNDS[i]) : null, counts[i]));
+            }
+
+            final long total = totalNanos.sum(), max = maxNanos.get();
+            return new Stats(
+                    name, executions.sum(), failures.sum(), slowExecutions.sum(), rows.sum(),
+                    Duration.ofNanos(total), Duration.ofNanos(count == 0 ? 0 : total / count),
+                    Duration.ofNanos(percentile(counts, count, 0.5, max)), Duration.ofNanos(percentile(counts, count, 0.99, max)), Duration.ofNanos(max),
+                    Duration.ofNanos(waitNanos.sum()), Duration.ofNanos(maxWaitNanos.get()), List.copyOf(histogram)
+            );
+        }
+
+        private static int bucket(long elapsed) {
+            for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+                if (elapsed <= BUCKET_BOUNDS[i]) return i;
+            }
+            return BUCKET_BOUNDS.length;
+        }
+
+        /**
+         * Estimate a percentile as the upper bound of the bucket it falls in, capped at the maximum recorded value.
+         */
+        private static long percentile(long[] counts, long total, double percentile, long max) {
+            if (total == 0) return 0;
+            final long rank = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(BUCKET_BOUNDS[i], max);
+            }
+            return max;
+        }
+    }
+}
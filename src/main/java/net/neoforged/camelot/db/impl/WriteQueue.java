@@ -0,0 +1,271 @@
+package net.neoforged.camelot.db.impl;
+
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.HandleCallback;
+import org.jdbi.v3.core.HandleConsumer;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.config.JdbiConfig;
+import org.jdbi.v3.core.extension.ExtensionCallback;
+import org.jdbi.v3.core.extension.ExtensionConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A single-writer queue for a database, which batches the writes submitted to it in group commits.
+ * <p>
+ * Writes are executed by a dedicated thread, in the order in which they were submitted. All writes that are pending when the
+ * writer becomes free are executed in one transaction, each inside its own savepoint, so that a failing write only rolls back itself.
+ * The future returned by each submission is completed only after the transaction containing the write has been committed,
+ * so anything chained on it observes the written data.
+ * <p>
+ * The queue of a database can be obtained using {@link #of(Jdbi)}.
+ */
+public final class WriteQueue implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteQueue.class);
+
+    private final String name;
+    private final Jdbi jdbi;
+    private final int maxBatchSize;
+    private final BlockingQueue<Write<?>> pending = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    private final LongAdder writes = new LongAdder(), failedWrites = new LongAdder(), commits = new LongAdder(), commitNanos = new LongAdder();
+    private final AtomicLong maxCommitNanos = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    /**
+     * Create a new write queue and start its writer thread.
+     *
+     * @param name         the name of the database, used for the thread name and metrics
+     * @param jdbi         the database to write to
+     * @param maxBatchSize the maximum amount of writes committed in a single transaction
+     */
+    public WriteQueue(String name, Jdbi jdbi, int maxBatchSize) {
+        this.name = name;
+        this.jdbi = jdbi;
+        this.maxBatchSize = maxBatchSize;
+        this.writer = Thread.ofPlatform()
+                .name("db-writer-" + name)
+                .daemon(true)
+                .start(this::run);
+    }
+
+    /**
+     * {@return the write queue of the given database}
+     *
+     * @throws IllegalStateException if the database has no write queue
+     */
+    public static WriteQueue of(Jdbi jdbi) {
+        final WriteQueue queue = jdbi.getConfig(Config.class).queue;
+        if (queue == null) {
+            throw new IllegalStateException("Database " + jdbi + " has no write queue");
+        }
+        return queue;
+    }
+
+    /**
+     * Queue a write that produces a result.
+     *
+     * @param callback the callback executing the write, inside the group transaction
+     * @return a future completed with the result of the write once it has been committed
+     */
+    public <T> CompletableFuture<T> submit(HandleCallback<T, ? extends Exception> callback) {
+        final Write<T> write = new Write<>(callback, new CompletableFuture<>());
+        if (!running) {
+            write.future.completeExceptionally(new IllegalStateException("Write queue of " + name + " is closed"));
+            return write.future;
+        }
+        pending.add(write);
+        return write.future;
+    }
+
+    /**
+     * Queue a write.
+     *
+     * @param consumer the consumer executing the write, inside the group transaction
+     * @return a future completed once the write has been committed
+     */
+    public CompletableFuture<Void> use(HandleConsumer<? extends Exception> consumer) {
+        return submit(handle -> {
+            consumer.useHandle(handle);
+            return null;
+        });
+    }
+
+    /**
+     * Queue a write using the extension of the given {@code type}.
+     *
+     * @return a future completed with the result of the write once it has been committed
+     */
+    public <E, T> CompletableFuture<T> withExtension(Class<E> type, ExtensionCallback<T, E, ? extends Exception> callback) {
+        return submit(handle -> callback.withExtension(handle.attach(type)));
+    }
+
+    /**
+     * Queue a write using the extension of the given {@code type}.
+     *
+     * @return a future completed once the write has been committed
+     */
+    public <E> CompletableFuture<Void> useExtension(Class<E> type, ExtensionConsumer<E, ? extends Exception> consumer) {
+        return use(handle -> consumer.useExtension(handle.attach(type)));
+    }
+
+    /**
+     * {@return a future completed once all writes submitted before this call have been committed}
+     */
+    public CompletableFuture<Void> flush() {
+        return use(_ -> {});
+    }
+
+    /**
+     * {@return a snapshot of the metrics of this queue}
+     */
+    public Stats stats() {
+        final long commitCount = commits.sum();
+        return new Stats(
+                name, pending.size(), writes.sum(), failedWrites.sum(), commitCount,
+                Duration.ofNanos(commitCount == 0 ? 0 : commitNanos.sum() / commitCount),
+                Duration.ofNanos(maxCommitNanos.get())
+        );
+    }
+
+    /**
+     * Stop accepting new writes and wait for the pending ones to be committed.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+
+        Write<?> leftover;
+        while ((leftover = pending.poll()) != null) {
+            leftover.future.completeExceptionally(new IllegalStateException("Write queue of " + name + " is closed"));
+        }
+    }
+
+    private void run() {
+        final List<Write<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !pending.isEmpty()) {
+            try {
+                final Write<?> first = pending.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                pending.drainTo(batch, maxBatchSize - 1);
+                commit(batch);
+            } catch (InterruptedException _) {
+                running = false;
+            } catch (Throwable throwable) {
+                LOGGER.error("Write queue of {} encountered an unexpected exception: ", name, throwable);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void commit(List<Write<?>> batch) {
+        final long start = System.nanoTime();
+        final Object[] results = new Object[batch.size()];
+        final Throwable[] failures = new Throwable[batch.size()];
+
+        try (final Handle handle = jdbi.open()) {
+            handle.begin();
+            for (int i = 0; i < batch.size(); i++) {
+                handle.execute("savepoint queued_write");
+                try {
+                    results[i] = batch.get(i).callback.withHandle(handle);
+                    handle.execute("release queued_write");
+                } catch (Throwable throwable) {
+                    failures[i] = throwable;
+                    handle.execute("rollback to queued_write");
+                    handle.execute("release queued_write");
+                }
+            }
+            handle.commit();
+        } catch (Throwable throwable) {
+            // The transaction itself failed, so none of the writes made it to the database
+            failedWrites.add(batch.size());
+            batch.forEach(write -> write.future.completeExceptionally(throwable));
+            LOGGER.error("Failed to commit {} writes to {}: ", batch.size(), name, throwable);
+            return;
+        }
+
+        final long elapsed = System.nanoTime() - start;
+        commits.increment();
+        commitNanos.add(elapsed);
+        maxCommitNanos.accumulateAndGet(elapsed, Math::max);
+
+        for (int i = 0; i < batch.size(); i++) {
+            final CompletableFuture future = batch.get(i).future;
+            if (failures[i] == null) {
+                writes.increment();
+                future.complete(results[i]);
+            } else {
+                failedWrites.increment();
+                future.completeExceptionally(failures[i]);
+            }
+        }
+    }
+
+    private record Write<T>(HandleCallback<T, ? extends Exception> callback, CompletableFuture<T> future) {}
+
+    /**
+     * A snapshot of the metrics of a {@link WriteQueue}.
+     *
+     * @param name                 the name of the database
+     * @param queueDepth           the amount of writes waiting to be executed
+     * @param writes               the total amount of committed writes
+     * @param failedWrites         the total amount of writes that failed
+     * @param commits              the total amount of group commits
+     * @param averageCommitLatency the average time taken to execute and commit a batch of writes
+     * @param maxCommitLatency     the longest time taken to execute and commit a batch of writes
+     */
+    public record Stats(
+            String name, int queueDepth, long writes, long failedWrites, long commits,
+            Duration averageCommitLatency, Duration maxCommitLatency
+    ) {
+    }
+
+    /**
+     * The JDBI configuration holding the write queue of a database.
+     */
+    public static final class Config implements JdbiConfig<Config> {
+        private WriteQueue queue;
+
+        public Config() {
+        }
+
+        private Config(Config other) {
+            this.queue = other.queue;
+        }
+
+        /**
+         * Set the write queue of the database.
+         */
+        public Config setQueue(WriteQueue queue) {
+            this.queue = queue;
+            return this;
+        }
+
+        @Override
+        public Config createCopy() {
+            return new Config(this);
+        }
+    }
+}
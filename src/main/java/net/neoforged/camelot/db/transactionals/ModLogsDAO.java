@@ -28,19 +28,35 @@ public interface ModLogsDAO extends Transactional<ModLogsDAO> {
      * @return the logs matching all above conditions
      */
     default List<ModLogEntry> getLogs(long user, long guild, int from, int limit, @Nullable ModLogEntry.Type include, @Nullable ModLogEntry.Type exclude) {
+        return getLogs(user, guild, Long.MIN_VALUE, from, limit, include, exclude);
+    }
+
+    /**
+     * Gets the log entries of a user, in a guild, ordered by their ID.
+     *
+     * @param user    the ID of the user whose logs to query
+     * @param guild   the guild from which to query logs
+     * @param after   the ID after which to start querying logs, exclusive. Used for keyset pagination
+     * @param from    the amount of logs after {@code after} to skip
+     * @param limit   the maximum amount of logs to query
+     * @param include an optional type-only filter
+     * @param exclude an optional exclude-type filter
+     * @return the logs matching all above conditions
+     */
+    default List<ModLogEntry> getLogs(long user, long guild, long after, int from, int limit, @Nullable ModLogEntry.Type include, @Nullable ModLogEntry.Type exclude) {
         final String statement;
         final int fl;
         if (include != null) {
-            statement = "select * from modlogs where user = :user and guild = :guild and type == :type limit :limit offset :from";
+            statement = "select * from modlogs where user = :user and guild = :guild and type == :type and id > :after order by id limit :limit offset :from";
             fl = include.ordinal();
         } else if (exclude != null) {
-            statement = "select * from modlogs where user = :user and guild = :guild and type != :type limit :limit offset :from";
+            statement = "select * from modlogs where user = :user and guild = :guild and type != :type and id > :after order by id limit :limit offset :from";
             fl = exclude.ordinal();
         } else {
-            statement = "select * from modlogs where user = :user and guild = :guild limit :limit offset :from";
+            statement = "select * from modlogs where user = :user and guild = :guild and id > :after order by id limit :limit offset :from";
             fl = -1;
         }
-        return getHandle().createQuery(statement).bind("user", user).bind("guild", guild).bind("from", from).bind("limit", limit).bind("type", fl).map(ModLogEntry.Mapper.INSTANCE).list();
+        return getHandle().createQuery(statement).bind("user", user).bind("guild", guild).bind("after", after).bind("from", from).bind("limit", limit).bind("type", fl).map(ModLogEntry.Mapper.INSTANCE).list();
     }
 
     /**
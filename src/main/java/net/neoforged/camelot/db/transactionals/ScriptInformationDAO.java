@@ -0,0 +1,30 @@
+package net.neoforged.camelot.db.transactionals;
+
+import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.statement.SqlQuery;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+import org.jdbi.v3.sqlobject.transaction.Transactional;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A transactional used to store the static information of scripts, so that it does not need to be extracted by evaluating them.
+ *
+ * @see net.neoforged.camelot.script.ScriptInformationCache
+ */
+public interface ScriptInformationDAO extends Transactional<ScriptInformationDAO> {
+    /**
+     * {@return the serialized information of the script with the given {@code hash}, or {@code null} if it is not known}
+     */
+    @Nullable
+    @SqlQuery("select information from script_information where hash = :hash")
+    String getInformation(@Bind("hash") String hash);
+
+    /**
+     * Store the serialized information of the script with the given {@code hash}.
+     *
+     * @param hash        the hash of the script
+     * @param information the serialized information
+     */
+    @SqlUpdate("insert or replace into script_information(hash, information) values (:hash, :information)")
+    void storeInformation(@Bind("hash") String hash, @Bind("information") String information);
+}
@@ -1,5 +1,6 @@
 package net.neoforged.camelot.db.transactionals;
 
+import net.neoforged.camelot.db.api.Cached;
 import net.neoforged.camelot.db.api.RegisterExecutionCallbacks;
 import net.neoforged.camelot.db.callback.SlashTrickCallbacks;
 import net.neoforged.camelot.db.schemas.SlashTrick;
@@ -26,20 +27,22 @@ public interface SlashTricksDAO {
     /**
      * {@return the number of promoted tricks in the {@code guild}}
      */
+    @Cached
     @SqlQuery("select count(*) from slash_tricks where guild = ?")
     int getPromotedCount(long guild);
 
     /**
-     * Gets all promoted tricks in the given range.
+     * Gets all promoted tricks in the given range, ordered by the ID of the trick.
      *
      * @param guildId the guild whose promoted tricks to query
-     * @param from    the 0-based index of the first trick to query, inclusive
+     * @param after   the trick ID after which to start querying, exclusive. Used for keyset pagination
+     * @param from    the amount of tricks after {@code after} to skip
      * @param limit   the maximum amount of tricks to query
      * @return the promoted tricks
      */
     @UseRowMapper(SlashTrick.Mapper.class)
-    @SqlQuery("select trick, guild, name, category, subgroup from slash_tricks where guild = :guild limit :limit offset :from")
-    List<SlashTrick> getPromotedTricksIn(@Bind("guild") long guildId, @Bind("from") int from, @Bind("limit") int limit);
+    @SqlQuery("select trick, guild, name, category, subgroup from slash_tricks where guild = :guild and trick > :after order by trick limit :limit offset :from")
+    List<SlashTrick> getPromotedTricksIn(@Bind("guild") long guildId, @Bind("after") long after, @Bind("from") int from, @Bind("limit") int limit);
 
     /**
      * {@return all promoted "aliases" of the trick with the given ID}
@@ -5,6 +5,8 @@ import org.jdbi.v3.sqlobject.statement.SqlQuery;
 import org.jdbi.v3.sqlobject.statement.SqlUpdate;
 import org.jdbi.v3.sqlobject.transaction.Transactional;
 
+import java.util.List;
+
 /**
  * Transactionals used to interact with statistics.
  */
@@ -24,6 +26,12 @@ public interface StatsDAO {
                     .execute((statementSupplier, _) -> statementSupplier.get().getResultSet().getInt("prefix_uses"));
         }
 
+        /**
+         * {@return the IDs of the {@code limit} most used tricks, by their total uses}
+         */
+        @SqlQuery("select trick from trick_stats order by prefix_uses + slash_uses desc limit :limit")
+        List<Integer> getMostUsedTricks(@Bind("limit") int limit);
+
         default int getSlashUses(int trickId) {
             return getHandle().createQuery("select slash_uses from trick_stats where trick = ?")
                     .bind(0, trickId)
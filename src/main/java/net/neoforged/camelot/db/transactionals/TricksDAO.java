@@ -1,5 +1,7 @@
 package net.neoforged.camelot.db.transactionals;
 
+import net.neoforged.camelot.db.api.Cached;
+import net.neoforged.camelot.db.api.InvalidatesCache;
 import net.neoforged.camelot.db.api.RegisterExecutionCallbacks;
 import net.neoforged.camelot.db.callback.TrickCallbacks;
 import net.neoforged.camelot.db.schemas.Trick;
@@ -20,19 +22,21 @@ import java.util.List;
 public interface TricksDAO extends Transactional<TricksDAO> {
 
     /**
-     * Gets all known tricks in the given range.
+     * Gets all known tricks in the given range, ordered by their ID.
      *
-     * @param from  the 0-based index of the first trick to query, inclusive
+     * @param after the ID after which to start querying tricks, exclusive. Used for keyset pagination
+     * @param from  the amount of tricks after {@code after} to skip
      * @param limit the maximum amount of tricks to query
      * @return the tricks
      */
-    @SqlQuery("select * from tricks limit :limit offset :from")
-    List<Trick> getTricks(@Bind("from") int from, @Bind("limit") int limit);
+    @SqlQuery("select * from tricks where id > :after order by id limit :limit offset :from")
+    List<Trick> getTricks(@Bind("after") long after, @Bind("from") int from, @Bind("limit") int limit);
 
     /**
      * {@return the ID of the trick with the given {@code name}, or {@code null} if a trick with that alias does not exist}
      */
     @Nullable
+    @Cached
     @SqlQuery("select trick from trick_names where name = :name")
     Integer getTrickByName(@Bind("name") String name);
 
@@ -40,12 +44,14 @@ public interface TricksDAO extends Transactional<TricksDAO> {
      * {@return the trick with the given {@code id}, or {@code null} if one was not found}
      */
     @Nullable
+    @Cached
     @SqlQuery("select * from tricks where id = :id")
     Trick getTrick(@Bind("id") int id);
 
     /**
      * {@return the number of tricks}
      */
+    @Cached
     @SqlQuery("select count(*) from tricks")
     int getTrickAmount();
 
@@ -99,6 +105,7 @@ public interface TricksDAO extends Transactional<TricksDAO> {
     /**
      * {@return all the aliases of the trick with the given {@code trickId}}
      */
+    @Cached
     @SqlQuery("select name from trick_names where trick = :id")
     List<String> getTrickNames(@Bind("id") int trickId);
 
@@ -109,6 +116,7 @@ public interface TricksDAO extends Transactional<TricksDAO> {
      * @param owner  the owner of the trick
      * @return the ID of the newly-created trick
      */
+    @InvalidatesCache
     default int insertTrick(String script, long owner) {
         return getHandle().createUpdate("insert into tricks(script, owner, privileged) values (?, ?, false) returning id;")
                 .bind(0, script)
@@ -6,8 +6,9 @@ import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.dv8tion.jda.api.hooks.EventListener;
 import net.neoforged.camelot.Database;
 import net.neoforged.camelot.api.config.ConfigOption;
-import org.jetbrains.annotations.NotNull;
+import net.neoforged.camelot.db.impl.WriteQueue;
 import net.neoforged.camelot.db.transactionals.CountersDAO;
+import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 
@@ -23,24 +24,31 @@ public record CountersListener(ConfigOption<Guild, Boolean> option) implements E
         final String content = event.getMessage().getContentRaw();
         if (content.indexOf(' ') >= 0 || content.startsWith("https://") || content.startsWith("http://")) return; // Counters shouldn't have spaces anywhere nor should they be links
 
+        final int delta;
         if (content.endsWith("==")) {
-            final String value = content.substring(0, content.length() - 2);
-            final int amount = default0(Database.main().withExtension(CountersDAO.class, db -> db.getCounterAmount(event.getGuild().getIdLong(), value)));
-            event.getChannel().sendMessage(value + " == " + amount)
-                    .setAllowedMentions(List.of()).queue();
+            delta = 0;
         } else if (content.endsWith("++")) {
-            final String value = content.substring(0, content.length() - 2);
-            final int amount = default0(Database.main().withExtension(CountersDAO.class, db -> db.getCounterAmount(event.getGuild().getIdLong(), value))) + 1;
-            Database.main().useExtension(CountersDAO.class, db -> db.updateAmount(event.getGuild().getIdLong(), value, amount));
-            event.getChannel().sendMessage(value + " == " + amount)
-                    .setAllowedMentions(List.of()).queue();
+            delta = 1;
         } else if (content.endsWith("--")) {
-            final String value = content.substring(0, content.length() - 2);
-            final int amount = default0(Database.main().withExtension(CountersDAO.class, db -> db.getCounterAmount(event.getGuild().getIdLong(), value))) - 1;
-            Database.main().useExtension(CountersDAO.class, db -> db.updateAmount(event.getGuild().getIdLong(), value, amount));
-            event.getChannel().sendMessage(value + " == " + amount)
-                    .setAllowedMentions(List.of()).queue();
+            delta = -1;
+        } else {
+            return;
         }
+
+        final long guild = event.getGuild().getIdLong();
+        final String value = content.substring(0, content.length() - 2);
+
+        // Both the queries and the read-modify-write updates go through the write queue so that they observe all
+        // previously issued updates, and so that concurrent updates of the same counter cannot be lost
+        WriteQueue.of(Database.main()).withExtension(CountersDAO.class, db -> {
+                    final int amount = default0(db.getCounterAmount(guild, value)) + delta;
+                    if (delta != 0) {
+                        db.updateAmount(guild, value, amount);
+                    }
+                    return amount;
+                })
+                .thenAccept(amount -> event.getChannel().sendMessage(value + " == " + amount)
+                        .setAllowedMentions(List.of()).queue());
     }
 
     private static int default0(Integer integer) {
@@ -14,19 +14,20 @@ import org.jetbrains.annotations.NotNull;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Handles unbanning users that have a pending unban at a specified point in time
  * (as Discord doesn't have temporary bans, only indefinite ones).
+ * <p>
+ * The pending unbans are checked separately for the guilds of each shard.
  */
-public final class PendingUnbansHandler implements EventListener, Runnable {
+public final class PendingUnbansHandler implements EventListener, Consumer<JDA> {
     private static final Set<ErrorResponse> IGNORED_ERRORS = EnumSet.of(ErrorResponse.UNKNOWN_USER, ErrorResponse.UNKNOWN_BAN);
 
-    private final JDA jda;
     private final PendingUnbansDAO db;
 
-    public PendingUnbansHandler(JDA jda, PendingUnbansDAO db) {
-        this.jda = jda;
+    public PendingUnbansHandler(PendingUnbansDAO db) {
         this.db = db;
     }
 
@@ -39,8 +40,8 @@ public final class PendingUnbansHandler implements EventListener, Runnable {
     }
 
     @Override
-    public void run() {
-        for (final Guild guild : jda.getGuilds()) {
+    public void accept(JDA shard) {
+        for (final Guild guild : shard.getGuilds()) {
             final List<Long> users = db.getUsersToUnban(guild.getIdLong());
             if (!users.isEmpty()) {
                 for (final long toUnban : users) {
@@ -14,6 +14,7 @@ import net.dv8tion.jda.api.utils.messages.MessageEditData;
 import net.neoforged.camelot.BotMain;
 import net.neoforged.camelot.Database;
 import net.neoforged.camelot.api.config.ConfigOption;
+import net.neoforged.camelot.api.config.ConfigSnapshot;
 import net.neoforged.camelot.db.schemas.SlashTrick;
 import net.neoforged.camelot.db.schemas.Trick;
 import net.neoforged.camelot.db.transactionals.SlashTricksDAO;
@@ -23,6 +24,7 @@ import net.neoforged.camelot.module.TricksModule;
 import net.neoforged.camelot.script.ScriptContext;
 import net.neoforged.camelot.script.ScriptReplier;
 import net.neoforged.camelot.script.ScriptUtils;
+import net.neoforged.camelot.util.MessageFacts;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.EnumSet;
@@ -38,19 +40,21 @@ public record TrickListener(TricksModule module, ConfigOption<Guild, String> pre
 
     public void onEvent(@NotNull GenericEvent gevent) {
         if (!(gevent instanceof MessageReceivedEvent event)) return;
-        if (!event.isFromGuild() || !enabled.get(event.getGuild()) || event.getAuthor().isBot() || event.getAuthor().isSystem()) return;
+        if (!event.isFromGuild()) return;
 
-        var prefix = prefix().get(event.getGuild());
+        final MessageFacts facts = MessageFacts.of(event.getMessage());
+        if (!facts.fromUser()) return;
 
-        final String content = event.getMessage().getContentRaw();
-        if (content.startsWith(prefix)) {
-            final int nextSpace = content.indexOf(' ');
-            final String trickName = content.substring(prefix.length(), nextSpace < 0 ? content.length() : nextSpace);
-            final Trick trick = Database.main().withExtension(TricksDAO.class, db -> db.getNamedTrick(trickName));
+        final ConfigSnapshot<Guild> config = module.bot().guildConfigs().snapshot(event.getGuild());
+        if (!config.get(enabled)) return;
+
+        final MessageFacts.PrefixMatch command = facts.prefixed(config.get(prefix()));
+        if (command != null) {
+            final Trick trick = Database.main().withExtension(TricksDAO.class, db -> db.getNamedTrick(command.command()));
 
             if (trick == null) return;
 
-            if (enforcePromotions.get(event.getGuild())) {
+            if (config.get(enforcePromotions)) {
                 final SlashTrick promotion = Database.main().withExtension(SlashTricksDAO.class, db -> db.getPromotion(trick.id(), event.getGuild().getIdLong()));
                 if (promotion != null) {
                     final Command.Subcommand asSlash = module
@@ -64,8 +68,6 @@ public record TrickListener(TricksModule module, ConfigOption<Guild, String> pre
                 }
             }
 
-            final String args = nextSpace < 0 ? "" : content.substring(nextSpace + 1);
-
             final ScriptContext context = new ScriptContext(event.getJDA(), event.getGuild(), event.getMember(), event.getChannel(), new ScriptReplier() {
                 Message reply;
 
@@ -98,9 +100,9 @@ public record TrickListener(TricksModule module, ConfigOption<Guild, String> pre
                 }
             }, trick.privileged());
 
-            ScriptUtils.submitExecution(context, trick.script(), args);
+            ScriptUtils.submitExecution(context, trick, command.arguments());
 
-            BotMain.stats(StatsDAO.Tricks.class, extension -> extension.incrementPrefixUses(trick.id()));
+            BotMain.recordStats(StatsDAO.Tricks.class, extension -> extension.incrementPrefixUses(trick.id()));
         }
     }
 }
@@ -3,10 +3,13 @@ package net.neoforged.camelot.log;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.events.guild.GuildAuditLogEntryCreateEvent;
 import net.neoforged.camelot.Database;
+import net.neoforged.camelot.db.impl.WriteQueue;
 import net.neoforged.camelot.db.schemas.ModLogEntry;
 import net.neoforged.camelot.db.transactionals.ModLogsDAO;
 import net.neoforged.camelot.services.ModerationRecorderService;
 import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 
@@ -15,6 +18,8 @@ import java.time.Duration;
  * such that they can be retrieved through {@code /modlogs}.
  */
 public class ModerationActionRecorder implements ModerationRecorderService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModerationActionRecorder.class);
+
     @Override
     public void onBan(Guild guild, long member, long moderator, @Nullable Duration duration, @Nullable String reason) {
         record(ModLogEntry.ban(member, guild.getIdLong(), moderator, duration, reason));
@@ -51,6 +56,13 @@ public class ModerationActionRecorder implements ModerationRecorderService {
     }
 
     private void record(ModLogEntry entry) {
-        entry.setId(Database.main().withExtension(ModLogsDAO.class, db -> db.insert(entry)));
+        WriteQueue.of(Database.main()).withExtension(ModLogsDAO.class, db -> db.insert(entry))
+                .whenComplete((id, exception) -> {
+                    if (exception == null) {
+                        entry.setId(id);
+                    } else {
+                        LOGGER.error("Failed to record moderation action {}: ", entry, exception);
+                    }
+                });
     }
 }
@@ -9,7 +9,6 @@ import j2html.tags.specialized.HrTag;
 import jakarta.mail.MessagingException;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.components.actionrow.ActionRow;
 import net.dv8tion.jda.api.components.buttons.Button;
 import net.dv8tion.jda.api.components.label.Label;
@@ -24,10 +23,8 @@ import net.dv8tion.jda.api.entities.UserSnowflake;
 import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
-import net.dv8tion.jda.api.events.GenericEvent;
 import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
-import net.dv8tion.jda.api.hooks.EventListener;
 import net.dv8tion.jda.api.interactions.modals.ModalMapping;
 import net.dv8tion.jda.api.modals.Modal;
 import net.dv8tion.jda.api.requests.ErrorResponse;
@@ -53,6 +50,7 @@ import net.neoforged.camelot.services.ModerationRecorderService;
 import net.neoforged.camelot.services.ServiceRegistrar;
 import net.neoforged.camelot.api.config.DateUtils;
 import net.neoforged.camelot.util.MailService;
+import net.neoforged.camelot.util.jda.EventRouter;
 import net.neoforged.camelot.util.oauth.OAuthClient;
 import net.neoforged.camelot.util.oauth.OAuthScope;
 import net.neoforged.camelot.util.oauth.TokenResponse;
@@ -98,6 +96,7 @@ import static j2html.TagCreator.*;
  */
 @RegisterCamelotModule
 public class BanAppealModule extends CamelotModule.Base<BanAppeals> {
+    private static final String ID_PREFIX = "ban-appeals/";
 
     private final ConfigOption<Guild, Long> appealsChannel;
     private final ConfigOption<Guild, Integer> responseTime;
@@ -147,14 +146,9 @@ public class BanAppealModule extends CamelotModule.Base<BanAppeals> {
     }
 
     @Override
-    public void registerListeners(JDABuilder builder) {
-        builder.addEventListeners((EventListener) (GenericEvent gevent) -> {
-            if (gevent instanceof ButtonInteractionEvent event) {
-                onButton(event);
-            } else if (gevent instanceof ModalInteractionEvent event) {
-                onModal(event);
-            }
-        });
+    public void registerListeners(EventRouter router) {
+        bot().interactions().claim(ID_PREFIX, ButtonInteractionEvent.class, this::onButton);
+        bot().interactions().claim(ID_PREFIX, ModalInteractionEvent.class, this::onModal);
     }
 
     @Override
@@ -187,7 +181,7 @@ public class BanAppealModule extends CamelotModule.Base<BanAppeals> {
         }
 
         final String guildId = context.pathParam("serverId");
-        final Guild guild = BotMain.get().getGuildById(guildId);
+        final Guild guild = BotMain.shards().getGuildById(guildId);
         if (guild == null || appealsChannel.get(guild) == null) {
             context.result(new JSONObject().put("error", "Unknown server").toString())
                     .status(HttpStatus.NOT_FOUND);
@@ -237,7 +231,7 @@ public class BanAppealModule extends CamelotModule.Base<BanAppeals> {
             return;
         }
 
-        final User user = BotMain.get().retrieveUserById(selfId).complete();
+        final User user = BotMain.shards().retrieveUserById(selfId).complete();
 
         embed.setAuthor(user.getEffectiveName(), null, user.getEffectiveAvatarUrl())
                 .setFooter("User ID: " + user.getId())
@@ -332,7 +326,7 @@ public class BanAppealModule extends CamelotModule.Base<BanAppeals> {
         final EmbedBuilder embed = new EmbedBuilder();
         final JSONObject payload = new JSONObject(context.body());
 
-        final User user = BotMain.get().retrieveUserById(selfId).complete();
+        final User user = BotMain.shards().retrieveUserById(selfId).complete();
 
         if (payload.getString("reason").length() > 3900) {
             context.result(new JSONObject().put("error", "Reason too long").toString())
@@ -357,13 +351,13 @@ public class BanAppealModule extends CamelotModule.Base<BanAppeals> {
             embed.addField("Feedback", payload.getString("feedback"), false);
         }
 
-        final ThreadChannel thread = BotMain.get().getChannelById(MessageChannel.class, appealsChannel.get(guild))
+        final ThreadChannel thread = BotMain.shards().getChannelById(MessageChannel.class, appealsChannel.get(guild))
                 .sendMessageEmbeds(embed.build())
                 .addComponents(ActionRow.of(
-                        Button.success("ban-appeals/approve/" + selfId, "Approve"),
-                        Button.danger("ban-appeals/reject/" + selfId, "Reject")
+                        Button.success(ID_PREFIX + "approve/" + selfId, "Approve"),
+                        Button.danger(ID_PREFIX + "reject/" + selfId, "Reject")
                 ))
-                .addComponents(ActionRow.of(Button.secondary("ban-appeals/followup/" + selfId, "Follow up with a question")))
+                .addComponents(ActionRow.of(Button.secondary(ID_PREFIX + "followup/" + selfId, "Follow up with a question")))
                 .flatMap(msg -> msg.createThreadChannel("Discussion of appeal of " + user.getEffectiveName()))
                 .complete();
 
@@ -385,9 +379,7 @@ public class BanAppealModule extends CamelotModule.Base<BanAppeals> {
     }
 
     private void onModal(ModalInteractionEvent event) {
-        final String id = event.getModalId();
-        if (!id.startsWith("ban-appeals/")) return;
-        final String[] split = id.split("/");
+        final String[] split = event.getModalId().split("/");
 
         final long userId = Long.parseLong(split[2]);
         final var appeal = Database.appeals().withExtension(BanAppealsDAO.class, db -> db.getAppeal(event.getGuild().getIdLong(), userId));
@@ -482,9 +474,7 @@ public class BanAppealModule extends CamelotModule.Base<BanAppeals> {
     }
 
     private void onButton(ButtonInteractionEvent event) {
-        final String id = event.getButton().getCustomId();
-        if (id == null || !id.startsWith("ban-appeals/")) return;
-        final String[] split = id.split("/");
+        final String[] split = event.getComponentId().split("/");
 
         final long userId = Long.parseLong(split[2]);
         final var appeal = Database.appeals().withExtension(BanAppealsDAO.class, db -> db.getAppeal(event.getGuild().getIdLong(), userId));
@@ -496,16 +486,16 @@ public class BanAppealModule extends CamelotModule.Base<BanAppeals> {
         assert event.getGuild() != null;
 
         switch (split[1]) {
-            case "followup" -> event.replyModal(Modal.create("ban-appeals/followup/" + userId, "Send reply")
+            case "followup" -> event.replyModal(Modal.create(ID_PREFIX + "followup/" + userId, "Send reply")
                             .addComponents(Label.of("Reply", TextInput.create("reply", TextInputStyle.PARAGRAPH).setRequired(true).build()))
                             .build())
                     .queue();
-            case "reject" -> event.replyModal(Modal.create("ban-appeals/reject/" + userId, "Reject appeal")
+            case "reject" -> event.replyModal(Modal.create(ID_PREFIX + "reject/" + userId, "Reject appeal")
                             .addComponents(Label.of("Reason", TextInput.create("reason", TextInputStyle.PARAGRAPH).setRequired(true).build()))
                             .addComponents(Label.of("Block days", "The amount of days to block the user from re-sending an appeal for", TextInput.create("blockdays", TextInputStyle.SHORT).setRequired(false).build()))
                             .build())
                     .queue();
-            case "approve" -> event.replyModal(Modal.create("ban-appeals/approve/" + userId, "Approve appeal")
+            case "approve" -> event.replyModal(Modal.create(ID_PREFIX + "approve/" + userId, "Approve appeal")
                     .addComponents(Label.of("Message", "Optional message sent to the appellee accompanying their invite to join the server", TextInput.create("message", TextInputStyle.PARAGRAPH).setRequired(false).build()))
                     .build())
                     .queue();
@@ -551,7 +541,7 @@ public class BanAppealModule extends CamelotModule.Base<BanAppeals> {
         final long selfId = Long.parseLong(self.getString("id"));
 
         final String guildId = context.pathParam("serverId");
-        final Guild guild = BotMain.get().getGuildById(guildId);
+        final Guild guild = BotMain.shards().getGuildById(guildId);
         if (guild == null || appealsChannel.get(guild) == null) {
             context.html(WebServer.tag()
                     .withTitle(title("Unknown server"))
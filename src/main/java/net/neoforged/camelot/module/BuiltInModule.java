@@ -3,8 +3,9 @@ package net.neoforged.camelot.module;
 import com.jagrosh.jdautilities.command.CommandClientBuilder;
 import com.jagrosh.jdautilities.command.SlashCommand;
 import com.jagrosh.jdautilities.command.SlashCommandEvent;
-import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
 import net.neoforged.camelot.Database;
 import net.neoforged.camelot.ModuleProvider;
 import net.neoforged.camelot.ap.RegisterCamelotModule;
@@ -13,6 +14,7 @@ import net.neoforged.camelot.listener.DismissListener;
 import net.neoforged.camelot.module.api.CamelotModule;
 import net.neoforged.camelot.module.api.ParameterType;
 import net.neoforged.camelot.util.Emojis;
+import net.neoforged.camelot.util.jda.EventRouter;
 
 import java.io.IOException;
 import java.sql.SQLException;
@@ -63,8 +65,9 @@ public class BuiltInModule extends CamelotModule.Base<ModuleConfiguration.BuiltI
     }
 
     @Override
-    public void registerListeners(JDABuilder builder) {
-        builder.addEventListeners(Emojis.MANAGER, new DismissListener());
+    public void registerListeners(EventRouter router) {
+        router.listen("app emojis", Emojis.MANAGER, ReadyEvent.class);
+        bot().interactions().claim("dismiss", ButtonInteractionEvent.class, new DismissListener()::onEvent);
     }
 
     @Override
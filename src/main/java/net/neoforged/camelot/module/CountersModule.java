@@ -1,7 +1,7 @@
 package net.neoforged.camelot.module;
 
-import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import net.neoforged.camelot.ModuleProvider;
 import net.neoforged.camelot.ap.RegisterCamelotModule;
 import net.neoforged.camelot.api.config.ConfigOption;
@@ -9,6 +9,7 @@ import net.neoforged.camelot.api.config.type.Options;
 import net.neoforged.camelot.config.module.Counters;
 import net.neoforged.camelot.listener.CountersListener;
 import net.neoforged.camelot.module.api.CamelotModule;
+import net.neoforged.camelot.util.jda.EventRouter;
 
 /**
  * The module for counters.
@@ -33,7 +34,7 @@ public class CountersModule extends CamelotModule.Base<Counters> {
     }
 
     @Override
-    public void registerListeners(JDABuilder builder) {
-        builder.addEventListeners(new CountersListener(enabled));
+    public void registerListeners(EventRouter router) {
+        router.listen("counters", new CountersListener(enabled), MessageReceivedEvent.class);
     }
 }
@@ -4,6 +4,7 @@ import net.neoforged.camelot.Database;
 import net.neoforged.camelot.ModuleProvider;
 import net.neoforged.camelot.ap.RegisterCamelotModule;
 import net.neoforged.camelot.config.module.Statistics;
+import net.neoforged.camelot.db.impl.WriteQueue;
 import net.neoforged.camelot.db.transactionals.StatsDAO;
 import net.neoforged.camelot.module.api.CamelotModule;
 import org.jdbi.v3.core.extension.ExtensionConsumer;
@@ -29,4 +30,17 @@ public class StatsModule extends CamelotModule.Base<Statistics> {
         if (type == StatsDAO.Tricks.class && !config().isTricks()) return;
         Database.stats().useExtension(type, dao);
     }
+
+    /**
+     * Queue a write using the extension of the given {@code type}. The write will be committed together with
+     * other pending statistic updates.
+     */
+    public <T extends StatsDAO> void record(Class<T> type, ExtensionConsumer<T, RuntimeException> dao) {
+        if (type == StatsDAO.Tricks.class && !config().isTricks()) return;
+        WriteQueue.of(Database.stats()).useExtension(type, dao)
+                .exceptionally(exception -> {
+                    logger.error("Failed to record statistics: ", exception);
+                    return null;
+                });
+    }
 }
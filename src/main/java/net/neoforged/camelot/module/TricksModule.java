@@ -5,11 +5,17 @@ import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
 import net.dv8tion.jda.api.events.guild.GuildReadyEvent;
-import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.events.interaction.ModalInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.neoforged.camelot.BotMain;
 import net.neoforged.camelot.Database;
 import net.neoforged.camelot.ModuleProvider;
 import net.neoforged.camelot.ap.RegisterCamelotModule;
@@ -21,21 +27,36 @@ import net.neoforged.camelot.commands.utility.ManageTrickCommand;
 import net.neoforged.camelot.commands.utility.TrickCommand;
 import net.neoforged.camelot.config.module.Tricks;
 import net.neoforged.camelot.db.transactionals.SlashTricksDAO;
+import net.neoforged.camelot.db.transactionals.StatsDAO;
 import net.neoforged.camelot.db.transactionals.TricksDAO;
 import net.neoforged.camelot.listener.TrickListener;
 import net.neoforged.camelot.module.api.CamelotModule;
 import net.neoforged.camelot.module.api.ParameterType;
+import net.neoforged.camelot.script.ContextPool;
 import net.neoforged.camelot.script.ScriptContext;
-import net.neoforged.camelot.script.ScriptObject;
+import net.neoforged.camelot.script.ScriptScheduler;
+import net.neoforged.camelot.script.ScriptShape;
+import net.neoforged.camelot.script.ScriptSources;
+import net.neoforged.camelot.script.ScriptUtils;
 import net.neoforged.camelot.script.SlashTrickManager;
+import net.neoforged.camelot.util.jda.EventRouter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The module for tricks.
  */
 @RegisterCamelotModule
 public class TricksModule extends CamelotModule.Base<Tricks> {
-    public record CompilingScript(ScriptContext context, ScriptObject object) {}
-    public static final ParameterType<CompilingScript> COMPILING_SCRIPT = ParameterType.get("compilingscript", CompilingScript.class);
+    /**
+     * The shapes of the objects given to scripts, propagated once when the module is initialised so that other modules can add their own members.
+     */
+    public record ScriptShapes(ScriptShape<ScriptContext> script, ScriptShape<Guild> guild, ScriptShape<Member> member, ScriptShape<User> user, ScriptShape<MessageChannel> channel) {}
+    public static final ParameterType<ScriptShapes> SCRIPT_SHAPES = ParameterType.get("scriptshapes", ScriptShapes.class);
 
     private final ConfigOption<Guild, Boolean> messageCommandTricks, forcePromoted;
     public final ConfigOption<Guild, RoleSet> trickMasterRoles;
@@ -70,11 +91,47 @@ public class TricksModule extends CamelotModule.Base<Tricks> {
      */
     public final Long2ObjectMap<SlashTrickManager> slashTrickManagers = Long2ObjectMaps.synchronize(new Long2ObjectOpenHashMap<>());
 
+    private ContextPool contexts;
+    private ScriptScheduler scheduler;
+
+    @Override
+    public void init() {
+        contexts = new ContextPool(config().getContextPoolSize(), ScriptUtils::createContext);
+        scheduler = new ScriptScheduler(config().getExecutionThreads(), new ScriptScheduler.Limits(
+                config().getMaxQueuedPerUser(), config().getMaxQueuedPerGuild(), config().getMaxQueuedExecutions()
+        ));
+        BotMain.EXECUTOR.scheduleAtFixedRate(() -> {
+            scheduler.logStats();
+            contexts.logStats();
+        }, 5, 5, TimeUnit.MINUTES);
+        bot().propagateParameter(SCRIPT_SHAPES, new ScriptShapes(ScriptContext.SCRIPT, ScriptContext.GUILD, ScriptContext.MEMBER, ScriptContext.USER, ScriptContext.MESSAGE_CHANNEL));
+    }
+
+    /**
+     * {@return the pool of the contexts scripts are evaluated in}
+     */
+    public ContextPool contexts() {
+        return contexts;
+    }
+
+    /**
+     * {@return the scheduler running scripts}
+     */
+    public ScriptScheduler scheduler() {
+        return scheduler;
+    }
+
     @Override
     public String id() {
         return "tricks";
     }
 
+    @Override
+    public Set<CacheFlag> getRequiredCacheFlags() {
+        // Scripts can list the emojis of the guild
+        return Set.of(CacheFlag.EMOJI);
+    }
+
     @Override
     public void registerCommands(CommandClientBuilder builder) {
         builder.addSlashCommands(new ManageTrickCommand(bot()), new TrickCommand())
@@ -82,36 +139,46 @@ public class TricksModule extends CamelotModule.Base<Tricks> {
     }
 
     @Override
-    public void registerListeners(JDABuilder builder) {
-        builder.addEventListeners((EventListener) EvalCommand::onEvent)
-                .addEventListeners((EventListener) gevent -> {
-                    switch (gevent) {
-                        case GuildReadyEvent event -> {
-                            if (slashTrickManagers.containsKey(event.getGuild().getIdLong())) return;
-
-                            final SlashTrickManager manager = new SlashTrickManager(
-                                    event.getGuild().getIdLong(), Database.main().onDemand(SlashTricksDAO.class), Database.main().onDemand(TricksDAO.class)
-                            );
-                            manager.updateCommands(event.getGuild());
-                            event.getJDA().addEventListener(manager);
-                            slashTrickManagers.put(event.getGuild().getIdLong(), manager);
-                        }
-
-                        case GuildLeaveEvent event -> {
-                            final SlashTrickManager trickManager = slashTrickManagers.get(event.getGuild().getIdLong());
-                            if (trickManager == null) return;
-
-                            event.getJDA().removeEventListener(trickManager);
-                            slashTrickManagers.remove(event.getGuild().getIdLong());
-                        }
-
-                        default -> {}
-                    }
-                });
+    public void registerListeners(EventRouter router) {
+        bot().interactions().claim(EvalCommand.EVAL_ID, ModalInteractionEvent.class, EvalCommand::onEvent);
+        bot().interactions().claim(EvalCommand.ADD_TRICK_ID, ModalInteractionEvent.class, EvalCommand::onEvent);
+        router.on("slash tricks setup", GuildReadyEvent.class, event -> {
+            if (slashTrickManagers.containsKey(event.getGuild().getIdLong())) return;
+
+            final SlashTrickManager manager = new SlashTrickManager(
+                    event.getGuild().getIdLong(), Database.main().onDemand(SlashTricksDAO.class), Database.main().onDemand(TricksDAO.class)
+            );
+            manager.updateCommands(event.getGuild());
+            // Each manager only needs the events of its own guild
+            router.listen("slash tricks", event.getGuild().getIdLong(), manager, GuildReadyEvent.class, SlashCommandInteractionEvent.class);
+            slashTrickManagers.put(event.getGuild().getIdLong(), manager);
+        });
+        router.on("slash tricks teardown", GuildLeaveEvent.class, event -> {
+            final SlashTrickManager trickManager = slashTrickManagers.get(event.getGuild().getIdLong());
+            if (trickManager == null) return;
+
+            router.unregister(trickManager);
+            slashTrickManagers.remove(event.getGuild().getIdLong());
+        });
     }
 
     @Override
     public void setup(JDA jda) {
-        jda.addEventListener(new TrickListener(this, bot().commandPrefix, messageCommandTricks, forcePromoted));
+        bot().events().listen("message tricks", new TrickListener(this, bot().commandPrefix, messageCommandTricks, forcePromoted), MessageReceivedEvent.class);
+
+        if (config().getPrecompiledTricks() > 0) {
+            ScriptUtils.SERVICE.submit(this::precompileMostUsed);
+        }
+    }
+
+    private void precompileMostUsed() {
+        final List<Integer> ids = new ArrayList<>();
+        BotMain.stats(StatsDAO.Tricks.class, db -> ids.addAll(db.getMostUsedTricks(config().getPrecompiledTricks())));
+
+        final TricksDAO tricks = Database.main().onDemand(TricksDAO.class);
+        ScriptSources.precompile(ids.stream()
+                .map(tricks::getTrick)
+                .filter(Objects::nonNull)
+                .toList());
     }
 }
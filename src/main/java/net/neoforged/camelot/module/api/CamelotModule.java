@@ -2,13 +2,17 @@ package net.neoforged.camelot.module.api;
 
 import com.jagrosh.jdautilities.command.CommandClientBuilder;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
 import net.neoforged.camelot.Bot;
 import net.neoforged.camelot.Database;
 import net.neoforged.camelot.ModuleProvider;
 import net.neoforged.camelot.config.CamelotConfig;
 import net.neoforged.camelot.config.module.ModuleConfiguration;
+import net.neoforged.camelot.db.impl.WriteQueue;
 import net.neoforged.camelot.services.ServiceRegistrar;
+import net.neoforged.camelot.util.jda.EventRouter;
 import org.flywaydb.core.api.Location;
 import org.jdbi.v3.core.Jdbi;
 import org.slf4j.Logger;
@@ -47,16 +51,21 @@ public interface CamelotModule<C extends ModuleConfiguration> {
     }
 
     /**
-     * Called when the JDA instance is being built. Use this to register listeners.
+     * Called when the JDA instance is being built. Use this to register listeners for the event types they handle.
+     *
+     * @param router the router dispatching the events of the bot
      */
-    default void registerListeners(JDABuilder builder) {
+    default void registerListeners(EventRouter router) {
 
     }
 
     /**
-     * Called when the JDA instance has been constructed, after the database has been set up and after commands have been registered.
+     * Called when the shards of the bot have been constructed, after the database has been set up and after commands have been registered.
+     * <p>
+     * Guilds are spread across shards, so modules should look up entities through {@link Bot#shards()}, and tasks iterating
+     * over the guilds of the bot should be scheduled using {@link Bot#schedulePerShard(Consumer, long, long, java.util.concurrent.TimeUnit)}.
      *
-     * @param jda the JDA instance of the bot
+     * @param jda the shard of the bot with the lowest ID
      */
     default void setup(JDA jda) {
     }
@@ -87,6 +96,29 @@ public interface CamelotModule<C extends ModuleConfiguration> {
         return Set.of();
     }
 
+    /**
+     * {@return the gateway intents this module needs, in addition to the {@linkplain net.neoforged.camelot.BotMain#INTENTS ones the bot always uses}}
+     * The intents needed by the {@linkplain #getRequiredCacheFlags() cache flags} of the module do not need to be included.
+     */
+    default Set<GatewayIntent> getRequiredIntents() {
+        return Set.of();
+    }
+
+    /**
+     * {@return the cache flags this module needs, in addition to the {@linkplain net.neoforged.camelot.BotMain#CACHE_FLAGS ones the bot always uses}}
+     */
+    default Set<CacheFlag> getRequiredCacheFlags() {
+        return Set.of();
+    }
+
+    /**
+     * {@return the policy matching the members this module needs to stay cached}
+     * This is only relevant if the member cache is bounded, as the least recently active members are otherwise evicted from the cache.
+     */
+    default MemberCachePolicy getMemberCachePolicy() {
+        return MemberCachePolicy.NONE;
+    }
+
     /**
      * {@return whether this module should be loaded}
      */
@@ -177,6 +209,13 @@ public interface CamelotModule<C extends ModuleConfiguration> {
             return db;
         }
 
+        /**
+         * {@return the queue that writes to this module's database should be submitted to}
+         */
+        public WriteQueue writes() {
+            return WriteQueue.of(db);
+        }
+
         @Override
         public void init() {
             try {
@@ -1,7 +1,7 @@
 package net.neoforged.camelot.script;
 
 /**
- * An exception wrapping any exception thrown inside {@link ScriptUtils#getInformation(String)}.
+ * An exception wrapping any exception thrown inside {@link ScriptUtils#describe(String)}.
  */
 public class CannotRetrieveInformationException extends Exception {
     public CannotRetrieveInformationException(Exception children) {
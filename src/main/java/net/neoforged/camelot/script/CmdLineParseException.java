@@ -4,7 +4,7 @@ import java.util.List;
 
 /**
  * A specific exception thrown by {@link ScriptOptions#parse()} when parsing the arguments failed. <br>
- * This allows {@link ScriptUtils#execute(ScriptContext, String, List)} to detect when an exception is argument
+ * This allows {@link ScriptUtils#execute(ScriptContext, org.graalvm.polyglot.Source, List)} to detect when an exception is argument
  * parsing failure (starts with the prefix {@value #PREFIX}) and report it as such (without a stacktrace).
  */
 public final class CmdLineParseException extends Exception {
@@ -0,0 +1,135 @@
+package net.neoforged.camelot.script;
+
+import org.graalvm.polyglot.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of pre-initialised, sandboxed script {@link Context contexts}.
+ * <p>
+ * Building and sandboxing a context is a noticeable part of the cost of running a short script, so the pool keeps up to {@link #size} contexts
+ * built ahead of time on a background thread, and hands them out to script executions.
+ * A JavaScript context cannot be reliably reset (scripts can modify the global object, and the modules they load stay cached), so a context
+ * is never handed out twice: each execution closes the context it was given, and the pool builds a fresh replacement in the background.
+ * This keeps executions fully isolated from one another, while taking the construction of the context off their critical path.
+ */
+public final class ContextPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContextPool.class);
+
+    private final int size;
+    private final Supplier<Context> factory;
+    private final BlockingQueue<Context> idle;
+    private final AtomicInteger building = new AtomicInteger();
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("script-context-pool").daemon().factory());
+
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(), built = new LongAdder(), buildNanos = new LongAdder();
+    /**
+     * The amount of hits and misses at the time of the last {@linkplain #logStats() report}.
+     */
+    private long reportedHits, reportedMisses;
+
+    /**
+     * Create a new pool, and start filling it.
+     *
+     * @param size    the maximum amount of idle contexts kept in the pool. If {@code 0}, contexts are built on demand
+     * @param factory the factory building new sandboxed contexts
+     */
+    public ContextPool(int size, Supplier<Context> factory) {
+        if (size < 0) throw new IllegalArgumentException("Pool size must not be negative, got " + size);
+        this.size = size;
+        this.factory = factory;
+        this.idle = new ArrayBlockingQueue<>(Math.max(size, 1));
+        refill();
+    }
+
+    /**
+     * Take a context out of the pool, building one if the pool is empty.
+     * The caller owns the returned context, and must {@link Context#close() close} it once done with it.
+     *
+     * @return a context that was never used before
+     */
+    public Context acquire() {
+        Context context = idle.poll();
+        if (context != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            context = build();
+        }
+        refill();
+        return context;
+    }
+
+    /**
+     * {@return a snapshot of the metrics of the pool}
+     */
+    public Stats stats() {
+        final long built = this.built.sum();
+        return new Stats(idle.size(), size, hits.sum(), misses.sum(), built == 0 ? Duration.ZERO : Duration.ofNanos(buildNanos.sum() / built));
+    }
+
+    /**
+     * Log the amount of contexts handed out from the pool and built on demand since the last call, and the average build time.
+     * Nothing is logged while no context was acquired.
+     */
+    public synchronized void logStats() {
+        final Stats stats = stats();
+        final long hits = stats.hits() - reportedHits, misses = stats.misses() - reportedMisses;
+        reportedHits = stats.hits();
+        reportedMisses = stats.misses();
+        if (hits == 0 && misses == 0) return;
+
+        LOGGER.info("{} script contexts handed out from the pool and {} built on demand since the last report, {} of {} pooled contexts idle. Average build time: {} ms",
+                hits, misses, stats.idle(), stats.size(), stats.averageBuildTime().toMillis());
+    }
+
+    private Context build() {
+        final long start = System.nanoTime();
+        final Context context = factory.get();
+        buildNanos.add(System.nanoTime() - start);
+        built.increment();
+        return context;
+    }
+
+    private void refill() {
+        while (true) {
+            final int inProgress = building.get();
+            if (idle.size() + inProgress >= size) return;
+            if (!building.compareAndSet(inProgress, inProgress + 1)) continue;
+
+            builder.execute(() -> {
+                try {
+                    final Context context = build();
+                    if (!idle.offer(context)) {
+                        context.close();
+                    }
+                } catch (Throwable throwable) {
+                    LOGGER.error("Failed to build pooled script context: ", throwable);
+                } finally {
+                    building.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * A snapshot of the metrics of the pool.
+     *
+     * @param idle             the amount of contexts currently waiting in the pool
+     * @param size             the maximum amount of contexts waiting in the pool
+     * @param hits             the amount of contexts handed out from the pool
+     * @param misses           the amount of contexts that had to be built on demand because the pool was empty
+     * @param averageBuildTime the average time it took to build a context
+     */
+    public record Stats(int idle, int size, long hits, long misses, Duration averageBuildTime) {
+    }
+}
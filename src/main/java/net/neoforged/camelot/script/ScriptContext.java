@@ -13,9 +13,9 @@ import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 import net.neoforged.camelot.BotMain;
 import net.neoforged.camelot.Database;
 import net.neoforged.camelot.db.transactionals.CountersDAO;
-import net.neoforged.camelot.module.TricksModule;
 import net.neoforged.camelot.util.Utils;
 import org.graalvm.polyglot.proxy.ProxyInstant;
+import org.graalvm.polyglot.proxy.ProxyObject;
 
 import java.net.URI;
 import java.net.http.HttpRequest;
@@ -37,6 +37,84 @@ public record ScriptContext(
 ) {
     private static final Map<Class<?>, ScriptTransformer<?>> TRANSFORMERS = new IdentityHashMap<>();
 
+    // The shapes of the objects given to scripts. Other modules may add members to them through TricksModule#SCRIPT_SHAPES
+    public static final ScriptShape<User> USER = ScriptShape.<User>mentionable("User")
+            .value("name", (_, user) -> user.getName())
+            .value("discriminator", (_, user) -> user.getDiscriminator())
+            .value("avatarUrl", (_, user) -> user.getAvatarUrl())
+            .method("asTag", (_, user, _) -> user.getAsTag())
+            .method("toString", (_, user, _) -> Utils.getName(user));
+
+    public static final ScriptShape<Member> MEMBER = ScriptShape.<Member>mentionable("Member")
+            .value("user", (context, member) -> context.createUser(member.getUser()))
+            .value("avatarUrl", (_, member) -> member.getAvatarUrl())
+            .value("effectiveAvatarUrl", (_, member) -> member.getEffectiveAvatarUrl())
+            .value("color", (_, member) -> member.getColorRaw())
+            .value("nickname", (_, member) -> member.getNickname())
+            .value("effectiveName", (_, member) -> member.getEffectiveName())
+            .lazyGetter("getJoinTime", (_, member) -> ProxyInstant.from(member.getTimeJoined().toInstant()))
+            .lazyGetter("getPermissions", (_, member) -> new ArrayList<>(member.getPermissions()))
+            .lazyGetter("getRoles", (context, member) -> context.transformList(member.getRoles()))
+            .method("toString", (_, member, _) -> Utils.getName(member.getUser()) + " in " + member.getGuild().getName());
+
+    public static final ScriptShape<Channel> CHANNEL = channel();
+
+    public static final ScriptShape<MessageChannel> MESSAGE_CHANNEL = ScriptContext.<MessageChannel>channel()
+            .methodIf(ScriptContext::priviliged, "sendMessage", (_, channel, args) -> channel.sendMessage(args.argString(0, true)).complete());
+
+    public static final ScriptShape<Guild> GUILD = ScriptShape.<Guild>snowflake("Guild")
+            .value("name", (_, guild) -> guild.getName())
+            .value("iconUrl", (_, guild) -> guild.getIconUrl())
+            .value("memberCount", (_, guild) -> guild.getMemberCount())
+            .method("getRoles", (context, guild, _) -> context.transformList(guild.getRoles()))
+            .method("getCounter", (_, guild, args) -> Database.main().withExtension(CountersDAO.class,
+                    db -> db.getCounterAmount(guild.getIdLong(), args.argString(0, true))))
+            .method("getEmojis", (context, guild, _) -> context.transformList(guild.getEmojis()));
+
+    public static final ScriptShape<Role> ROLE = ScriptShape.<Role>mentionable("Role")
+            .value("name", (_, role) -> role.getName())
+            .value("color", (_, role) -> role.getColorRaw())
+            .lazyGetter("getGuild", (context, role) -> context.createGuild(role.getGuild()));
+
+    public static final ScriptShape<CustomEmoji> EMOJI = ScriptShape.<CustomEmoji>mentionable("Emoji")
+            .value("name", (_, emoji) -> emoji.getName());
+
+    public static final ScriptShape<JDA> JDA_SHAPE = ScriptShape.<JDA>of("JDA")
+            .method("getUserById", (context, jda, args) -> context.createUser(jda.retrieveUserById(args.argString(0, true)).complete()))
+            .method("getEmojis", (context, jda, _) -> context.transformList(jda.retrieveApplicationEmojis().complete()));
+
+    /**
+     * The shape of the global object of scripts.
+     */
+    public static final ScriptShape<ScriptContext> SCRIPT = ScriptShape.<ScriptContext>of("Script")
+            // The context with which the script was executed
+            .value("guild", (context, _) -> context.createGuild(context.guild()))
+            .value("member", (context, _) -> context.createMember(context.member()))
+            .value("channel", (context, _) -> context.createMessageChannel(context.channel()))
+            .value("user", (context, _) -> context.createUser(context.member().getUser()))
+            .value("jda", (context, _) -> context.createJDA(context.jda()))
+
+            .valueIf(ScriptContext::priviliged, "privileged", (context, _) -> context.privilegedCompile())
+
+            // Methods used for replying
+            .method("reply", (context, _, args) -> {
+                context.reply().accept(MessageCreateData.fromContent(args.argString(0, true)));
+                return null;
+            })
+            .value("console", (context, _) -> ScriptObject.of("console")
+                    .putVoidMethod("log", args -> context.reply().accept(MessageCreateData.fromContent(Arrays.stream(args.getArguments())
+                            .map(ScriptUtils::toString).collect(Collectors.joining())))))
+            .method("replyEmbed", (context, _, args) -> {
+                context.reply().accept(MessageCreateData.fromEmbeds(args.argList(0, true, val -> new ScriptMap(val).asEmbed())));
+                return null;
+            });
+
+    private static <T extends Channel> ScriptShape<T> channel() {
+        return ScriptShape.<T>mentionable("Channel")
+                .value("name", (_, channel) -> channel.getName())
+                .value("type", (_, channel) -> channel.getType());
+    }
+
     /**
      * Transforms the given object to one which may be given to a script execution.
      *
@@ -72,30 +150,13 @@ public record ScriptContext(
     }
 
     /**
-     * Compiles this context into a {@link ScriptObject} containing the full context.
+     * Compiles this context into a script object containing the full context.
+     * The objects of the context are only built when the script accesses them.
      *
      * @return the script object
      */
-    public ScriptObject compile() {
-        var object = ScriptObject.of("Script")
-                // The context with which the script was executed
-                .put("guild", createGuild(guild))
-                .put("member", createMember(member))
-                .put("channel", createMessageChannel(channel))
-                .put("user", createUser(member.getUser()))
-                .put("jda", createJDA(jda))
-
-                .putIf(this::priviliged, "privileged", this::privilegedCompile)
-
-                // Methods used for replying
-                .putVoidMethod("reply", args -> reply.accept(MessageCreateData.fromContent(args.argString(0, true))))
-                .put("console", ScriptObject.of("console")
-                        .putVoidMethod("log", args -> reply.accept(MessageCreateData.fromContent(Arrays.stream(args.getArguments())
-                                .map(ScriptUtils::toString).collect(Collectors.joining())))))
-                .putVoidMethod("replyEmbed", args -> reply.accept(MessageCreateData.fromEmbeds(args.argList(0, true, val -> new ScriptMap(val).asEmbed()))));
-        // Allow other plugins to expand on these objects - e.g. to add quotes
-        BotMain.propagateParameter(TricksModule.COMPILING_SCRIPT, new TricksModule.CompilingScript(this, object));
-        return object;
+    public ScriptShape<ScriptContext>.Instance compile() {
+        return SCRIPT.wrap(this, this);
     }
 
     public ScriptObject privilegedCompile() {
@@ -119,67 +180,36 @@ public record ScriptContext(
         return other.stream().map(o -> transform(this, o)).toList();
     }
 
-    public ScriptObject createUser(User user) {
-        return ScriptObject.mentionable("User", user)
-                .put("name", user.getName())
-                .put("discriminator", user.getDiscriminator())
-                .put("avatarUrl", user.getAvatarUrl())
-                .putMethod("asTag", _ -> user.getAsTag())
-                .putMethod("toString", _ -> Utils.getName(user));
+    public ProxyObject createUser(User user) {
+        return USER.wrap(this, user);
     }
 
-    public ScriptObject createMember(Member member) {
-        return ScriptObject.mentionable("Member", member)
-                .put("user", createUser(member.getUser()))
-                .put("avatarUrl", member.getAvatarUrl())
-                .put("effectiveAvatarUrl", member.getEffectiveAvatarUrl())
-                .put("color", member.getColorRaw())
-                .put("nickname", member.getNickname())
-                .put("effectiveName", member.getEffectiveName())
-                .putLazyGetter("getJoinTime", () -> ProxyInstant.from(member.getTimeJoined().toInstant()))
-                .putLazyGetter("getPermissions", () -> new ArrayList<>(member.getPermissions()))
-                .putLazyGetter("getRoles", () -> transformList(member.getRoles()))
-                .putMethod("toString", _ -> Utils.getName(member.getUser()) + " in " + member.getGuild().getName());
+    public ProxyObject createMember(Member member) {
+        return MEMBER.wrap(this, member);
     }
 
-    public ScriptObject createMessageChannel(MessageChannel channel) {
-        return createChannel(channel)
-                .putMethodIf(this::priviliged, "sendMessage", args -> channel.sendMessage(args.argString(0, true)).complete());
+    public ProxyObject createMessageChannel(MessageChannel channel) {
+        return MESSAGE_CHANNEL.wrap(this, channel);
     }
 
-    public ScriptObject createChannel(Channel channel) {
-        return ScriptObject.mentionable("Channel", channel)
-                .put("name", channel.getName())
-                .put("type", channel.getType());
+    public ProxyObject createChannel(Channel channel) {
+        return CHANNEL.wrap(this, channel);
     }
 
-    public ScriptObject createGuild(Guild guild) {
-        return ScriptObject.snowflake("Guild", guild)
-                .put("name", guild.getName())
-                .put("iconUrl", guild.getIconUrl())
-                .put("memberCount", guild.getMemberCount())
-                .putMethod("getRoles", args -> transformList(guild.getRoles()))
-                .putMethod("getCounter", args -> Database.main().withExtension(CountersDAO.class,
-                        db -> db.getCounterAmount(guild.getIdLong(), args.argString(0, true))))
-                .putMethod("getEmojis", args -> transformList(guild.getEmojis()));
+    public ProxyObject createGuild(Guild guild) {
+        return GUILD.wrap(this, guild);
     }
 
-    public ScriptObject createRole(Role role) {
-        return ScriptObject.mentionable("Role", role)
-                .put("name", role.getName())
-                .put("color", role.getColorRaw())
-                .putLazyGetter("getGuild", () -> createGuild(role.getGuild()));
+    public ProxyObject createRole(Role role) {
+        return ROLE.wrap(this, role);
     }
 
-    public ScriptObject createEmoji(CustomEmoji emoji) {
-        return ScriptObject.mentionable("Emoji", emoji)
-                .put("name", emoji.getName());
+    public ProxyObject createEmoji(CustomEmoji emoji) {
+        return EMOJI.wrap(this, emoji);
     }
 
-    public ScriptObject createJDA(JDA jda) {
-        return ScriptObject.of("JDA")
-                .putMethod("getUserById", args -> createUser(jda.retrieveUserById(args.argString(0, true)).complete()))
-                .putMethod("getEmojis", _ -> transformList(jda.retrieveApplicationEmojis().complete()));
+    public ProxyObject createJDA(JDA jda) {
+        return JDA_SHAPE.wrap(this, jda);
     }
 
     /**
@@ -1,5 +1,7 @@
 package net.neoforged.camelot.script;
 
+import org.kohsuke.args4j.CmdLineParser;
+import org.kohsuke.args4j.ParserProperties;
 import org.kohsuke.args4j.spi.OptionHandler;
 
 import java.util.List;
@@ -16,4 +18,23 @@ public record ScriptInformation(
         List<OptionHandler<?>> options,
         List<OptionHandler<?>> arguments
 ) {
+    /**
+     * A serializable description of a script, from which its {@link ScriptInformation} can be rebuilt without evaluating the script.
+     *
+     * @param description  the description of the script
+     * @param declarations the options and arguments declared by the script, in order
+     * @see ScriptInformationCache
+     */
+    public record Descriptor(String description, List<ScriptOptions.Declaration> declarations) {
+        /**
+         * {@return the information described by this descriptor}
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public ScriptInformation toInformation() {
+            final CmdLineParser parser = new NegativeNumberAwareParser(null, ParserProperties.defaults().withAtSyntax(false));
+            final ScriptOptions options = new ScriptOptions.OptionBuilding(parser);
+            declarations.forEach(declaration -> declaration.declare(options));
+            return new ScriptInformation(description, (List) parser.getOptions(), (List) parser.getArguments());
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package net.neoforged.camelot.script;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import net.neoforged.camelot.Database;
+import net.neoforged.camelot.db.transactionals.ScriptInformationDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A persistent cache of the {@link ScriptInformation static information} of scripts.
+ * <p>
+ * Extracting the information of a script {@linkplain ScriptUtils#describe(String) evaluates it}, which is far too expensive to do for
+ * every promoted trick each time the slash commands of a guild are rebuilt. Instead, the {@link ScriptInformation.Descriptor descriptor} of
+ * a script is stored in the database, keyed by the hash of the script, and the information is rebuilt from it without evaluating the script.
+ * The new script of an edited trick is described right away by {@link net.neoforged.camelot.db.callback.TrickCallbacks}.
+ * As descriptors are keyed by the hash of their script, they never become outdated, and are kept when a trick is edited or deleted
+ * since other tricks may have the same script. Descriptors stored by older {@linkplain #VERSION versions} are simply never read again.
+ */
+public final class ScriptInformationCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScriptInformationCache.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * The version of the stored descriptors. Bump this whenever the way scripts are described changes, so that descriptors stored
+     * by older versions are not used anymore.
+     */
+    private static final int VERSION = 1;
+
+    private static final Cache<String, ScriptInformation.Descriptor> DESCRIPTORS = Caffeine.newBuilder()
+            .maximumSize(1024)
+            .build();
+
+    private ScriptInformationCache() {}
+
+    /**
+     * {@return the information of the given {@code script}}
+     * The script is only evaluated if its information is not known yet.
+     *
+     * @throws CannotRetrieveInformationException if the script had to be evaluated, and its evaluation threw an exception
+     */
+    public static ScriptInformation get(String script) throws CannotRetrieveInformationException {
+        return describe(script).toInformation();
+    }
+
+    /**
+     * {@return the descriptor of the given {@code script}}
+     * The script is only evaluated if its information is not known yet.
+     *
+     * @throws CannotRetrieveInformationException if the script had to be evaluated, and its evaluation threw an exception
+     */
+    public static ScriptInformation.Descriptor describe(String script) throws CannotRetrieveInformationException {
+        final String hash = hash(script);
+        final ScriptInformation.Descriptor cached = DESCRIPTORS.getIfPresent(hash);
+        if (cached != null) return cached;
+
+        final String stored = Database.main().withExtension(ScriptInformationDAO.class, db -> db.getInformation(hash));
+        if (stored != null) {
+            try {
+                final ScriptInformation.Descriptor descriptor = MAPPER.readValue(stored, ScriptInformation.Descriptor.class);
+                DESCRIPTORS.put(hash, descriptor);
+                return descriptor;
+            } catch (JsonProcessingException exception) {
+                LOGGER.warn("Could not read stored information of script {}, describing it again: ", hash, exception);
+            }
+        }
+
+        return refresh(hash, script);
+    }
+
+    private static ScriptInformation.Descriptor refresh(String hash, String script) throws CannotRetrieveInformationException {
+        final ScriptInformation.Descriptor descriptor = ScriptUtils.describe(script);
+        try {
+            final String serialized = MAPPER.writeValueAsString(descriptor);
+            Database.main().useExtension(ScriptInformationDAO.class, db -> db.storeInformation(hash, serialized));
+        } catch (JsonProcessingException exception) {
+            LOGGER.error("Could not store information of script {}: ", hash, exception);
+        }
+        DESCRIPTORS.put(hash, descriptor);
+        return descriptor;
+    }
+
+    private static String hash(String script) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((byte) VERSION);
+            return HexFormat.of().formatHex(digest.digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -41,15 +41,7 @@ public class ScriptObject implements ProxyObject {
     }
 
     public ScriptObject put(String key, Object value) {
-        var spl = key.split("\\.", 2);
-        if (spl.length == 1) {
-            values.put(key, value);
-        } else {
-            var object = values.get(spl[0]);
-            if (object instanceof ScriptObject o) {
-                o.put(spl[1], value);
-            }
-        }
+        values.put(key, value);
         return this;
     }
 
@@ -80,7 +72,7 @@ public class ScriptObject implements ProxyObject {
         return this;
     }
 
-    private InvocationArguments createArgs(String methodName, Value[] args) {
+    static InvocationArguments createArgs(String methodName, Value[] args) {
         return new InvocationArguments() {
             @Override
             public Value[] getArguments() {
@@ -364,6 +364,41 @@ public class ScriptOptions implements Iterable<Object> {
             TypeInfo typeInfo
     ) {}
 
+    /**
+     * An option or argument declared by a script, in a form that can be stored, and {@linkplain #declare(ScriptOptions) declared again} without
+     * evaluating the script.
+     *
+     * @param names  the names of the option, or {@code null} if this is a positional argument
+     * @param index  the index of the positional argument
+     * @param config the configuration of the option. Only the keys that affect the declaration of the option are kept
+     */
+    public record Declaration(@Nullable List<String> names, int index, Map<String, Object> config) {
+        private static final Set<String> KEYS = Set.of("type", "description", "name", "required", "hidden", "values");
+
+        static Declaration of(@Nullable Object names, int index, Map<String, ?> config) {
+            // The config and names may be backed by the script, so copy them to plain Java objects
+            final Map<String, Object> copy = new HashMap<>();
+            for (final String key : KEYS) {
+                final Object value = config.get(key);
+                if (value != null) {
+                    copy.put(key, value instanceof List<?> list ? List.copyOf(list) : value);
+                }
+            }
+            return new Declaration(names == null ? null : (names instanceof List<?> list ? List.copyOf((List<String>) list) : List.of((String) names)), index, copy);
+        }
+
+        /**
+         * Declare this option again on the given {@code options}.
+         */
+        public void declare(ScriptOptions options) {
+            if (names == null) {
+                options.optPositional(index, config);
+            } else {
+                options.optNamed(new ArrayList<>(names), config);
+            }
+        }
+    }
+
     record TypeInfo(Class<?> clazz, Class<? extends OptionHandler<?>> handler, boolean multi, String meta) {}
 
     /**
@@ -371,11 +406,27 @@ public class ScriptOptions implements Iterable<Object> {
      * Use this when you simply want to collect the options without parsing any arguments.
      */
     public static final class OptionBuilding extends ScriptOptions {
+        private final List<Declaration> declarations = new ArrayList<>();
 
         public OptionBuilding(CmdLineParser cmdLineParser) {
             super(List.of(), cmdLineParser, null);
         }
 
+        @Override
+        @HostAccess.Export
+        public ScriptOptions optNamed(Object names, Map<String, ?> config) {
+            // Record the declaration first, as declaring the option sorts the names
+            declarations.add(Declaration.of(names, 0, config));
+            return super.optNamed(names, config);
+        }
+
+        @Override
+        @HostAccess.Export
+        public ScriptOptions optPositional(int index, Map<String, ?> config) {
+            declarations.add(Declaration.of(null, index, config));
+            return super.optPositional(index, config);
+        }
+
         /**
          * {@return a list of null "parsed" arguments}
          */
@@ -392,5 +443,12 @@ public class ScriptOptions implements Iterable<Object> {
         public CmdLineParser getParser() {
             return cmdLineParser;
         }
+
+        /**
+         * {@return the options and arguments declared so far, in order}
+         */
+        public List<Declaration> getDeclarations() {
+            return List.copyOf(declarations);
+        }
     }
 }
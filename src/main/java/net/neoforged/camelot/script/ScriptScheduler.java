@@ -0,0 +1,393 @@
+package net.neoforged.camelot.script;
+
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A scheduler running script executions on a fixed amount of worker threads, fairly between guilds and users.
+ * <p>
+ * Queued executions are grouped by guild, and then by user. Workers serve the guilds with queued executions in turn, and within a guild,
+ * serve its users in turn, so a guild or user flooding the bot with tricks only delays their own executions. The queues are bounded per
+ * user, per guild and in total, and executions that do not fit are rejected with a message explaining why.
+ * <p>
+ * Running executions are interrupted by a single watchdog once they exceed their timeout, and the CPU time of each execution is accounted
+ * to its trick (see {@link #usage(int)}). The queue depths and wait times are reported by {@link #logStats()}.
+ */
+public final class ScriptScheduler implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScriptScheduler.class);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final Limits limits;
+    private final Worker[] workers;
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("script-watchdog").daemon().factory());
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    /**
+     * The guilds with queued executions, in the order they will be served.
+     */
+    private final ArrayDeque<GuildQueue> guildRotation = new ArrayDeque<>();
+    private final Map<Long, GuildQueue> guilds = new HashMap<>();
+    private int queued;
+
+    private final LongAdder executed = new LongAdder(), rejected = new LongAdder(), timedOut = new LongAdder(), waitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final Map<Integer, Usage> usage = new ConcurrentHashMap<>();
+    /**
+     * The amount of rejected and timed out executions at the time of the last {@linkplain #logStats() report}.
+     */
+    private long reportedRejected, reportedTimedOut;
+
+    private volatile boolean closed;
+
+    /**
+     * Create a new scheduler, and start its workers.
+     *
+     * @param threads the amount of executions that may run at the same time
+     * @param limits  the limits of the queues
+     */
+    public ScriptScheduler(int threads, Limits limits) {
+        if (threads <= 0) throw new IllegalArgumentException("Scheduler needs at least one thread, got " + threads);
+        this.limits = limits;
+        this.workers = IntStream.range(0, threads).mapToObj(Worker::new).toArray(Worker[]::new);
+        for (final Worker worker : workers) {
+            worker.thread.start();
+        }
+        watchdog.scheduleWithFixedDelay(this::interruptTimedOut, 100, 100, TimeUnit.MILLISECONDS);
+
+        if (THREADS.isCurrentThreadCpuTimeSupported() && !THREADS.isThreadCpuTimeEnabled()) {
+            THREADS.setThreadCpuTimeEnabled(true);
+        }
+    }
+
+    /**
+     * Queue an execution of a script.
+     * If the execution cannot be queued, the user is told so through the {@link ScriptContext#reply() replier} of the context.
+     *
+     * @param context   the context of the execution
+     * @param trickId   the ID of the trick that is executed, or {@code null} if the script is not a trick
+     * @param timeout   the time the execution has to finish, once started
+     * @param execution the execution
+     * @return whether the execution was queued
+     */
+    public boolean submit(ScriptContext context, @Nullable Integer trickId, Duration timeout, Runnable execution) {
+        if (closed) throw new IllegalStateException("Scheduler is closed");
+        final long guildId = context.guild() == null ? 0 : context.guild().getIdLong();
+        final long userId = context.member() == null ? 0 : context.member().getIdLong();
+        final Job job = new Job(context, trickId, timeout.toNanos(), execution, System.nanoTime());
+
+        final String rejection;
+        lock.lock();
+        try {
+            final GuildQueue guild = guilds.get(guildId);
+            final ArrayDeque<Job> user = guild == null ? null : guild.users.get(userId);
+            if (queued >= limits.total()) {
+                rejection = "Too many tricks are waiting to run right now, please try again later.";
+            } else if (guild != null && guild.size >= limits.perGuild()) {
+                rejection = "Too many tricks are waiting to run in this server, please try again later.";
+            } else if (user != null && user.size() >= limits.perUser()) {
+                rejection = "You already have " + user.size() + " tricks waiting to run, please wait for them to finish.";
+            } else {
+                enqueue(guildId, userId, job);
+                rejection = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (rejection != null) {
+            rejected.increment();
+            context.reply().send(MessageCreateData.fromContent(rejection)).queue();
+            return false;
+        }
+        return true;
+    }
+
+    private void enqueue(long guildId, long userId, Job job) {
+        GuildQueue guild = guilds.get(guildId);
+        if (guild == null) {
+            guild = new GuildQueue(guildId);
+            guilds.put(guildId, guild);
+            guildRotation.addLast(guild);
+        }
+
+        ArrayDeque<Job> user = guild.users.get(userId);
+        if (user == null) {
+            user = new ArrayDeque<>();
+            guild.users.put(userId, user);
+            guild.userRotation.addLast(userId);
+        }
+
+        user.addLast(job);
+        guild.size++;
+        queued++;
+        available.signal();
+    }
+
+    /**
+     * Take the next execution to run, waiting for one to be queued.
+     */
+    private Job take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (guildRotation.isEmpty()) {
+                available.await();
+            }
+
+            final GuildQueue guild = guildRotation.pollFirst();
+            final long userId = guild.userRotation.pollFirst();
+            final ArrayDeque<Job> user = guild.users.get(userId);
+            final Job job = user.pollFirst();
+
+            if (user.isEmpty()) {
+                guild.users.remove(userId);
+            } else {
+                guild.userRotation.addLast(userId);
+            }
+            if (guild.userRotation.isEmpty()) {
+                guilds.remove(guild.id);
+            } else {
+                guildRotation.addLast(guild);
+            }
+            guild.size--;
+            queued--;
+            return job;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void interruptTimedOut() {
+        final long now = System.nanoTime();
+        for (final Worker worker : workers) {
+            final Run run = worker.current;
+            if (run == null || now - run.start < run.job.timeoutNanos) continue;
+
+            synchronized (run) {
+                if (run.state != Run.RUNNING) continue;
+                run.state = Run.TIMED_OUT;
+                worker.thread.interrupt();
+            }
+            timedOut.increment();
+            run.job.context.reply().send(MessageCreateData.fromContent("Script execution timed out!")).queue();
+        }
+    }
+
+    /**
+     * {@return the CPU time used by the given trick since startup}
+     */
+    public Usage usage(int trickId) {
+        return usage.getOrDefault(trickId, Usage.NONE);
+    }
+
+    /**
+     * {@return a snapshot of the metrics of the scheduler}
+     */
+    public Stats stats() {
+        final Map<Long, Integer> queuedByGuild = new LinkedHashMap<>();
+        final int queued;
+        lock.lock();
+        try {
+            queued = this.queued;
+            guildRotation.forEach(guild -> queuedByGuild.put(guild.id, guild.size));
+        } finally {
+            lock.unlock();
+        }
+
+        int running = 0;
+        for (final Worker worker : workers) {
+            if (worker.current != null) running++;
+        }
+
+        final long executed = this.executed.sum();
+        return new Stats(
+                queued, running, queuedByGuild, executed, rejected.sum(), timedOut.sum(),
+                executed == 0 ? Duration.ZERO : Duration.ofNanos(waitNanos.sum() / executed), Duration.ofNanos(maxWaitNanos.get())
+        );
+    }
+
+    /**
+     * Log the amount of queued and running executions, the executions rejected and timed out since the last call, the wait times,
+     * and the guilds with the most queued executions. Nothing is logged while no execution is queued and none was rejected or timed out.
+     */
+    public synchronized void logStats() {
+        final Stats stats = stats();
+        final long rejected = stats.rejected() - reportedRejected, timedOut = stats.timedOut() - reportedTimedOut;
+        reportedRejected = stats.rejected();
+        reportedTimedOut = stats.timedOut();
+        if (stats.queued() == 0 && rejected == 0 && timedOut == 0) return;
+
+        final String busiest = stats.queuedByGuild().entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
+                .limit(5)
+                .map(entry -> entry.getKey() + " (" + entry.getValue() + " queued)")
+                .collect(Collectors.joining(", "));
+        LOGGER.info("{} script executions queued and {} running, {} rejected and {} timed out since the last report. Average wait: {} ms, longest wait: {} ms. Busiest guilds: {}",
+                stats.queued(), stats.running(), rejected, timedOut, stats.averageWait().toMillis(), stats.maxWait().toMillis(), busiest);
+    }
+
+    /**
+     * Stop the workers and the watchdog. Running executions are interrupted, and queued executions are dropped.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        watchdog.shutdownNow();
+        for (final Worker worker : workers) {
+            worker.thread.interrupt();
+        }
+    }
+
+    /**
+     * The limits of the queues of a scheduler.
+     *
+     * @param perUser  the maximum amount of queued executions of a single user
+     * @param perGuild the maximum amount of queued executions in a single guild
+     * @param total    the maximum amount of queued executions
+     */
+    public record Limits(int perUser, int perGuild, int total) {
+    }
+
+    /**
+     * A snapshot of the metrics of a scheduler.
+     *
+     * @param queued        the amount of executions waiting to run
+     * @param running       the amount of executions currently running
+     * @param queuedByGuild the amount of executions waiting to run, by guild, in the order the guilds will be served
+     * @param executed      the amount of executions run since startup
+     * @param rejected      the amount of executions rejected because the queues were full
+     * @param timedOut      the amount of executions interrupted because they ran for too long
+     * @param averageWait   the average time executions waited in the queue before running
+     * @param maxWait       the longest time an execution waited in the queue before running
+     */
+    public record Stats(int queued, int running, Map<Long, Integer> queuedByGuild, long executed, long rejected, long timedOut, Duration averageWait, Duration maxWait) {
+    }
+
+    /**
+     * The resources used by the executions of a trick.
+     *
+     * @param runs    the amount of times the trick was run
+     * @param cpuTime the total CPU time used by the runs of the trick
+     */
+    public record Usage(long runs, Duration cpuTime) {
+        public static final Usage NONE = new Usage(0, Duration.ZERO);
+
+        Usage plus(long cpuNanos) {
+            return new Usage(runs + 1, cpuTime.plusNanos(cpuNanos));
+        }
+
+        /**
+         * {@return the average CPU time used by a run of the trick}
+         */
+        public Duration averageCpuTime() {
+            return runs == 0 ? Duration.ZERO : cpuTime.dividedBy(runs);
+        }
+    }
+
+    private record Job(ScriptContext context, @Nullable Integer trickId, long timeoutNanos, Runnable execution, long queuedAt) {
+    }
+
+    private static final class GuildQueue {
+        final long id;
+        final Map<Long, ArrayDeque<Job>> users = new HashMap<>();
+        /**
+         * The users with queued executions, in the order they will be served.
+         */
+        final ArrayDeque<Long> userRotation = new ArrayDeque<>();
+        int size;
+
+        GuildQueue(long id) {
+            this.id = id;
+        }
+    }
+
+    private static final class Run {
+        static final int RUNNING = 0, DONE = 1, TIMED_OUT = 2;
+
+        final Job job;
+        final long start;
+        int state = RUNNING;
+
+        Run(Job job, long start) {
+            this.job = job;
+            this.start = start;
+        }
+    }
+
+    private final class Worker implements Runnable {
+        final Thread thread;
+        volatile Run current;
+
+        Worker(int index) {
+            this.thread = Thread.ofPlatform().name("script-execution-" + index).daemon().unstarted(this);
+        }
+
+        @Override
+        public void run() {
+            while (!closed) {
+                final Job job;
+                try {
+                    job = take();
+                } catch (InterruptedException _) {
+                    return;
+                }
+                execute(job);
+            }
+        }
+
+        private void execute(Job job) {
+            final long start = System.nanoTime();
+            final long wait = start - job.queuedAt;
+            waitNanos.add(wait);
+            maxWaitNanos.accumulate(wait);
+
+            final long cpuStart = THREADS.getCurrentThreadCpuTime();
+            final Run run = new Run(job, start);
+            current = run;
+            try {
+                job.execution.run();
+            } catch (Throwable throwable) {
+                LOGGER.error("Script execution failed: ", throwable);
+            }
+
+            final boolean wasTimedOut;
+            synchronized (run) {
+                wasTimedOut = run.state == Run.TIMED_OUT;
+                run.state = Run.DONE;
+            }
+            current = null;
+            // The watchdog interrupts while holding the lock of the run, so the interrupt cannot leak into the next execution
+            Thread.interrupted();
+            executed.increment();
+
+            if (job.trickId != null && cpuStart >= 0) {
+                final long cpu = THREADS.getCurrentThreadCpuTime() - cpuStart;
+                usage.merge(job.trickId, Usage.NONE.plus(cpu), (existing, _) -> existing.plus(cpu));
+            }
+
+            if (!wasTimedOut && !job.context.reply().wasReplied()) {
+                job.context.reply().send(MessageCreateData.fromContent("Script did not send any reply!")).queue();
+            }
+        }
+    }
+}
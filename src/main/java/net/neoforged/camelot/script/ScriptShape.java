@@ -0,0 +1,229 @@
+package net.neoforged.camelot.script;
+
+import com.google.common.base.Suppliers;
+import net.dv8tion.jda.api.entities.IMentionable;
+import net.dv8tion.jda.api.entities.ISnowflake;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.graalvm.polyglot.proxy.ProxyInstant;
+import org.graalvm.polyglot.proxy.ProxyObject;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The shape of a kind of script object: its name, and the members it exposes to scripts.
+ * <p>
+ * Shapes are built once, and {@linkplain #wrap(ScriptContext, Object) wrap} Java objects into script objects. A wrapped object is nothing
+ * but a reference to its shape and target: each of its members is only computed the first time a script accesses it, and then cached for
+ * the rest of the execution. This means that building the context of an execution costs next to nothing, and that scripts only pay for the
+ * members they actually use.
+ * <p>
+ * Shapes may be extended with new members until scripts run (see {@link net.neoforged.camelot.module.TricksModule#SCRIPT_SHAPES}).
+ *
+ * @param <T> the type of the objects this shape wraps
+ */
+public final class ScriptShape<T> {
+    private static final Object NULL = new Object();
+    private static final Object REMOVED = new Object();
+
+    private final String name;
+    private volatile Map<String, Member<T>> members = Map.of();
+
+    private ScriptShape(String name) {
+        this.name = name;
+    }
+
+    public static <T> ScriptShape<T> of(String name) {
+        return new ScriptShape<>(name);
+    }
+
+    public static <T extends ISnowflake> ScriptShape<T> snowflake(String name) {
+        return ScriptShape.<T>of(name)
+                .value("id", (_, snowflake) -> snowflake.getId())
+                .lazyGetter("getCreationDate", (_, snowflake) -> ProxyInstant.from(snowflake.getTimeCreated().toInstant()));
+    }
+
+    public static <T extends IMentionable> ScriptShape<T> mentionable(String name) {
+        return ScriptShape.<T>snowflake(name)
+                .method("asMention", (_, mentionable, _) -> mentionable.getAsMention());
+    }
+
+    /**
+     * Add a value, computed the first time a script reads it.
+     */
+    public ScriptShape<T> value(String key, Getter<T> getter) {
+        return add(key, null, getter);
+    }
+
+    /**
+     * Add a value, only present in contexts matching the given {@code condition}.
+     */
+    public ScriptShape<T> valueIf(Predicate<ScriptContext> condition, String key, Getter<T> getter) {
+        return add(key, condition, getter);
+    }
+
+    /**
+     * Add a method without arguments, whose result is computed once per object.
+     */
+    public ScriptShape<T> lazyGetter(String key, Getter<T> getter) {
+        return add(key, null, (context, target) -> {
+            final Supplier<Object> value = Suppliers.memoize(() -> getter.get(context, target));
+            return (ProxyExecutable) _ -> value.get();
+        });
+    }
+
+    public ScriptShape<T> method(String key, Method<T> method) {
+        return methodIf(null, key, method);
+    }
+
+    /**
+     * Add a method, only present in contexts matching the given {@code condition}.
+     */
+    public ScriptShape<T> methodIf(@Nullable Predicate<ScriptContext> condition, String key, Method<T> method) {
+        return add(key, condition, (context, target) -> (ProxyExecutable) args -> method.invoke(context, target, ScriptObject.createArgs(key, args)));
+    }
+
+    private synchronized ScriptShape<T> add(String key, @Nullable Predicate<ScriptContext> condition, Getter<T> factory) {
+        if (members.containsKey(key)) {
+            throw new IllegalArgumentException("Shape " + name + " already has a member named '" + key + "'");
+        }
+        // Objects keep the members of the shape at the time they were wrapped, so the members are never mutated in place
+        final Map<String, Member<T>> newMembers = new LinkedHashMap<>(members);
+        newMembers.put(key, new Member<>(newMembers.size(), condition, factory));
+        members = Collections.unmodifiableMap(newMembers);
+        return this;
+    }
+
+    /**
+     * Wrap the given {@code target} into a script object of this shape.
+     *
+     * @param context the context of the execution the object is given to
+     * @param target  the object to wrap
+     * @return the script object
+     */
+    public Instance wrap(ScriptContext context, T target) {
+        return new Instance(context, target, members);
+    }
+
+    @FunctionalInterface
+    public interface Getter<T> {
+        Object get(ScriptContext context, T target);
+    }
+
+    @FunctionalInterface
+    public interface Method<T> {
+        Object invoke(ScriptContext context, T target, InvocationArguments arguments);
+    }
+
+    private record Member<T>(int index, @Nullable Predicate<ScriptContext> condition, Getter<T> factory) {
+    }
+
+    /**
+     * A script object of this shape.
+     */
+    public final class Instance implements ProxyObject {
+        private final ScriptContext context;
+        private final T target;
+        private final Map<String, Member<T>> members;
+        private final Object[] values;
+        /**
+         * The members the script put or removed.
+         */
+        @Nullable
+        private Map<String, Object> overrides;
+
+        private Instance(ScriptContext context, T target, Map<String, Member<T>> members) {
+            this.context = context;
+            this.target = target;
+            this.members = members;
+            this.values = new Object[members.size()];
+        }
+
+        @Override
+        public Object getMember(String key) {
+            if (overrides != null && overrides.containsKey(key)) {
+                final Object value = overrides.get(key);
+                return value == REMOVED ? null : value;
+            }
+
+            final Member<T> member = members.get(key);
+            if (member == null || !isPresent(member)) return null;
+
+            Object value = values[member.index()];
+            if (value == null) {
+                value = member.factory().get(context, target);
+                values[member.index()] = value == null ? NULL : value;
+            }
+            return value == NULL ? null : value;
+        }
+
+        @Override
+        public boolean hasMember(String key) {
+            if (overrides != null && overrides.containsKey(key)) {
+                return overrides.get(key) != REMOVED;
+            }
+            final Member<T> member = members.get(key);
+            return member != null && isPresent(member);
+        }
+
+        @Override
+        public Object getMemberKeys() {
+            final List<String> keys = new ArrayList<>(members.size());
+            members.forEach((key, member) -> {
+                if (isPresent(member) && (overrides == null || !overrides.containsKey(key))) {
+                    keys.add(key);
+                }
+            });
+            if (overrides != null) {
+                overrides.forEach((key, value) -> {
+                    if (value != REMOVED) keys.add(key);
+                });
+            }
+            return ProxyArray.fromArray(keys.toArray());
+        }
+
+        @Override
+        public void putMember(String key, Value value) {
+            if (overrides == null) overrides = new HashMap<>();
+            overrides.put(key, value.isHostObject() ? value.asHostObject() : value);
+        }
+
+        @Override
+        public boolean removeMember(String key) {
+            if (!hasMember(key)) return false;
+            if (overrides == null) overrides = new HashMap<>();
+            overrides.put(key, REMOVED);
+            return true;
+        }
+
+        /**
+         * Transfers the members of this object to the given {@code bindings}.
+         * @see Value#putMember(String, Object)
+         */
+        public void transferTo(Value bindings) {
+            members.forEach((key, member) -> {
+                if (isPresent(member)) {
+                    bindings.putMember(key, getMember(key));
+                }
+            });
+        }
+
+        private boolean isPresent(Member<T> member) {
+            return member.condition() == null || member.condition().test(context);
+        }
+
+        @Override
+        public String toString() {
+            return "ScriptObject{name=" + name + "}";
+        }
+    }
+}
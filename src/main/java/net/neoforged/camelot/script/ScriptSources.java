@@ -0,0 +1,82 @@
+package net.neoforged.camelot.script;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import net.neoforged.camelot.db.schemas.Trick;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cache of the {@link Source sources} of tricks.
+ * <p>
+ * The {@linkplain ScriptUtils#ENGINE engine} caches the code it compiles by source, so running a trick with the same source object as its
+ * previous runs skips parsing and reuses the code the engine already optimised. Sources are cached by trick ID and script, so editing a trick
+ * never runs its old script, and the entries of a trick are {@link #invalidate(int) invalidated} when it is edited or deleted.
+ */
+public final class ScriptSources {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScriptSources.class);
+
+    private static final Cache<Key, Source> SOURCES = Caffeine.newBuilder()
+            .maximumSize(1024)
+            .build();
+
+    private ScriptSources() {}
+
+    /**
+     * {@return the source of the given {@code trick}}
+     */
+    public static Source of(Trick trick) {
+        return SOURCES.get(new Key(trick.id(), trick.script()), key -> build(key.script()));
+    }
+
+    /**
+     * Build a new, uncached, source for the given {@code script}. Use this for one-off scripts, such as evaluated ones.
+     *
+     * @param script the script
+     * @return the source of the script
+     */
+    public static Source build(String script) {
+        return Source.newBuilder("js", ScriptUtils.EXPORT_MEMBERS + script, "script.js")
+                .mimeType("application/javascript+module")
+                .buildLiteral();
+    }
+
+    /**
+     * Forget the cached sources of the trick with the given {@code trickId}.
+     */
+    public static void invalidate(int trickId) {
+        SOURCES.asMap().keySet().removeIf(key -> key.trickId() == trickId);
+    }
+
+    /**
+     * Compile the given {@code tricks} ahead of time, so that their next run does not have to parse them.
+     * Tricks that fail to compile are skipped, as the error will be reported to whoever runs them.
+     *
+     * @param tricks the tricks to compile
+     */
+    public static void precompile(Collection<Trick> tricks) {
+        if (tricks.isEmpty()) return;
+
+        final long start = System.nanoTime();
+        int compiled = 0;
+        // Compiled code is cached by the engine, so it is shared with the contexts the tricks will later run in
+        try (final Context context = ScriptUtils.createContext()) {
+            for (final Trick trick : tricks) {
+                try {
+                    context.parse(of(trick));
+                    compiled++;
+                } catch (Exception exception) {
+                    LOGGER.debug("Could not precompile trick {}: ", trick.id(), exception);
+                }
+            }
+        }
+        LOGGER.info("Precompiled {} tricks in {} ms", compiled, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private record Key(int trickId, String script) {}
+}
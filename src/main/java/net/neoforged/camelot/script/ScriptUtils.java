@@ -4,6 +4,7 @@ import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.utils.messages.MessageCreateData;
 import net.neoforged.camelot.BotMain;
 import net.neoforged.camelot.config.module.Tricks;
+import net.neoforged.camelot.db.schemas.Trick;
 import net.neoforged.camelot.module.TricksModule;
 import net.neoforged.camelot.util.Utils;
 import org.graalvm.polyglot.Context;
@@ -15,6 +16,7 @@ import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.graalvm.polyglot.proxy.ProxyExecutable;
 import org.intellij.lang.annotations.Language;
+import org.jetbrains.annotations.Nullable;
 import org.kohsuke.args4j.CmdLineParser;
 import org.kohsuke.args4j.ParserProperties;
 import org.kohsuke.args4j.spi.OptionHandler;
@@ -33,16 +35,14 @@ import java.nio.file.LinkOption;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileAttribute;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 /**
@@ -145,52 +145,56 @@ public class ScriptUtils {
         }
     };
 
-    public static final ScheduledExecutorService SERVICE = Executors.newScheduledThreadPool(3, r -> {
-        final Thread thread = new Thread(r, "Script execution");
-        thread.setDaemon(true);
-        return thread;
-    });
+    /**
+     * An executor for background work around scripts, such as updating slash tricks. Scripts themselves are run by the
+     * {@linkplain TricksModule#scheduler() scheduler}.
+     */
+    public static final ExecutorService SERVICE = Executors.newFixedThreadPool(2, Thread.ofPlatform().name("script-background-", 0).daemon().factory());
 
-    static {
-        ((ScheduledThreadPoolExecutor) SERVICE).setMaximumPoolSize(10);
+    /**
+     * Submits the given {@code trick} for execution on the {@linkplain TricksModule#scheduler() scheduler}, timing out after the configured timeout.
+     *
+     * @param context the context to evaluate the trick with
+     * @param trick   the trick to evaluate
+     * @param args    the arguments to evaluate the trick with
+     */
+    public static void submitExecution(ScriptContext context, Trick trick, Object args) {
+        submitExecution(context, trick.id(), ScriptSources.of(trick), args);
     }
 
     /**
-     * Submits the given {@code script} for execution on another thread, timing out after 5 seconds.
+     * Submits the given {@code script} for execution on the {@linkplain TricksModule#scheduler() scheduler}, timing out after the configured timeout.
      *
      * @param context the context to evaluate the script with
-     * @param script  the script to evaluate
+     * @param script  the source of the script to evaluate, see {@link ScriptSources}
      * @param args    the arguments to evaluate the script with
      */
-    public static void submitExecution(ScriptContext context, String script, Object args) {
-        final Future<Void> execution = ScriptUtils.SERVICE.submit(() -> ScriptUtils.execute(context, script, args instanceof List<?> ? (List<String>) args : ScriptUtils.toArgs(args.toString())), null);
-        final Tricks config = BotMain.getModule(TricksModule.class).config();
-
-        ScriptUtils.SERVICE.schedule(() -> {
-            if (execution.isDone()) {
-                if (!context.reply().wasReplied()) {
-                    context.reply().send(MessageCreateData.fromContent("Script did not send any reply!")).queue();
-                }
-            } else {
-                execution.cancel(true);
-                context.reply().accept(MessageCreateData.fromContent("Script execution timed out!"));
-            }
-        }, context.priviliged() ? config.getPrivilegedExecutionTimeout() : config.getExecutionTimeout(), TimeUnit.SECONDS);
+    public static void submitExecution(ScriptContext context, Source script, Object args) {
+        submitExecution(context, null, script, args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void submitExecution(ScriptContext context, @Nullable Integer trickId, Source script, Object args) {
+        final TricksModule module = BotMain.getModule(TricksModule.class);
+        final Tricks config = module.config();
+        final List<String> arguments = args instanceof List<?> ? (List<String>) args : ScriptUtils.toArgs(args.toString());
+        module.scheduler().submit(context, trickId, Duration.ofSeconds(context.priviliged() ? config.getPrivilegedExecutionTimeout() : config.getExecutionTimeout()),
+                () -> ScriptUtils.execute(context, script, arguments));
     }
 
     /**
      * Evaluate the given {@code script}.
      *
      * @param context   the context to evaluate the script with
-     * @param script    the script to evaluate
+     * @param script    the source of the script to evaluate, see {@link ScriptSources}
      * @param arguments the arguments to evaluate the script with
      */
     public static void execute(
             ScriptContext context,
-            String script,
+            Source script,
             List<String> arguments
     ) {
-        try (final Context graal = buildContext()) {
+        try (final Context graal = BotMain.getModule(TricksModule.class).contexts().acquire()) {
             final var bindings = graal.getBindings("js");
 
             final CmdLineParser parser = new NegativeNumberAwareParser(null, ParserProperties.defaults().withAtSyntax(false).withUsageWidth(40));
@@ -205,10 +209,7 @@ public class ScriptUtils {
             context.compile().transferTo(bindings);
 
             try {
-                final Source source = Source.newBuilder("js", EXPORT_MEMBERS + script, "script.js")
-                        .mimeType("application/javascript+module")
-                        .build();
-                graal.eval(source);
+                graal.eval(script);
 
                 final Value execute = exports.getMember("execute").execute();
                 if (!execute.isNull()) {
@@ -255,35 +256,44 @@ public class ScriptUtils {
 
     /**
      * Retrieve static information (description, arguments and options) about a script without running the {@code execute} function.
+     * <p>
+     * This evaluates the script. Prefer {@link ScriptInformationCache#get(String)}, which only evaluates scripts it has not seen before.
      *
      * @param script the text of the script
      * @return information about the script
      * @throws CannotRetrieveInformationException if script {@link Context#eval(Source) evaluation} threw an exception
      */
     public static ScriptInformation getInformation(String script) throws CannotRetrieveInformationException {
-        try (final Context graal = buildContext()) {
+        return describe(script).toInformation();
+    }
+
+    /**
+     * Evaluate the given {@code script} to describe its static information, without running the {@code execute} function.
+     *
+     * @param script the text of the script
+     * @return a description of the script
+     * @throws CannotRetrieveInformationException if script {@link Context#eval(Source) evaluation} threw an exception
+     */
+    public static ScriptInformation.Descriptor describe(String script) throws CannotRetrieveInformationException {
+        try (final Context graal = BotMain.getModule(TricksModule.class).contexts().acquire()) {
             final var bindings = graal.getBindings("js");
 
             final CmdLineParser parser = new NegativeNumberAwareParser(null, ParserProperties.defaults().withAtSyntax(false));
-            final ScriptOptions scriptOptions = new ScriptOptions.OptionBuilding(parser);
+            final ScriptOptions.OptionBuilding scriptOptions = new ScriptOptions.OptionBuilding(parser);
             bindings.putMember("catchUndefined", CATCH_UNDEFINED);
             bindings.putMember("options", scriptOptions);
             bindings.putMember("simpleExports", ScriptObject.of("Exports"));
             final Value exports = bindings.getMember("simpleExports");
 
             try {
-                final Source source = Source.newBuilder("js", EXPORT_MEMBERS + script, "script.js")
-                        .mimeType("application/javascript+module")
-                        .build();
-                graal.eval(source);
+                graal.eval(ScriptSources.build(script));
 
                 final Value desc = exports.getMember("description").execute();
                 final String descString = desc.isNull() ? "" : toString(desc);
 
-                //noinspection unchecked,rawtypes
-                return new ScriptInformation(
+                return new ScriptInformation.Descriptor(
                         descString.isBlank() ? "Trick has no description" : descString,
-                        (List)parser.getOptions(), (List) parser.getArguments()
+                        scriptOptions.getDeclarations()
                 );
             } catch (Exception ex) {
                 throw new CannotRetrieveInformationException(ex);
@@ -291,7 +301,12 @@ public class ScriptUtils {
         }
     }
 
-    private static Context buildContext() {
+    /**
+     * Build a new sandboxed context. Script executions should instead acquire a context from the {@linkplain TricksModule#contexts() pool}.
+     *
+     * @return the new context
+     */
+    public static Context createContext() {
         final Context.Builder builder = Context.newBuilder("js", "regex")
                 .allowNativeAccess(false)
                 .allowCreateProcess(false)
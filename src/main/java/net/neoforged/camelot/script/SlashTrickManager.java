@@ -143,9 +143,9 @@ public class SlashTrickManager implements EventListener {
                     }
                 }, trick.privileged());
 
-                ScriptUtils.submitExecution(context, trick.script(), options);
+                ScriptUtils.submitExecution(context, trick, options);
 
-                BotMain.stats(StatsDAO.Tricks.class, extension -> extension.incrementSlashUses(trick.id()));
+                BotMain.recordStats(StatsDAO.Tricks.class, extension -> extension.incrementSlashUses(trick.id()));
             }
             default -> {}
         }
@@ -172,7 +172,7 @@ public class SlashTrickManager implements EventListener {
                     try {
                         consumeTrick(
                                 trick,
-                                ScriptUtils.getInformation(tricksDAO.getTrick(trick.id()).script()),
+                                ScriptInformationCache.get(tricksDAO.getTrick(trick.id()).script()),
                                 trick.subgroup() == null ? subcommands::add : cmd -> subgroups.put(trick.subgroup(), cmd),
                                 trickInfos::put
                         );
@@ -0,0 +1,196 @@
+package net.neoforged.camelot.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.messages.MessageSnapshot;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable analysis of a message, shared by all listeners that handle the same message.
+ * <p>
+ * Most message listeners look at the same things (the author, the words of the message, its code blocks...). Instead of each listener scanning
+ * the content of every message again, listeners should get the facts of the message using {@link #of(Message)}: the facts are computed lazily,
+ * at most once per message, and the same instance is returned for the same message object, so the listeners of an event share them.
+ */
+public final class MessageFacts {
+    private static final Pattern CODE_BLOCK_PATTERN = Pattern.compile("`{3}(?<lang>\\w*)\\n(?<content>[\\s\\S]*?)\\n`{3}", Pattern.MULTILINE);
+
+    // Weak keys are compared by identity, so the facts of a message are only shared with the listeners of the same event.
+    // The facts must not reference their message, or its key would never be collected
+    private static final Cache<Message, MessageFacts> FACTS = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(1024)
+            .expireAfterAccess(Duration.ofMinutes(1))
+            .build();
+
+    private final String content;
+    private final boolean fromBot, fromSystem;
+    private final List<Message.Attachment> attachments;
+
+    private volatile List<String> tokens;
+    private volatile List<CodeBlock> codeBlocks;
+    @Nullable
+    private volatile PrefixMatch lastPrefixMatch;
+
+    private MessageFacts(Message message) {
+        this.content = message.getContentRaw();
+        this.fromBot = message.getAuthor().isBot();
+        this.fromSystem = message.getAuthor().isSystem();
+
+        if (message.getMessageSnapshots().isEmpty()) {
+            this.attachments = message.getAttachments();
+        } else {
+            final List<Message.Attachment> all = new ArrayList<>(message.getAttachments());
+            for (final MessageSnapshot snapshot : message.getMessageSnapshots()) {
+                all.addAll(snapshot.getAttachments());
+            }
+            this.attachments = Collections.unmodifiableList(all);
+        }
+    }
+
+    /**
+     * {@return the facts of the given {@code message}}
+     */
+    public static MessageFacts of(Message message) {
+        return FACTS.get(message, MessageFacts::new);
+    }
+
+    /**
+     * {@return the raw content of the message}
+     */
+    public String content() {
+        return content;
+    }
+
+    /**
+     * {@return whether the message was sent by a bot or a webhook}
+     */
+    public boolean fromBot() {
+        return fromBot;
+    }
+
+    /**
+     * {@return whether the message was sent by Discord itself}
+     */
+    public boolean fromSystem() {
+        return fromSystem;
+    }
+
+    /**
+     * {@return whether the message was sent by a user, and not by a bot, a webhook or Discord itself}
+     */
+    public boolean fromUser() {
+        return !fromBot() && !fromSystem();
+    }
+
+    /**
+     * {@return the whitespace-separated words of the message}
+     */
+    public List<String> tokens() {
+        List<String> tokens = this.tokens;
+        if (tokens == null) {
+            final List<String> found = new ArrayList<>();
+            int start = -1;
+            for (int i = 0; i < content.length(); i++) {
+                if (Character.isWhitespace(content.charAt(i))) {
+                    if (start >= 0) {
+                        found.add(content.substring(start, i));
+                        start = -1;
+                    }
+                } else if (start < 0) {
+                    start = i;
+                }
+            }
+            if (start >= 0) found.add(content.substring(start));
+            this.tokens = tokens = Collections.unmodifiableList(found);
+        }
+        return tokens;
+    }
+
+    /**
+     * {@return the fenced code blocks of the message}
+     */
+    public List<CodeBlock> codeBlocks() {
+        List<CodeBlock> codeBlocks = this.codeBlocks;
+        if (codeBlocks == null) {
+            final int first = content.indexOf("```");
+            // A code block needs at least two fences, so avoid running the pattern on most messages
+            if (first < 0 || first == content.lastIndexOf("```")) {
+                codeBlocks = List.of();
+            } else {
+                final List<CodeBlock> found = new ArrayList<>();
+                final Matcher matcher = CODE_BLOCK_PATTERN.matcher(content);
+                while (matcher.find()) {
+                    found.add(new CodeBlock(matcher.group("lang"), matcher.group("content")));
+                }
+                codeBlocks = Collections.unmodifiableList(found);
+            }
+            this.codeBlocks = codeBlocks;
+        }
+        return codeBlocks;
+    }
+
+    /**
+     * {@return the attachments of the message and of the messages it forwards}
+     */
+    public List<Message.Attachment> attachments() {
+        return attachments;
+    }
+
+    /**
+     * Match the message against a command {@code prefix}.
+     *
+     * @param prefix the prefix
+     * @return the command invoked by the message, or {@code null} if the message does not start with the prefix
+     */
+    @Nullable
+    public PrefixMatch prefixed(String prefix) {
+        if (!content.startsWith(prefix)) return null;
+
+        // Listeners of the same guild look for the same prefix, so remember the last match
+        final PrefixMatch last = this.lastPrefixMatch;
+        if (last != null && last.prefix().equals(prefix)) return last;
+
+        final int nextSpace = content.indexOf(' ');
+        final PrefixMatch match = new PrefixMatch(
+                prefix,
+                content.substring(prefix.length(), nextSpace < 0 ? content.length() : nextSpace),
+                nextSpace < 0 ? "" : content.substring(nextSpace + 1)
+        );
+        this.lastPrefixMatch = match;
+        return match;
+    }
+
+    /**
+     * A fenced code block.
+     *
+     * @param language the language of the code block, or an empty string if none was specified
+     * @param content  the content of the code block
+     */
+    public record CodeBlock(String language, String content) {
+        /**
+         * {@return the amount of lines of the code block}
+         */
+        public int lineCount() {
+            return (int) content.lines().count();
+        }
+    }
+
+    /**
+     * A message starting with a command prefix.
+     *
+     * @param prefix    the prefix
+     * @param command   the name of the command, that follows the prefix until the first space
+     * @param arguments the arguments of the command, after the first space
+     */
+    public record PrefixMatch(String prefix, String command, String arguments) {
+    }
+}
@@ -9,6 +9,7 @@ import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
 import net.dv8tion.jda.api.hooks.EventListener;
 import net.dv8tion.jda.api.requests.ErrorResponse;
 import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.sharding.ShardManager;
 import net.neoforged.camelot.BotMain;
 import org.jetbrains.annotations.Nullable;
 
@@ -165,7 +166,9 @@ public class Utils {
 
     public record MessageLinkInformation(long guildId, long channelId, long messageId) {
         public Optional<RestAction<Message>> retrieve(JDA bot) {
-            return Optional.ofNullable(bot.getGuildById(guildId))
+            // The guild of the message may be handled by another shard than the given one
+            final ShardManager shards = bot.getShardManager();
+            return Optional.ofNullable(shards == null ? bot.getGuildById(guildId) : shards.getGuildById(guildId))
                     .flatMap(guild -> Optional.ofNullable(guild.getChannelById(GuildMessageChannel.class, channelId)))
                     .map(channel -> channel.retrieveMessageById(messageId));
         }
@@ -28,6 +28,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A manager for application emojis that creates and retrieves the IDs of the emojis specified by a bundle.
@@ -39,6 +40,7 @@ public class AppEmojiManager implements EventListener {
     private Map<String, CustomEmoji> emojis;
 
     private final Map<String, DelegatedEmoji> delegated = new HashMap<>();
+    private final AtomicBoolean updating = new AtomicBoolean();
 
     public AppEmojiManager(EmojiBundle bundle) {
         this.bundle = bundle;
@@ -71,6 +73,8 @@ public class AppEmojiManager implements EventListener {
     @Override
     public void onEvent(@NotNull GenericEvent gevent) {
         if (!(gevent instanceof ReadyEvent event)) return;
+        // Application emojis are shared by all shards, so only the first shard to be ready updates them
+        if (!updating.compareAndSet(false, true)) return;
 
         event.getJDA().retrieveApplicationEmojis()
                 .queue(existing -> {
@@ -18,7 +18,7 @@ import java.util.function.Consumer;
 /**
  * A simple in-memory component manager. <br>
  * This manager uses {@link Consumer Consumers}, allowing you to store any data you want outside the component ID itself. <br>
- * Components will be assigned a unique {@link UUID}, which will be stored and handled for 10 minutes, or until the component
+ * Components will be assigned a unique {@link UUID} (prefixed by {@link #ID_PREFIX}), which will be stored and handled for 10 minutes, or until the component
  * becomes the {@code 10000th} recoded component, at which point it will be invalidated. <br><br>
  * <p>
  * This manager can create buttons and modals.
@@ -28,6 +28,11 @@ import java.util.function.Consumer;
  * @see Bot#components()
  */
 public class ComponentManager implements EventListener {
+    /**
+     * The prefix of the IDs of the components handled by this manager.
+     */
+    public static final String ID_PREFIX = "cm:";
+
     private final Cache<String, Consumer<? extends ICustomIdInteraction>> componentHandlers = Caffeine.newBuilder()
             .expireAfterWrite(10, TimeUnit.MINUTES)
             .maximumSize(10_000)
@@ -93,10 +98,10 @@ public class ComponentManager implements EventListener {
      * Assigns the given {@code consumer} a unique {@link UUID} which will be handled by this manager for the next 10 minutes.
      *
      * @param consumer the consumer to execute on button click
-     * @return the assigned UUID
+     * @return the assigned ID
      */
     public <T extends ICustomIdInteraction> String handler(Consumer<T> consumer) {
-        final String id = UUID.randomUUID().toString();
+        final String id = ID_PREFIX + UUID.randomUUID();
         componentHandlers.put(id, consumer);
         return id;
     }
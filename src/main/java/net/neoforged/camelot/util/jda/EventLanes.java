@@ -0,0 +1,175 @@
+package net.neoforged.camelot.util.jda;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Ordered execution lanes, one per guild, backed by virtual threads.
+ * <p>
+ * Tasks submitted to the same lane run one after the other in submission order, while the tasks of different lanes run in parallel.
+ * A lane only holds a thread while it has queued tasks, so idle guilds cost nothing but their (small) lane object.
+ * Each lane queues at most {@link #maximumQueued} tasks: once it is full, new tasks are rejected, so that a guild whose listeners are stuck
+ * cannot make the bot run out of memory. The queue depths and rejections are reported by {@link #logStats()}.
+ *
+ * @see EventRouter
+ */
+public final class EventLanes {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventLanes.class);
+
+    private final int maximumQueued;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("guild-events-", 0).factory());
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+    /**
+     * The tasks rejected since the last {@linkplain #logStats() report}, including those of lanes that were removed since.
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Create new lanes.
+     *
+     * @param maximumQueued the maximum amount of tasks queued on a single lane
+     */
+    public EventLanes(int maximumQueued) {
+        if (maximumQueued <= 0) throw new IllegalArgumentException("Maximum queued tasks must be positive, got " + maximumQueued);
+        this.maximumQueued = maximumQueued;
+    }
+
+    /**
+     * Queue the given {@code task} on the lane of the guild with the given ID.
+     *
+     * @return {@code true} if the task was queued, or {@code false} if the lane is full and the task was rejected
+     */
+    public boolean submit(long guildId, Runnable task) {
+        return lanes.computeIfAbsent(guildId, Lane::new).submit(task);
+    }
+
+    /**
+     * Remove the lane of the guild with the given ID. The tasks already queued on the lane still run.
+     */
+    public void remove(long guildId) {
+        lanes.remove(guildId);
+    }
+
+    /**
+     * {@return the metrics of the lanes, sorted by their current queue depth}
+     */
+    public List<Stats> stats() {
+        return lanes.values().stream()
+                .map(Lane::stats)
+                .sorted(Comparator.comparingInt(Stats::queued).reversed())
+                .toList();
+    }
+
+    /**
+     * Log the amount of queued tasks, the amount of tasks rejected since the last call, and the busiest lanes.
+     * Nothing is logged while no task is queued and no task was rejected.
+     */
+    public void logStats() {
+        final long rejected = this.rejected.sumThenReset();
+        final List<Stats> stats = stats();
+        final int queued = stats.stream().mapToInt(Stats::queued).sum();
+        if (queued == 0 && rejected == 0) return;
+
+        final String busiest = stats.stream()
+                .limit(5)
+                .filter(lane -> lane.queued() > 0)
+                .map(lane -> lane.guildId() + " (" + lane.queued() + " queued, at most " + lane.maximumDepth() + ")")
+                .collect(Collectors.joining(", "));
+        if (rejected > 0) {
+            LOGGER.warn("{} events queued across {} guild event lanes, {} events rejected since the last report. Busiest lanes: {}", queued, stats.size(), rejected, busiest);
+        } else {
+            LOGGER.info("{} events queued across {} guild event lanes. Busiest lanes: {}", queued, stats.size(), busiest);
+        }
+    }
+
+    private record Task(Runnable runnable, long queuedAt) {}
+
+    private final class Lane {
+        private final long guildId;
+        private final ArrayDeque<Task> queue = new ArrayDeque<>();
+        private boolean running, full;
+
+        private long completed, rejected, waitNanos;
+        private int maximumDepth;
+
+        private Lane(long guildId) {
+            this.guildId = guildId;
+        }
+
+        boolean submit(Runnable runnable) {
+            synchronized (this) {
+                if (queue.size() >= maximumQueued) {
+                    rejected++;
+                    EventLanes.this.rejected.increment();
+                    // Only log once until the lane catches up, not for every event rejected while it is backlogged
+                    if (!full) {
+                        full = true;
+                        LOGGER.warn("Event lane of guild {} is full ({} queued events), rejecting new events", guildId, queue.size());
+                    }
+                    return false;
+                }
+
+                queue.add(new Task(runnable, System.nanoTime()));
+                maximumDepth = Math.max(maximumDepth, queue.size());
+                if (running) return true;
+                running = true;
+            }
+
+            executor.execute(this::drain);
+            return true;
+        }
+
+        private void drain() {
+            while (true) {
+                final Task task;
+                synchronized (this) {
+                    task = queue.poll();
+                    if (task == null) {
+                        running = false;
+                        full = false;
+                        return;
+                    }
+                    waitNanos += System.nanoTime() - task.queuedAt();
+                }
+
+                try {
+                    task.runnable().run();
+                } catch (Throwable throwable) {
+                    LOGGER.error("Event lane of guild {} failed to run task: ", guildId, throwable);
+                }
+
+                synchronized (this) {
+                    completed++;
+                }
+            }
+        }
+
+        synchronized Stats stats() {
+            return new Stats(guildId, queue.size(), maximumDepth, completed, rejected, Duration.ofNanos(waitNanos));
+        }
+    }
+
+    /**
+     * A snapshot of the metrics of a lane.
+     *
+     * @param guildId      the ID of the guild of the lane
+     * @param queued       the amount of tasks currently queued on the lane
+     * @param maximumDepth the maximum amount of tasks that were queued on the lane at once
+     * @param completed    the amount of tasks the lane ran
+     * @param rejected     the amount of tasks rejected because the lane was full
+     * @param totalWait    the total time tasks spent queued before they ran
+     */
+    public record Stats(long guildId, int queued, int maximumDepth, long completed, long rejected, Duration totalWait) {
+    }
+}
@@ -0,0 +1,340 @@
+package net.neoforged.camelot.util.jda;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.channel.GenericChannelEvent;
+import net.dv8tion.jda.api.events.guild.GenericGuildEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.interaction.GenericInteractionCreateEvent;
+import net.dv8tion.jda.api.events.message.GenericMessageEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
+import net.dv8tion.jda.api.hooks.IEventManager;
+import net.neoforged.camelot.Bot;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * An event manager that routes each event only to the handlers registered for its type.
+ * <p>
+ * Handlers are registered for an event type (and optionally for a single guild), and receive every event that is an instance
+ * of that type. The handlers of each concrete event class are resolved once and cached, so dispatching an event costs a single
+ * lookup, regardless of how many handlers are registered for other events. Each handler counts its invocations, failures and
+ * the time spent in it, see {@link #stats()}. The slowest handlers are reported by {@link #logStats()}.
+ * <p>
+ * Listeners registered through JDA (e.g. {@link net.dv8tion.jda.api.JDA#addEventListener(Object...)}) receive all events,
+ * so listeners should instead be registered with the types of the events they handle using {@link #listen(String, EventListener, Class[])}.
+ * <p>
+ * By default, handlers run on the JDA event thread. If the router is created with {@link EventLanes}, the events of each guild are instead
+ * handled on the lane of the guild: the events of a guild are still handled in order, but a handler blocking in one guild no longer delays
+ * the events of the other guilds. Events that do not belong to a guild are always handled on the JDA event thread.
+ *
+ * @see Bot#events()
+ */
+public final class EventRouter implements IEventManager {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventRouter.class);
+    private static final Handler[] NO_HANDLERS = new Handler[0];
+
+    private final List<Handler> handlers = new CopyOnWriteArrayList<>();
+    @Nullable
+    private final EventLanes lanes;
+
+    /**
+     * The handlers of each concrete event class. Replaced whenever a handler is registered or removed.
+     */
+    private volatile Map<Class<?>, Route> routes = new ConcurrentHashMap<>();
+
+    /**
+     * The amount of invocations and failures of all handlers at the time of the last {@linkplain #logStats() report}.
+     */
+    private long reportedInvocations, reportedFailures;
+
+    /**
+     * Create a router that handles all events on the JDA event thread.
+     */
+    public EventRouter() {
+        this(null);
+    }
+
+    /**
+     * Create a router.
+     *
+     * @param lanes the lanes the events of each guild are handled on, or {@code null} to handle all events on the JDA event thread
+     */
+    public EventRouter(@Nullable EventLanes lanes) {
+        this.lanes = lanes;
+    }
+
+    /**
+     * Register a handler for the events of the given {@code type}.
+     *
+     * @param name    the name of the handler, used for logging and metrics
+     * @param type    the type of the events to handle. Subtypes of this type are handled too
+     * @param handler the handler
+     * @return a runnable that removes the handler when run
+     */
+    public <E extends GenericEvent> Runnable on(String name, Class<E> type, Consumer<? super E> handler) {
+        return register(new Handler(name, type, 0, handler));
+    }
+
+    /**
+     * Register a handler for the events of the given {@code type} that happen in the guild with the given {@code guildId}.
+     *
+     * @param name    the name of the handler, used for logging and metrics
+     * @param guildId the ID of the guild whose events to handle
+     * @param type    the type of the events to handle. Subtypes of this type are handled too
+     * @param handler the handler
+     * @return a runnable that removes the handler when run
+     */
+    public <E extends GenericEvent> Runnable onGuild(String name, long guildId, Class<E> type, Consumer<? super E> handler) {
+        return register(new Handler(name, type, guildId, handler));
+    }
+
+    /**
+     * Register a listener for the events of the given {@code types}.
+     *
+     * @param name     the name of the listener, used for logging and metrics
+     * @param listener the listener
+     * @param types    the types of the events the listener handles
+     * @return a runnable that removes the listener when run
+     */
+    @SafeVarargs
+    public final Runnable listen(String name, EventListener listener, Class<? extends GenericEvent>... types) {
+        return listen(name, 0, listener, types);
+    }
+
+    /**
+     * Register a listener for the events of the given {@code types} that happen in the guild with the given {@code guildId}.
+     *
+     * @param name     the name of the listener, used for logging and metrics
+     * @param guildId  the ID of the guild whose events to handle, or {@code 0} to handle the events of all guilds
+     * @param listener the listener
+     * @param types    the types of the events the listener handles
+     * @return a runnable that removes the listener when run
+     */
+    @SafeVarargs
+    public final Runnable listen(String name, long guildId, EventListener listener, Class<? extends GenericEvent>... types) {
+        final List<Runnable> removers = new ArrayList<>(types.length);
+        for (final Class<? extends GenericEvent> type : types) {
+            removers.add(register(new Handler(name, type, guildId, listener)));
+        }
+        return () -> removers.forEach(Runnable::run);
+    }
+
+    /**
+     * {@return the metrics of the registered handlers, sorted by the total time spent in them}
+     */
+    public List<Stats> stats() {
+        return handlers.stream()
+                .map(Handler::stats)
+                .sorted(Comparator.comparing(Stats::totalTime).reversed())
+                .toList();
+    }
+
+    /**
+     * Log the amount of events handled and failed since the last call, and the handlers that took the most time in total.
+     * Nothing is logged while no event was handled.
+     */
+    public synchronized void logStats() {
+        final List<Stats> stats = stats();
+        final long invocations = stats.stream().mapToLong(Stats::invocations).sum() - reportedInvocations;
+        final long failures = stats.stream().mapToLong(Stats::failures).sum() - reportedFailures;
+        reportedInvocations += invocations;
+        reportedFailures += failures;
+        if (invocations <= 0) return;
+
+        final String slowest = stats.stream()
+                .limit(5)
+                .map(handler -> handler.name() + " (" + handler.type().getSimpleName() + ", " + handler.invocations() + " events in " + handler.totalTime().toMillis() + "ms)")
+                .collect(Collectors.joining(", "));
+        if (failures > 0) {
+            LOGGER.warn("{} event handler invocations since the last report, {} of which failed. Slowest handlers: {}", invocations, failures, slowest);
+        } else {
+            LOGGER.info("{} event handler invocations since the last report. Slowest handlers: {}", invocations, slowest);
+        }
+    }
+
+    @Override
+    public void register(@NotNull Object listener) {
+        if (!(listener instanceof EventListener eventListener)) {
+            throw new IllegalArgumentException("Listener must implement EventListener");
+        }
+        register(new Handler(listener.getClass().getName(), GenericEvent.class, 0, eventListener));
+    }
+
+    @Override
+    public void unregister(@NotNull Object listener) {
+        if (handlers.removeIf(handler -> handler.listener == listener)) {
+            routes = new ConcurrentHashMap<>();
+        }
+    }
+
+    @NotNull
+    @Override
+    public List<Object> getRegisteredListeners() {
+        return handlers.stream().map(handler -> handler.listener).distinct().toList();
+    }
+
+    @Override
+    public void handle(@NotNull GenericEvent event) {
+        final Route route = routes.computeIfAbsent(event.getClass(), this::resolve);
+        if (route.handlers.length == 0 && route.guildHandlers == null) return;
+
+        final Guild guild = guildOf(event);
+        if (lanes == null || guild == null) {
+            dispatch(event, route, guild);
+            return;
+        }
+
+        final long guildId = guild.getIdLong();
+        final boolean queued = lanes.submit(guildId, () -> {
+            dispatch(event, route, guild);
+            if (event instanceof GuildLeaveEvent) {
+                lanes.remove(guildId);
+            }
+        });
+        // Tell the user why nothing happens, instead of letting the interaction time out
+        if (!queued && event instanceof IReplyCallback callback) {
+            callback.reply("The bot is too busy in this server right now, please try again later.").setEphemeral(true).queue();
+        }
+    }
+
+    private static void dispatch(GenericEvent event, Route route, @Nullable Guild guild) {
+        for (final Handler handler : route.handlers) {
+            handler.invoke(event);
+        }
+
+        if (route.guildHandlers != null && guild != null) {
+            final Handler[] guildHandlers = route.guildHandlers.get(guild.getIdLong());
+            if (guildHandlers != null) {
+                for (final Handler handler : guildHandlers) {
+                    handler.invoke(event);
+                }
+            }
+        }
+    }
+
+    private Runnable register(Handler handler) {
+        handlers.add(handler);
+        routes = new ConcurrentHashMap<>();
+        return () -> {
+            if (handlers.remove(handler)) {
+                routes = new ConcurrentHashMap<>();
+            }
+        };
+    }
+
+    private Route resolve(Class<?> eventClass) {
+        final List<Handler> global = new ArrayList<>();
+        Map<Long, List<Handler>> byGuild = null;
+        for (final Handler handler : handlers) {
+            if (!handler.type.isAssignableFrom(eventClass)) continue;
+
+            if (handler.guildId == 0) {
+                global.add(handler);
+            } else {
+                if (byGuild == null) byGuild = new HashMap<>();
+                byGuild.computeIfAbsent(handler.guildId, _ -> new ArrayList<>()).add(handler);
+            }
+        }
+
+        Map<Long, Handler[]> guildHandlers = null;
+        if (byGuild != null) {
+            guildHandlers = new HashMap<>(byGuild.size() * 2);
+            for (final var entry : byGuild.entrySet()) {
+                guildHandlers.put(entry.getKey(), entry.getValue().toArray(Handler[]::new));
+            }
+        }
+        return new Route(global.isEmpty() ? NO_HANDLERS : global.toArray(Handler[]::new), guildHandlers);
+    }
+
+    @Nullable
+    private static Guild guildOf(GenericEvent event) {
+        return switch (event) {
+            case GenericGuildEvent guildEvent -> guildEvent.getGuild();
+            case GenericMessageEvent messageEvent -> messageEvent.isFromGuild() ? messageEvent.getGuild() : null;
+            case GenericChannelEvent channelEvent -> channelEvent.isFromGuild() ? channelEvent.getGuild() : null;
+            case GenericInteractionCreateEvent interactionEvent -> interactionEvent.getGuild();
+            default -> null;
+        };
+    }
+
+    /**
+     * The handlers of a concrete event class.
+     *
+     * @param handlers      the handlers of all events of the class
+     * @param guildHandlers the handlers of the events of the class in specific guilds, or {@code null} if there are none
+     */
+    private record Route(Handler[] handlers, @Nullable Map<Long, Handler[]> guildHandlers) {}
+
+    private static final class Handler {
+        private final String name;
+        private final Class<?> type;
+        private final long guildId;
+        private final Object listener;
+        private final Consumer<Object> consumer;
+
+        private final LongAdder invocations = new LongAdder(), failures = new LongAdder(), nanos = new LongAdder();
+
+        @SuppressWarnings("unchecked")
+        private Handler(String name, Class<?> type, long guildId, Consumer<?> consumer) {
+            this.name = name;
+            this.type = type;
+            this.guildId = guildId;
+            this.listener = consumer;
+            this.consumer = (Consumer<Object>) consumer;
+        }
+
+        private Handler(String name, Class<?> type, long guildId, EventListener listener) {
+            this.name = name;
+            this.type = type;
+            this.guildId = guildId;
+            this.listener = listener;
+            this.consumer = event -> listener.onEvent((GenericEvent) event);
+        }
+
+        void invoke(GenericEvent event) {
+            final long start = System.nanoTime();
+            try {
+                consumer.accept(event);
+            } catch (Throwable throwable) {
+                failures.increment();
+                LOGGER.error("Event handler '{}' failed to handle {}: ", name, event.getClass().getSimpleName(), throwable);
+            } finally {
+                invocations.increment();
+                nanos.add(System.nanoTime() - start);
+            }
+        }
+
+        Stats stats() {
+            return new Stats(name, type, guildId, invocations.sum(), failures.sum(), Duration.ofNanos(nanos.sum()));
+        }
+    }
+
+    /**
+     * A snapshot of the metrics of an event handler.
+     *
+     * @param name        the name of the handler
+     * @param type        the type of the events the handler handles
+     * @param guildId     the ID of the guild whose events the handler handles, or {@code 0} if it handles the events of all guilds
+     * @param invocations the amount of events the handler was invoked for
+     * @param failures    the amount of events the handler threw an exception for
+     * @param totalTime   the total time spent in the handler
+     */
+    public record Stats(String name, Class<?> type, long guildId, long invocations, long failures, Duration totalTime) {
+    }
+}
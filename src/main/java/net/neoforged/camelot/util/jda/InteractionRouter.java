@@ -0,0 +1,244 @@
+package net.neoforged.camelot.util.jda;
+
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.interaction.GenericInteractionCreateEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.interactions.ICustomIdInteraction;
+import net.neoforged.camelot.Bot;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * A router dispatching component and modal interactions to the feature that claimed the prefix of their custom ID.
+ * <p>
+ * The claimed prefixes are stored in a trie, so routing an interaction walks its ID once, regardless of how many prefixes are claimed.
+ * If several claimed prefixes match an ID, the interaction is routed to the longest one. Interactions whose ID matches no claimed prefix are
+ * counted by the head of their ID (see {@link #unclaimed()}) and reported by {@link #logStats()}, so components that are no longer handled by anything can be found.
+ *
+ * @see Bot#interactions()
+ */
+public final class InteractionRouter implements EventListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InteractionRouter.class);
+    private static final int MAX_TRACKED_UNCLAIMED = 256;
+
+    private final List<Claim> claims = new CopyOnWriteArrayList<>();
+    private volatile Node root = new Node();
+
+    private final LongAdder unclaimedTotal = new LongAdder();
+    private final Map<String, LongAdder> unclaimed = new ConcurrentHashMap<>();
+    /**
+     * The total amount of unclaimed interactions at the time of the last {@linkplain #logStats() report}.
+     */
+    private long reportedUnclaimed;
+
+    /**
+     * Claim the interactions of the given {@code type} whose custom ID starts with the given {@code prefix}.
+     *
+     * @param prefix  the prefix of the custom IDs to claim
+     * @param type    the type of the interactions to claim
+     * @param handler the handler of the interactions
+     * @return a runnable that removes the claim when run
+     * @throws IllegalArgumentException if the prefix is already claimed for the same type
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends GenericInteractionCreateEvent & ICustomIdInteraction> Runnable claim(String prefix, Class<E> type, Consumer<? super E> handler) {
+        return register(prefix, type, (Consumer<Object>) handler);
+    }
+
+    /**
+     * Claim all component and modal interactions whose custom ID starts with the given {@code prefix}.
+     *
+     * @param prefix   the prefix of the custom IDs to claim
+     * @param listener the listener handling the interactions
+     * @return a runnable that removes the claim when run
+     * @throws IllegalArgumentException if the prefix is already claimed
+     * @see #claim(String, Class, Consumer)
+     */
+    public Runnable claim(String prefix, EventListener listener) {
+        return register(prefix, GenericInteractionCreateEvent.class, event -> listener.onEvent((GenericEvent) event));
+    }
+
+    private synchronized Runnable register(String prefix, Class<?> type, Consumer<Object> handler) {
+        if (prefix.isEmpty()) throw new IllegalArgumentException("Cannot claim the empty prefix");
+        for (final Claim claim : claims) {
+            if (claim.prefix.equals(prefix) && (claim.type.isAssignableFrom(type) || type.isAssignableFrom(claim.type))) {
+                throw new IllegalArgumentException("Prefix '" + prefix + "' is already claimed for " + claim.type.getSimpleName());
+            }
+        }
+
+        final Claim claim = new Claim(prefix, type, handler);
+        claims.add(claim);
+        root = build(claims);
+        return () -> {
+            synchronized (this) {
+                if (claims.remove(claim)) {
+                    root = build(claims);
+                }
+            }
+        };
+    }
+
+    /**
+     * {@return the amount of unclaimed interactions, by the head of their custom ID}
+     * The head of an ID is the part before the first {@code /}, {@code :} or {@code -}.
+     */
+    public Map<String, Long> unclaimed() {
+        final Map<String, Long> counts = new HashMap<>();
+        unclaimed.forEach((head, count) -> counts.put(head, count.sum()));
+        return counts;
+    }
+
+    /**
+     * {@return the total amount of unclaimed interactions}
+     */
+    public long unclaimedTotal() {
+        return unclaimedTotal.sum();
+    }
+
+    /**
+     * Log the amount of unclaimed interactions received since the last call, and the most common heads of their IDs.
+     * Nothing is logged while no unclaimed interaction was received.
+     */
+    public synchronized void logStats() {
+        final long total = unclaimedTotal();
+        final long received = total - reportedUnclaimed;
+        reportedUnclaimed = total;
+        if (received <= 0) return;
+
+        final String heads = unclaimed().entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(5)
+                .map(entry -> "'" + entry.getKey() + "' (" + entry.getValue() + ")")
+                .collect(Collectors.joining(", "));
+        LOGGER.warn("Received {} interactions with unclaimed IDs since the last report. Most common ID heads: {}", received, heads);
+    }
+
+    @Override
+    public void onEvent(@NotNull GenericEvent gevent) {
+        if (!(gevent instanceof GenericInteractionCreateEvent event) || !(gevent instanceof ICustomIdInteraction interaction)) return;
+
+        final String id = interaction.getCustomId();
+        final Claim[] matched = match(root, id, event);
+        if (matched == null) {
+            onUnclaimed(id);
+            return;
+        }
+
+        for (final Claim claim : matched) {
+            if (claim.accepts(event)) {
+                claim.handler.accept(event);
+            }
+        }
+    }
+
+    /**
+     * {@return the claims of the deepest node on the path of the given {@code id} that has a claim accepting the event}
+     */
+    @Nullable
+    private static Claim[] match(Node root, String id, GenericInteractionCreateEvent event) {
+        Claim[] matched = null;
+        Node node = root;
+        for (int i = 0; i < id.length() && node != null; i++) {
+            node = node.child(id.charAt(i));
+            if (node != null && node.claims != null) {
+                for (final Claim claim : node.claims) {
+                    if (claim.accepts(event)) {
+                        matched = node.claims;
+                        break;
+                    }
+                }
+            }
+        }
+        return matched;
+    }
+
+    private void onUnclaimed(String id) {
+        unclaimedTotal.increment();
+
+        int end = id.length();
+        for (int i = 0; i < id.length(); i++) {
+            final char c = id.charAt(i);
+            if (c == '/' || c == ':' || c == '-') {
+                end = i;
+                break;
+            }
+        }
+        final String head = id.substring(0, Math.min(end, 32));
+
+        LongAdder count = unclaimed.get(head);
+        if (count == null) {
+            // Bound the amount of tracked heads, in case the unclaimed IDs are random
+            if (unclaimed.size() >= MAX_TRACKED_UNCLAIMED) return;
+            count = unclaimed.computeIfAbsent(head, _ -> new LongAdder());
+            LOGGER.debug("Received interaction with unclaimed ID '{}'", id);
+        }
+        count.increment();
+    }
+
+    private static Node build(List<Claim> claims) {
+        final Node root = new Node();
+        for (final Claim claim : claims) {
+            Node node = root;
+            for (int i = 0; i < claim.prefix.length(); i++) {
+                node = node.getOrCreateChild(claim.prefix.charAt(i));
+            }
+            node.claims = node.claims == null ? new Claim[] {claim} : append(node.claims, claim);
+        }
+        return root;
+    }
+
+    private static Claim[] append(Claim[] claims, Claim claim) {
+        final Claim[] newClaims = Arrays.copyOf(claims, claims.length + 1);
+        newClaims[claims.length] = claim;
+        return newClaims;
+    }
+
+    private record Claim(String prefix, Class<?> type, Consumer<Object> handler) {
+        boolean accepts(GenericInteractionCreateEvent event) {
+            return type.isInstance(event);
+        }
+    }
+
+    /**
+     * A node of the trie. Nodes are only mutated while the trie is built, and are then published through the volatile {@link #root}.
+     */
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        @Nullable
+        private Claim[] claims;
+
+        @Nullable
+        Node child(char key) {
+            final char[] keys = this.keys;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) return children[i];
+            }
+            return null;
+        }
+
+        Node getOrCreateChild(char key) {
+            final Node existing = child(key);
+            if (existing != null) return existing;
+
+            final Node child = new Node();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            keys[keys.length - 1] = key;
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = child;
+            return child;
+        }
+    }
+}
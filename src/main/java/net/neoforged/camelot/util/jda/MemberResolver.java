@@ -0,0 +1,116 @@
+package net.neoforged.camelot.util.jda;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
+import net.dv8tion.jda.api.requests.ErrorResponse;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.neoforged.camelot.Bot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the members of guilds on demand.
+ * <p>
+ * The member cache of the bot may only hold the members that are currently active (see {@link net.neoforged.camelot.config.CamelotConfig#getMaxCachedMembers()}),
+ * so a member missing from the cache does not mean that the user is not in the guild. Features that need a member should resolve it
+ * through this class instead: cached members are returned immediately, and the others are requested from Discord. Concurrent requests for the
+ * same member share a single request.
+ *
+ * @see Bot#members()
+ */
+public final class MemberResolver {
+    /**
+     * The maximum amount of members Discord returns for a single request of members by ID.
+     */
+    private static final int MAX_MEMBERS_PER_REQUEST = 100;
+
+    private final Map<Key, CompletableFuture<Member>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Resolve the member of the given {@code guild} with the given {@code userId}.
+     *
+     * @return a future completed with the member, or with {@code null} if the user is not a member of the guild
+     */
+    public CompletableFuture<Member> resolve(Guild guild, long userId) {
+        final Member cached = guild.getMemberById(userId);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        final Key key = new Key(guild.getIdLong(), userId);
+        final CompletableFuture<Member> future = new CompletableFuture<>();
+        final CompletableFuture<Member> existing = pending.putIfAbsent(key, future);
+        if (existing != null) return existing;
+
+        guild.retrieveMemberById(userId).queue(member -> {
+            pending.remove(key);
+            future.complete(member);
+        }, error -> {
+            pending.remove(key);
+            if (isUnknownMember(error)) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(error);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Resolve the members of the given {@code guild} with the given {@code userIds}.
+     * <p>
+     * The members missing from the cache are requested in bulk through the gateway, instead of with a request per member.
+     *
+     * @return a future completed with the resolved members by their ID. Users that are not members of the guild are absent from the map
+     */
+    public CompletableFuture<Map<Long, Member>> resolveAll(Guild guild, Collection<Long> userIds) {
+        final Map<Long, Member> members = new ConcurrentHashMap<>();
+        final List<Long> missing = new ArrayList<>();
+        for (final long userId : new LinkedHashSet<>(userIds)) {
+            final Member cached = guild.getMemberById(userId);
+            if (cached != null) {
+                members.put(userId, cached);
+            } else {
+                missing.add(userId);
+            }
+        }
+        if (missing.isEmpty()) return CompletableFuture.completedFuture(members);
+
+        // Requesting members through the gateway needs the members intent, so fall back to a request per member without it
+        if (!guild.getJDA().getGatewayIntents().contains(GatewayIntent.GUILD_MEMBERS)) {
+            return CompletableFuture.allOf(missing.stream()
+                            .map(userId -> resolve(guild, userId).thenAccept(member -> {
+                                if (member != null) members.put(userId, member);
+                            }))
+                            .toArray(CompletableFuture[]::new))
+                    .thenApply(_ -> members);
+        }
+
+        final List<CompletableFuture<?>> requests = new ArrayList<>();
+        for (int i = 0; i < missing.size(); i += MAX_MEMBERS_PER_REQUEST) {
+            final long[] ids = missing.subList(i, Math.min(i + MAX_MEMBERS_PER_REQUEST, missing.size()))
+                    .stream().mapToLong(Long::longValue).toArray();
+            final CompletableFuture<Void> request = new CompletableFuture<>();
+            guild.retrieveMembersByIds(ids)
+                    .onSuccess(found -> {
+                        found.forEach(member -> members.put(member.getIdLong(), member));
+                        request.complete(null);
+                    })
+                    .onError(request::completeExceptionally);
+            requests.add(request);
+        }
+        return CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new)).thenApply(_ -> members);
+    }
+
+    private static boolean isUnknownMember(Throwable error) {
+        return error instanceof ErrorResponseException exception
+                && (exception.getErrorResponse() == ErrorResponse.UNKNOWN_MEMBER || exception.getErrorResponse() == ErrorResponse.UNKNOWN_USER);
+    }
+
+    private record Key(long guildId, long userId) {}
+}
@@ -0,0 +1,2 @@
+create index current_ban_appeals_guild_user on current_ban_appeals (guild, user);
+create index blocked_from_ban_appeals_guild_user on blocked_from_ban_appeals (guild, user);
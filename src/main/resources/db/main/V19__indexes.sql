@@ -0,0 +1,9 @@
+-- modlogs are always queried for a user in a guild, optionally filtered by type --
+create index modlogs_user_guild_type on modlogs (user, guild, type);
+
+-- the unban task queries the expired unbans of each guild --
+create index pending_unbans_guild_deadline on pending_unbans (guild, deadline);
+
+-- the aliases and promotions of a trick are looked up by its ID, and are cascade-deleted with the trick --
+create index trick_names_trick on trick_names (trick);
+create index slash_tricks_trick on slash_tricks (trick);
@@ -0,0 +1,7 @@
+create table script_information
+(
+    -- the hash of the script the information is about
+    hash        text not null primary key,
+    -- the static information of the script (description, options and arguments), as JSON
+    information text not null
+) without rowid;
@@ -0,0 +1,87 @@
+package net.neoforged.camelot.test;
+
+import net.neoforged.camelot.util.jda.EventLanes;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class EventLanesTest {
+    @Test
+    void testOrderedWithinGuild() throws Exception {
+        final EventLanes lanes = new EventLanes(Integer.MAX_VALUE);
+        final Map<Long, List<Integer>> handled = new HashMap<>();
+        for (long guild = 0; guild < 8; guild++) {
+            handled.put(guild, Collections.synchronizedList(new ArrayList<>()));
+        }
+
+        final CountDownLatch done = new CountDownLatch(8 * 1_000);
+        for (int i = 0; i < 1_000; i++) {
+            for (long guild = 0; guild < 8; guild++) {
+                final int event = i;
+                final List<Integer> guildEvents = handled.get(guild);
+                lanes.submit(guild, () -> {
+                    guildEvents.add(event);
+                    done.countDown();
+                });
+            }
+        }
+
+        Assertions.assertThat(done.await(1, TimeUnit.MINUTES)).isTrue();
+        handled.values().forEach(events -> Assertions.assertThat(events).isSorted().hasSize(1_000));
+    }
+
+    @Test
+    void testBlockedGuildDoesNotDelayOthers() throws Exception {
+        final EventLanes lanes = new EventLanes(Integer.MAX_VALUE);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch other = new CountDownLatch(1);
+
+        lanes.submit(1, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        lanes.submit(2, other::countDown);
+
+        // The second guild's event must run while the first guild's lane is still blocked
+        Assertions.assertThat(other.await(1, TimeUnit.MINUTES)).isTrue();
+        release.countDown();
+    }
+
+    @Test
+    void testRejectsWhenFull() throws Exception {
+        final EventLanes lanes = new EventLanes(4);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        lanes.submit(1, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assertions.assertThat(started.await(1, TimeUnit.MINUTES)).isTrue();
+
+        // The running task is no longer queued, so the lane has room for exactly 4 more
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertThat(lanes.submit(1, () -> {})).isTrue();
+        }
+        Assertions.assertThat(lanes.submit(1, () -> {})).isFalse();
+
+        final EventLanes.Stats stats = lanes.stats().getFirst();
+        Assertions.assertThat(stats.queued()).isEqualTo(4);
+        Assertions.assertThat(stats.rejected()).isEqualTo(1);
+        release.countDown();
+    }
+}
@@ -0,0 +1,271 @@
+package net.neoforged.camelot.test;
+
+import net.neoforged.camelot.Database;
+import net.neoforged.camelot.db.api.StringSearch;
+import net.neoforged.camelot.db.schemas.ModLogEntry;
+import net.neoforged.camelot.db.transactionals.BanAppealsDAO;
+import net.neoforged.camelot.db.transactionals.CountersDAO;
+import net.neoforged.camelot.db.transactionals.ModLogsDAO;
+import net.neoforged.camelot.db.transactionals.PendingUnbansDAO;
+import net.neoforged.camelot.db.transactionals.ScriptInformationDAO;
+import net.neoforged.camelot.db.transactionals.SlashTricksDAO;
+import net.neoforged.camelot.db.transactionals.StatsDAO;
+import net.neoforged.camelot.db.transactionals.TricksDAO;
+import net.neoforged.camelot.module.custompings.db.PingsDAO;
+import net.neoforged.camelot.module.infochannels.db.InfoChannelsDAO;
+import net.neoforged.camelot.module.infochannels.db.RulesDAO;
+import net.neoforged.camelot.module.mcverification.McVerificationDAO;
+import net.neoforged.camelot.module.quotes.db.QuotesDAO;
+import net.neoforged.camelot.module.reminders.db.RemindersDAO;
+import net.neoforged.camelot.module.stickyroles.StickyRolesDAO;
+import org.assertj.core.api.Assertions;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jdbi.v3.sqlobject.statement.SqlBatch;
+import org.jdbi.v3.sqlobject.statement.SqlQuery;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs {@code EXPLAIN QUERY PLAN} on the statements of all transactionals against their migrated schema, seeded with representative rows
+ * and analyzed so that the planner decides based on realistic statistics, and fails if any of them scans a whole table.
+ * <p>
+ * The SQL of every {@link SqlQuery}, {@link SqlUpdate} and {@link SqlBatch} method is checked. The queries built by default methods are
+ * captured by running them (see {@link Schema#dynamicStatements()}). The only statements that are not checked are the inserts built by
+ * default methods, as an insert never scans a table.
+ */
+public class QueryPlanTest {
+    /**
+     * Statements that are expected to scan a whole table, as they list, rank or count all rows, or search by substring.
+     */
+    private static final Set<String> ALLOWED_SCANS = Set.of(
+            "TricksDAO#getTrickAmount",
+            "TricksDAO#findTricksMatching",
+            "Tricks#getMostUsedTricks",
+            "InfoChannelsDAO#getChannels",
+            "RemindersDAO#getAllReminders",
+            "PingsDAO#getAllPings",
+            "StickyRolesDAO#getAllConfigurations"
+    );
+
+    /**
+     * The amount of rows seeded in each table.
+     */
+    private static final int SEEDED_ROWS = 2_000;
+
+    private static final Pattern NAMED_PARAMETER = Pattern.compile("(?<![:\\w]):\\w+");
+    private static final Pattern FULL_SCAN = Pattern.compile("SCAN (?:TABLE )?(\\w+)(?: AS \\w+)?");
+
+    @TempDir
+    static Path dir;
+
+    static Stream<Schema> schemas() {
+        return Stream.of(
+                new Schema("main", "classpath:db/main", List.of(ModLogsDAO.class, PendingUnbansDAO.class, TricksDAO.class, SlashTricksDAO.class, CountersDAO.class, ScriptInformationDAO.class), Map.of(
+                        "ModLogsDAO#getLogs", handle -> {
+                            final ModLogsDAO dao = handle.attach(ModLogsDAO.class);
+                            dao.getLogs(1, 2, 0, 10, null, null);
+                            dao.getLogs(1, 2, 0, 10, ModLogEntry.Type.WARN, null);
+                            dao.getLogs(1, 2, 0, 10, null, ModLogEntry.Type.NOTE);
+                        },
+                        "ModLogsDAO#getLogCount", handle -> {
+                            final ModLogsDAO dao = handle.attach(ModLogsDAO.class);
+                            dao.getLogCount(1, 2, null, null);
+                            dao.getLogCount(1, 2, ModLogEntry.Type.WARN, null);
+                            dao.getLogCount(1, 2, null, ModLogEntry.Type.NOTE);
+                        }
+                )),
+                new Schema("appeals", "classpath:db/appeals", List.of(BanAppealsDAO.class), Map.of()),
+                new Schema("stats", "classpath:db/stats", List.of(StatsDAO.Tricks.class), Map.of(
+                        "Tricks#getPrefixUses", handle -> handle.attach(StatsDAO.Tricks.class).getPrefixUses(1),
+                        "Tricks#getSlashUses", handle -> handle.attach(StatsDAO.Tricks.class).getSlashUses(1)
+                )),
+                new Schema("quotes", module("quotes"), List.of(QuotesDAO.class), Map.of(
+                        "QuotesDAO#findQuotes", handle -> {
+                            final QuotesDAO dao = handle.attach(QuotesDAO.class);
+                            dao.findQuotes(1, null, null, 0, 10);
+                            dao.findQuotes(1, StringSearch.contains("quote"), null, 0, 10);
+                            dao.findQuotes(1, StringSearch.contains("quote"), new QuotesDAO.UserSearch("2", true), 0, 10);
+                            dao.findQuotes(1, null, new QuotesDAO.UserSearch("author", false), 0, 10);
+                        },
+                        "QuotesDAO#getQuoteAmount", handle -> {
+                            final QuotesDAO dao = handle.attach(QuotesDAO.class);
+                            dao.getQuoteAmount(1, StringSearch.contains("quote"), null);
+                            dao.getQuoteAmount(1, StringSearch.contains("quote"), new QuotesDAO.UserSearch("2", true));
+                            dao.getQuoteAmount(1, null, new QuotesDAO.UserSearch("author", false));
+                        },
+                        "QuotesDAO#getOrCreateAuthor", handle -> {
+                            final QuotesDAO dao = handle.attach(QuotesDAO.class);
+                            dao.getOrCreateAuthor(1, "author", null);
+                            dao.getOrCreateAuthor(1, "author", 2L);
+                        }
+                )),
+                new Schema("reminders", module("reminders"), List.of(RemindersDAO.class), Map.of()),
+                new Schema("sticky-roles", module("stickyroles"), List.of(StickyRolesDAO.class), Map.of(
+                        "StickyRolesDAO#getAllConfigurations", handle -> handle.attach(StickyRolesDAO.class).getAllConfigurations()
+                )),
+                new Schema("custom-pings", module("custompings"), List.of(PingsDAO.class), Map.of(
+                        "PingsDAO#getAllPings", handle -> handle.attach(PingsDAO.class).getAllPings()
+                )),
+                new Schema("mc-verification", module("mcverification"), List.of(McVerificationDAO.class), Map.of()),
+                new Schema("info-channels", module("infochannels"), List.of(InfoChannelsDAO.class, RulesDAO.class), Map.of())
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("schemas")
+    void testNoFullTableScans(Schema schema) {
+        final Jdbi jdbi = Database.createDatabaseConnection(dir.resolve(schema.name() + ".db"), "Query plan test " + schema.name(), flyway -> flyway.locations(schema.location()));
+        jdbi.useHandle(QueryPlanTest::seed);
+
+        final List<Statement> statements = new ArrayList<>();
+        for (final Class<?> type : schema.transactionals()) {
+            for (final Method method : type.getMethods()) {
+                final String sql = sqlOf(method);
+                if (sql != null) {
+                    statements.add(new Statement(type.getSimpleName() + "#" + method.getName(), sql));
+                }
+            }
+        }
+        schema.dynamicStatements().forEach((source, invocation) -> captureStatements(jdbi, invocation)
+                .forEach(sql -> statements.add(new Statement(source, sql))));
+
+        final List<String> violations = new ArrayList<>();
+        jdbi.useHandle(handle -> {
+            final Set<String> tables = handle.createQuery("select name from sqlite_master where type = 'table'")
+                    .mapTo(String.class).set();
+            for (final Statement statement : statements) {
+                if (ALLOWED_SCANS.contains(statement.source())) continue;
+                for (final String detail : explain(handle, statement.sql())) {
+                    final Matcher matcher = FULL_SCAN.matcher(detail);
+                    if (matcher.matches() && tables.contains(matcher.group(1))) {
+                        violations.add(statement.source() + ": " + detail + " in `" + statement.sql() + "`");
+                    }
+                }
+            }
+        });
+
+        Assertions.assertThat(violations)
+                .as("statements scanning a whole table")
+                .isEmpty();
+    }
+
+    @AfterAll
+    static void closeDatabases() {
+        Database.close();
+    }
+
+    /**
+     * Fill every table with {@value #SEEDED_ROWS} rows, and analyze the database.
+     * Guilds have few distinct values and users many, as in a real database, so that the planner weighs the indexes like it would in production.
+     */
+    private static void seed(Handle handle) {
+        handle.execute("pragma foreign_keys = off");
+        final List<String> tables = handle.createQuery("select name from sqlite_master where type = 'table' and name not like 'sqlite_%' and name != 'flyway_schema_history'")
+                .mapTo(String.class).list();
+        for (final String table : tables) {
+            final List<Column> columns = handle.createQuery("select name, type, pk from pragma_table_info(?)")
+                    .bind(0, table)
+                    .map((rs, _) -> new Column(rs.getString("name"), rs.getString("type").toUpperCase(Locale.ROOT), rs.getInt("pk") > 0))
+                    .list();
+            final boolean singleKey = columns.stream().filter(Column::primaryKey).count() == 1;
+
+            final String sql = "insert or ignore into \"" + table + "\" (" + columns.stream().map(column -> "\"" + column.name() + "\"").collect(Collectors.joining(", "))
+                    + ") values (" + columns.stream().map(_ -> "?").collect(Collectors.joining(", ")) + ")";
+            try (final PreparedStatement statement = handle.getConnection().prepareStatement(sql)) {
+                for (int row = 0; row < SEEDED_ROWS; row++) {
+                    for (int i = 0; i < columns.size(); i++) {
+                        statement.setObject(i + 1, columns.get(i).value(row, singleKey));
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            } catch (SQLException exception) {
+                throw new RuntimeException("Failed to seed table " + table, exception);
+            }
+        }
+        handle.execute("analyze");
+    }
+
+    private static String sqlOf(Method method) {
+        if (method.isAnnotationPresent(SqlQuery.class)) return method.getAnnotation(SqlQuery.class).value();
+        if (method.isAnnotationPresent(SqlUpdate.class)) return method.getAnnotation(SqlUpdate.class).value();
+        if (method.isAnnotationPresent(SqlBatch.class)) return method.getAnnotation(SqlBatch.class).value();
+        return null;
+    }
+
+    private static List<String> captureStatements(Jdbi jdbi, Consumer<Handle> invocation) {
+        final List<String> statements = new ArrayList<>();
+        jdbi.useHandle(handle -> {
+            handle.setSqlLogger(new SqlLogger() {
+                @Override
+                public void logBeforeExecution(StatementContext context) {
+                    statements.add(context.getRenderedSql());
+                }
+            });
+            invocation.accept(handle);
+        });
+        return statements;
+    }
+
+    private static List<String> explain(Handle handle, String sql) {
+        final List<String> details = new ArrayList<>();
+        // Unbound parameters are treated as null by SQLite, which does not affect the plan
+        try (final PreparedStatement statement = handle.getConnection().prepareStatement("explain query plan " + NAMED_PARAMETER.matcher(sql).replaceAll("?"));
+             final ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                details.add(rs.getString("detail"));
+            }
+        } catch (SQLException exception) {
+            throw new RuntimeException("Failed to explain `" + sql + "`", exception);
+        }
+        return details;
+    }
+
+    private static String module(String pkg) {
+        return "classpath:net/neoforged/camelot/module/" + pkg + "/db/schema";
+    }
+
+    record Statement(String source, String sql) {}
+
+    record Column(String name, String type, boolean primaryKey) {
+        Object value(int row, boolean singleKey) {
+            final int distinct = switch (name.toLowerCase(Locale.ROOT)) {
+                case "guild" -> 5;
+                case "type", "location", "whitelist", "privileged", "force_recreate" -> 4;
+                case "user", "uid", "owner", "member", "moderator", "author", "quoter", "channel", "role", "trick" -> 500;
+                default -> 1_000;
+            };
+            final int value = primaryKey && singleKey ? row + 1 : Math.floorMod(row * 7_919 + name.hashCode(), distinct);
+            return type.contains("INT") || type.contains("BOOL") || type.isEmpty() ? value : name + " " + value;
+        }
+    }
+
+    record Schema(String name, String location, List<Class<?>> transactionals, Map<String, Consumer<Handle>> dynamicStatements) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package net.neoforged.camelot.test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.neoforged.camelot.script.ScriptInformation;
+import net.neoforged.camelot.script.ScriptOptions;
+import net.neoforged.camelot.script.option.EnumOptionHandler;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.kohsuke.args4j.NamedOptionDef;
+import org.kohsuke.args4j.spi.IntOptionHandler;
+
+import java.util.List;
+import java.util.Map;
+
+public class ScriptInformationTest {
+    @Test
+    void testDescriptorRoundTrip() throws Exception {
+        final ScriptInformation.Descriptor descriptor = new ScriptInformation.Descriptor("Rolls a die", List.of(
+                new ScriptOptions.Declaration(null, 0, Map.of("name", "sides", "type", "int", "required", true)),
+                new ScriptOptions.Declaration(List.of("mode", "m"), 0, Map.of("type", "enum", "values", List.of("fair", "loaded"), "description", "How to roll"))
+        ));
+
+        final ObjectMapper mapper = new ObjectMapper();
+        final ScriptInformation.Descriptor read = mapper.readValue(mapper.writeValueAsString(descriptor), ScriptInformation.Descriptor.class);
+        Assertions.assertThat(read).isEqualTo(descriptor);
+
+        final ScriptInformation information = read.toInformation();
+        Assertions.assertThat(information.description()).isEqualTo("Rolls a die");
+
+        Assertions.assertThat(information.arguments()).hasSize(1);
+        Assertions.assertThat(information.arguments().getFirst()).isInstanceOf(IntOptionHandler.class);
+        Assertions.assertThat(information.arguments().getFirst().option.metaVar()).isEqualTo("sides");
+        Assertions.assertThat(information.arguments().getFirst().option.required()).isTrue();
+
+        Assertions.assertThat(information.options()).hasSize(1);
+        Assertions.assertThat(information.options().getFirst()).isInstanceOf(EnumOptionHandler.class);
+        Assertions.assertThat(((NamedOptionDef) information.options().getFirst().option).name()).isEqualTo("-m");
+        Assertions.assertThat(((NamedOptionDef) information.options().getFirst().option).aliases()).containsExactly("--mode");
+        Assertions.assertThat(((EnumOptionHandler) information.options().getFirst()).enumType).containsExactlyInAnyOrder("fair", "loaded");
+    }
+}
@@ -0,0 +1,117 @@
+package net.neoforged.camelot.test;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.utils.messages.MessageCreateData;
+import net.neoforged.camelot.script.ScriptContext;
+import net.neoforged.camelot.script.ScriptReplier;
+import net.neoforged.camelot.script.ScriptScheduler;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ScriptSchedulerTest {
+    @Test
+    void testGuildsAndUsersAreServedInTurn() throws Exception {
+        try (final ScriptScheduler scheduler = new ScriptScheduler(1, new ScriptScheduler.Limits(3, 10, 10))) {
+            final List<String> order = new CopyOnWriteArrayList<>();
+            final CountDownLatch blocked = new CountDownLatch(1), done = new CountDownLatch(5);
+
+            // Keep the only worker busy until every execution is queued
+            block(scheduler, blocked);
+            for (int i = 0; i < 3; i++) {
+                submit(scheduler, 1, 10, "a", order, done);
+            }
+            submit(scheduler, 1, 20, "b", order, done);
+            submit(scheduler, 2, 30, "c", order, done);
+
+            blocked.countDown();
+            Assertions.assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+            Assertions.assertThat(order).containsExactly("a", "c", "b", "a", "a");
+        }
+    }
+
+    @Test
+    void testFullQueuesRejectExecutions() throws Exception {
+        try (final ScriptScheduler scheduler = new ScriptScheduler(1, new ScriptScheduler.Limits(1, 10, 10))) {
+            final CountDownLatch blocked = new CountDownLatch(1);
+            block(scheduler, blocked);
+
+            final Replies replies = new Replies();
+            Assertions.assertThat(scheduler.submit(context(1, 10, replies), null, Duration.ofMinutes(1), () -> {})).isTrue();
+            Assertions.assertThat(scheduler.submit(context(1, 10, replies), null, Duration.ofMinutes(1), () -> {})).isFalse();
+            Assertions.assertThat(replies.messages).containsExactly("You already have 1 tricks waiting to run, please wait for them to finish.");
+
+            Assertions.assertThat(scheduler.stats().queued()).isEqualTo(1);
+            Assertions.assertThat(scheduler.stats().rejected()).isEqualTo(1);
+            blocked.countDown();
+        }
+    }
+
+    @Test
+    void testClosedSchedulerStops() throws Exception {
+        final ScriptScheduler scheduler = new ScriptScheduler(1, new ScriptScheduler.Limits(1, 10, 10));
+        final CountDownLatch blocked = new CountDownLatch(1);
+        block(scheduler, blocked);
+
+        // Closing interrupts the running execution instead of waiting for it to finish
+        scheduler.close();
+        Assertions.assertThatThrownBy(() -> scheduler.submit(context(1, 10, new Replies()), null, Duration.ofMinutes(1), () -> {}))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static void submit(ScriptScheduler scheduler, long guild, long user, String name, List<String> order, CountDownLatch done) {
+        scheduler.submit(context(guild, user, new Replies()), null, Duration.ofMinutes(1), () -> {
+            order.add(name);
+            done.countDown();
+        });
+    }
+
+    private static void block(ScriptScheduler scheduler, CountDownLatch blocked) throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        scheduler.submit(context(1, 1, new Replies()), null, Duration.ofMinutes(1), () -> {
+            started.countDown();
+            await(blocked);
+        });
+        started.await();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static ScriptContext context(long guildId, long userId, Replies replies) {
+        final Guild guild = stub(Guild.class, guildId);
+        final Member member = stub(Member.class, userId);
+        return new ScriptContext(null, guild, member, null, new ScriptReplier() {
+            @Override
+            protected RestAction<?> doSend(MessageCreateData createData) {
+                replies.messages.add(createData.getContent());
+                return stub(RestAction.class, 0);
+            }
+        }, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, long id) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (_, method, _) -> switch (method.getName()) {
+            case "getIdLong" -> id;
+            default -> null;
+        });
+    }
+
+    private static final class Replies {
+        final List<String> messages = new CopyOnWriteArrayList<>();
+    }
+}
@@ -0,0 +1,68 @@
+package net.neoforged.camelot.test;
+
+import net.neoforged.camelot.script.ScriptContext;
+import net.neoforged.camelot.script.ScriptShape;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ScriptShapeTest {
+    private static final ScriptContext CONTEXT = new ScriptContext(null, null, null, null, null, false);
+
+    @Test
+    void testMembersAreComputedOnFirstAccess() {
+        final AtomicInteger computed = new AtomicInteger();
+        final ScriptShape<String> shape = ScriptShape.<String>of("Test")
+                .value("length", (_, target) -> {
+                    computed.incrementAndGet();
+                    return target.length();
+                });
+
+        final ScriptShape<String>.Instance instance = shape.wrap(CONTEXT, "abc");
+        Assertions.assertThat(computed).hasValue(0);
+        Assertions.assertThat(instance.getMember("length")).isEqualTo(3);
+        Assertions.assertThat(instance.getMember("length")).isEqualTo(3);
+        Assertions.assertThat(computed).hasValue(1);
+    }
+
+    @Test
+    void testConditionalMembers() {
+        final ScriptShape<String> shape = ScriptShape.<String>of("Test")
+                .valueIf(ScriptContext::priviliged, "secret", (_, target) -> target);
+
+        Assertions.assertThat(shape.wrap(CONTEXT, "abc").hasMember("secret")).isFalse();
+        Assertions.assertThat(shape.wrap(CONTEXT, "abc").getMember("secret")).isNull();
+
+        final ScriptContext privileged = new ScriptContext(null, null, null, null, null, true);
+        Assertions.assertThat(shape.wrap(privileged, "abc").getMember("secret")).isEqualTo("abc");
+    }
+
+    @Test
+    void testRemovedMembers() {
+        final ScriptShape<String> shape = ScriptShape.<String>of("Test")
+                .value("a", (_, _) -> 1)
+                .value("b", (_, _) -> 2);
+
+        final ScriptShape<String>.Instance instance = shape.wrap(CONTEXT, "abc");
+        Assertions.assertThat(instance.removeMember("a")).isTrue();
+        Assertions.assertThat(instance.removeMember("a")).isFalse();
+        Assertions.assertThat(instance.hasMember("a")).isFalse();
+        Assertions.assertThat(instance.getMember("a")).isNull();
+        Assertions.assertThat(instance.getMember("b")).isEqualTo(2);
+    }
+
+    @Test
+    void testExtendedShapesOnlyAffectNewObjects() {
+        final ScriptShape<String> shape = ScriptShape.<String>of("Test")
+                .value("a", (_, _) -> 1);
+        final ScriptShape<String>.Instance before = shape.wrap(CONTEXT, "abc");
+
+        shape.value("b", (_, _) -> 2);
+        Assertions.assertThat(before.hasMember("b")).isFalse();
+        Assertions.assertThat(shape.wrap(CONTEXT, "abc").getMember("b")).isEqualTo(2);
+
+        Assertions.assertThatThrownBy(() -> shape.value("a", (_, _) -> 3))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}